@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons.benchmark;
+
+import com.powsybl.ws.commons.ZipUtils;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Generated directories archived by the benchmarks. The content only depends on the dataset, so the results of
+ * different releases are comparable.
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+public enum ArchiveDataset {
+    /** Thousands of small xml files, as in an exported network split by profile. */
+    MANY_SMALL(5000, 4 * 1024, 1, false),
+    /** A few huge xml files, as in a big network export. */
+    FEW_HUGE(3, 32 * 1024 * 1024, 1, false),
+    /** Already compressed content, which does not deflate. */
+    COMPRESSED(64, 1024 * 1024, 1, true),
+    /** Small xml files under deeply nested directories, for long entry names. */
+    DEEP_PATHS(1000, 8 * 1024, 24, false);
+
+    private static final long SEED = 42;
+    private static final List<String> NAMES = List.of("ACLineSegment", "PowerTransformer", "Terminal", "ConnectivityNode",
+        "SynchronousMachine", "EnergyConsumer", "VoltageLevel", "Substation");
+
+    private final int fileCount;
+    private final int maxFileSize;
+    private final int depth;
+    private final boolean compressed;
+
+    ArchiveDataset(int fileCount, int maxFileSize, int depth, boolean compressed) {
+        this.fileCount = fileCount;
+        this.maxFileSize = maxFileSize;
+        this.depth = depth;
+        this.compressed = compressed;
+    }
+
+    /**
+     * Writes the files of the dataset into a directory.
+     */
+    public void generate(Path dir) throws IOException {
+        Random random = new Random(SEED);
+        for (int i = 0; i < fileCount; i++) {
+            Path parent = dir;
+            for (int level = 0; level < depth - 1; level++) {
+                parent = parent.resolve("level" + level + "-" + (i + level) % 4);
+            }
+            Files.createDirectories(parent);
+            int size = maxFileSize / 2 + random.nextInt(maxFileSize / 2);
+            Files.write(parent.resolve("file" + i + (compressed ? ".bin" : ".xml")), content(random, size));
+        }
+    }
+
+    private byte[] content(Random random, int size) {
+        if (compressed) {
+            byte[] bytes = new byte[size];
+            random.nextBytes(bytes);
+            return bytes;
+        }
+        StringBuilder xml = new StringBuilder(size + 256);
+        while (xml.length() < size) {
+            String name = NAMES.get(random.nextInt(NAMES.size()));
+            xml.append("<cim:").append(name).append(" rdf:ID=\"_").append(Long.toHexString(random.nextLong())).append("\">")
+                .append("<cim:IdentifiedObject.name>").append(name).append(' ').append(random.nextInt(100000))
+                .append("</cim:IdentifiedObject.name></cim:").append(name).append(">\n");
+        }
+        return xml.substring(0, size).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the zip archive of the dataset, as written by {@link ZipUtils}
+     */
+    public static byte[] zip(Path dir) {
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        ZipUtils.zip(dir, zip);
+        return zip.toByteArray();
+    }
+
+    /**
+     * @return the tar archive of the dataset
+     */
+    public static byte[] tar(Path dir) throws IOException {
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tos = new TarArchiveOutputStream(tar);
+             Stream<Path> paths = Files.walk(dir)) {
+            tos.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+            for (Path file : paths.filter(Files::isRegularFile).sorted().toList()) {
+                TarArchiveEntry entry = new TarArchiveEntry(file, dir.relativize(file).toString());
+                tos.putArchiveEntry(entry);
+                Files.copy(file, tos);
+                tos.closeArchiveEntry();
+            }
+        }
+        return tar.toByteArray();
+    }
+
+    public static void delete(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Reads a stream until its end, so that only the decompression is measured.
+     *
+     * @return the number of bytes read
+     */
+    static long drain(InputStream in, byte[] buffer) throws IOException {
+        long readBytes = 0;
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            readBytes += n;
+        }
+        return readBytes;
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.powsybl.ws.commons.error.PowsyblWsProblemDetail;
+import com.powsybl.ws.commons.error.PowsyblWsProblemDetail.ChainEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes the error body forwarded at each hop of a chain of services, with the streaming codec of the
+ * problem details, with its forwarding variant keeping the upstream chain raw and, as a baseline, with the bean
+ * introspection of an object mapper they were read and written with before the codec, restored by mixins.
+ *
+ * @author Mohamed Ben-rejeb {@literal <mohamed.ben-rejeb at rte-france.com>}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProblemDetailBenchmark {
+
+    private static final ObjectMapper BEAN_OBJECT_MAPPER = new ObjectMapper().registerModule(new JavaTimeModule())
+        .addMixIn(PowsyblWsProblemDetail.class, BeanProblemDetailMixin.class)
+        .addMixIn(ChainEntry.class, BeanChainEntryMixin.class);
+
+    @Param({"1", "10"})
+    private int chainLength;
+
+    @Param({"0", "20"})
+    private int businessErrorValueCount;
+
+    private PowsyblWsProblemDetail problemDetail;
+    private byte[] body;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Map<String, Object> businessErrorValues = new LinkedHashMap<>();
+        for (int i = 0; i < businessErrorValueCount; i++) {
+            businessErrorValues.put("value" + i, i % 2 == 0 ? "element-" + i : List.of(i, "id-" + i));
+        }
+        List<ChainEntry> chain = new ArrayList<>();
+        for (int i = 0; i < chainLength; i++) {
+            chain.add(new ChainEntry("server-" + i, "server-" + (i + 1), "GET", "/v1/resources/" + i, Instant.now()));
+        }
+        problemDetail = new PowsyblWsProblemDetail("Not Found", 404, "Resource not found", "server-" + chainLength,
+            "resource.NOT_FOUND", businessErrorValues, Instant.now(), "/v1/resources", "0af7651916cd43dd", chain);
+        body = problemDetail.toBytes();
+    }
+
+    @Benchmark
+    public PowsyblWsProblemDetail read() throws IOException {
+        return PowsyblWsProblemDetail.fromBytes(body);
+    }
+
+    @Benchmark
+    public PowsyblWsProblemDetail readBean() throws IOException {
+        return BEAN_OBJECT_MAPPER.readValue(body, PowsyblWsProblemDetail.class);
+    }
+
+    @Benchmark
+    public void write() throws IOException {
+        problemDetail.writeTo(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void writeBean() throws IOException {
+        BEAN_OBJECT_MAPPER.writeValue(OutputStream.nullOutputStream(), problemDetail);
+    }
+
+    @Benchmark
+    public byte[] readWrapWrite() throws IOException {
+        PowsyblWsProblemDetail forwarded = PowsyblWsProblemDetail.fromBytes(body);
+        forwarded.wrap("gateway", "GET", "/v1/resources");
+        return forwarded.toBytes();
+    }
+
+    @Benchmark
+    public byte[] readWrapWriteForwarded() throws IOException {
+        PowsyblWsProblemDetail forwarded = PowsyblWsProblemDetail.fromForwardedBytes(body);
+        forwarded.wrap("gateway", "GET", "/v1/resources");
+        return forwarded.toBytes();
+    }
+
+    /**
+     * Resets the codec and restores the annotations the problem details had before it.
+     */
+    @JsonSerialize(using = JsonSerializer.None.class)
+    @JsonDeserialize(using = JsonDeserializer.None.class)
+    @JsonIgnoreProperties({"instance", "type", "truncation"})
+    abstract static class BeanProblemDetailMixin {
+
+        @JsonFormat(shape = JsonFormat.Shape.STRING)
+        private Instant timestamp;
+
+        @JsonCreator
+        BeanProblemDetailMixin(
+            @JsonProperty("title") String title,
+            @JsonProperty("status") Integer status,
+            @JsonProperty("detail") String detail,
+            @JsonProperty("server") String server,
+            @JsonProperty("businessErrorCode") String businessErrorCode,
+            @JsonProperty("businessErrorValues") Map<String, Object> businessErrorValues,
+            @JsonProperty("timestamp") Instant timestamp,
+            @JsonProperty("path") String path,
+            @JsonProperty("traceId") String traceId,
+            @JsonProperty("chain") List<ChainEntry> chain
+        ) {
+        }
+    }
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    @JsonDeserialize(using = JsonDeserializer.None.class)
+    @JsonIgnoreProperties("count")
+    abstract static class BeanChainEntryMixin {
+
+        @JsonCreator
+        BeanChainEntryMixin(
+            @JsonProperty("from-server") String fromServer,
+            @JsonProperty("to-server") String toServer,
+            @JsonProperty("method") String method,
+            @JsonProperty("path") String path,
+            @JsonProperty("timestamp") @JsonFormat(shape = JsonFormat.Shape.STRING) Instant timestamp
+        ) {
+        }
+
+        @JsonProperty("from-server")
+        abstract String fromServer();
+
+        @JsonProperty("to-server")
+        abstract String toServer();
+
+        @JsonFormat(shape = JsonFormat.Shape.STRING)
+        abstract Instant timestamp();
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons.benchmark;
+
+import com.powsybl.ws.commons.ArchiveFormat;
+import com.powsybl.ws.commons.SecuredArchiveReader;
+import com.powsybl.ws.commons.SecuredTarInputStream;
+import com.powsybl.ws.commons.SecuredZipInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Reads whole archives with the secured streams and with the raw streams they wrap, the difference being the cost of
+ * the limits. The archives are in memory, so only the decompression and the checks are measured.
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SecuredStreamBenchmark {
+
+    private static final int MAX_ENTRIES = 100000;
+    private static final long MAX_SIZE = 1L << 40;
+
+    @Param
+    private ArchiveDataset dataset;
+
+    private byte[] zip;
+    private byte[] tar;
+
+    @State(Scope.Thread)
+    public static class Buffer {
+        final byte[] bytes = new byte[64 * 1024];
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path dir = Files.createTempDirectory("powsybl-ws-benchmark");
+        try {
+            dataset.generate(dir);
+            zip = ArchiveDataset.zip(dir);
+            tar = ArchiveDataset.tar(dir);
+        } finally {
+            ArchiveDataset.delete(dir);
+        }
+    }
+
+    @Benchmark
+    public long rawZip(Buffer buffer) throws IOException {
+        long readBytes = 0;
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            while (zis.getNextEntry() != null) {
+                readBytes += ArchiveDataset.drain(zis, buffer.bytes);
+            }
+        }
+        return readBytes;
+    }
+
+    @Benchmark
+    public long securedZip(Buffer buffer) throws IOException {
+        long readBytes = 0;
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(new ByteArrayInputStream(zip), MAX_ENTRIES, MAX_SIZE)) {
+            while (zis.getNextEntry() != null) {
+                readBytes += ArchiveDataset.drain(zis, buffer.bytes);
+            }
+        }
+        return readBytes;
+    }
+
+    @Benchmark
+    public long rawTar(Buffer buffer) throws IOException {
+        long readBytes = 0;
+        try (TarArchiveInputStream tis = new TarArchiveInputStream(new ByteArrayInputStream(tar))) {
+            while (tis.getNextEntry() != null) {
+                readBytes += ArchiveDataset.drain(tis, buffer.bytes);
+            }
+        }
+        return readBytes;
+    }
+
+    @Benchmark
+    public long securedTar(Buffer buffer) throws IOException {
+        long readBytes = 0;
+        try (SecuredTarInputStream tis = new SecuredTarInputStream(new ByteArrayInputStream(tar), MAX_ENTRIES, MAX_SIZE)) {
+            while (tis.getNextEntry() != null) {
+                readBytes += ArchiveDataset.drain(tis, buffer.bytes);
+            }
+        }
+        return readBytes;
+    }
+
+    @Benchmark
+    public long securedArchiveReader(Buffer buffer) throws IOException {
+        long readBytes = 0;
+        try (SecuredArchiveReader reader = new SecuredArchiveReader(new ByteArrayInputStream(zip), ArchiveFormat.ZIP, MAX_ENTRIES, MAX_SIZE)) {
+            while (reader.getNextEntry() != null) {
+                readBytes += ArchiveDataset.drain(reader, buffer.bytes);
+            }
+        }
+        return readBytes;
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons.benchmark;
+
+import com.powsybl.ws.commons.ZipOptions;
+import com.powsybl.ws.commons.ZipUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Zips a generated directory to a discarding stream, the file system cache being warmed up by the first iterations.
+ *
+ * @author Thang PHAM <quyet-thang.pham at rte-france.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ZipUtilsBenchmark {
+
+    @Param
+    private ArchiveDataset dataset;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    @Param({"false", "true"})
+    private boolean adaptive;
+
+    @Param({"1", "16"})
+    private int walkParallelism;
+
+    private Path dir;
+    private ZipOptions options;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("powsybl-ws-benchmark");
+        dataset.generate(dir);
+        options = ZipOptions.builder().parallelism(parallelism).adaptive(adaptive).walkParallelism(walkParallelism).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        ArchiveDataset.delete(dir);
+    }
+
+    @Benchmark
+    public void zip() {
+        ZipUtils.zip(dir, OutputStream.nullOutputStream(), options);
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import java.nio.file.FileSystems;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Filters of entry names for the secured archive readers, to only read the entries needed, e.g. a network file and
+ * its parameters out of a big archive.
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+public final class ArchiveEntryFilters {
+
+    private ArchiveEntryFilters() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * @param globs glob patterns of entry names, as described in {@link java.nio.file.FileSystem#getPathMatcher}, e.g.
+     *              {@code **.xml} or {@code parameters.json}, '/' separating the directories
+     * @return a filter accepting the names matching at least one of the patterns
+     */
+    public static Predicate<String> glob(String... globs) {
+        List<PathMatcher> matchers = Arrays.stream(globs)
+            .map(glob -> FileSystems.getDefault().getPathMatcher("glob:" + glob))
+            .toList();
+        return name -> {
+            Path path;
+            try {
+                path = Path.of(name);
+            } catch (InvalidPathException e) {
+                return false;
+            }
+            return matchers.stream().anyMatch(matcher -> matcher.matches(path));
+        };
+    }
+}
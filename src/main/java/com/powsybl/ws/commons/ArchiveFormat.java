@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Formats read by {@link SecuredArchiveReader}: archives, possibly compressed, and single compressed files.
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+public enum ArchiveFormat {
+    ZIP(true, false, ".zip"),
+    TAR(true, false, ".tar"),
+    TAR_GZIP(true, true, ".tar.gz", ".tgz"),
+    TAR_XZ(true, true, ".tar.xz", ".txz"),
+    TAR_BZIP2(true, true, ".tar.bz2", ".tbz2"),
+    GZIP(false, true, ".gz"),
+    XZ(false, true, ".xz"),
+    BZIP2(false, true, ".bz2");
+
+    /**
+     * Number of bytes read by {@link #detect}, enough for the header of a tar entry.
+     */
+    public static final int SIGNATURE_LENGTH = 512;
+
+    private static final byte[] XZ_MAGIC = {(byte) 0xFD, '7', 'z', 'X', 'Z', 0};
+
+    private final boolean archive;
+    private final boolean compressed;
+    private final List<String> extensions;
+
+    ArchiveFormat(boolean archive, boolean compressed, String... extensions) {
+        this.archive = archive;
+        this.compressed = compressed;
+        this.extensions = List.of(extensions);
+    }
+
+    public List<String> getExtensions() {
+        return extensions;
+    }
+
+    /**
+     * @return the name of the format in the metrics, e.g. {@code tar.gz}
+     */
+    public String getName() {
+        return extensions.getFirst().substring(1);
+    }
+
+    /**
+     * @return whether the format contains entries, false for a single compressed file.
+     */
+    public boolean isArchive() {
+        return archive;
+    }
+
+    /**
+     * @return whether the whole content is compressed, e.g. for tar.gz but not for zip whose entries are compressed.
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * @return the format of an archive file from the extension of its name, empty if it is not an archive.
+     */
+    public static Optional<ArchiveFormat> fromName(String name) {
+        String lowerCaseName = name.toLowerCase(Locale.ROOT);
+        return Arrays.stream(values())
+            .filter(format -> format.extensions.stream().anyMatch(lowerCaseName::endsWith))
+            .findFirst();
+    }
+
+    /**
+     * Reads the magic bytes at the start of a stream, which is then reset, to find its format. A compressed tar cannot
+     * be told from a single compressed file without decompressing it, so only {@link #GZIP}, {@link #XZ} or
+     * {@link #BZIP2} are returned for compressed content, see {@link SecuredArchiveReader#open}.
+     *
+     * @param in a stream supporting {@link InputStream#mark}
+     * @return the format, empty if it is not recognized
+     */
+    public static Optional<ArchiveFormat> detect(InputStream in) throws IOException {
+        if (!in.markSupported()) {
+            throw new IllegalArgumentException("Stream must support mark/reset.");
+        }
+        byte[] signature;
+        in.mark(SIGNATURE_LENGTH);
+        try {
+            signature = in.readNBytes(SIGNATURE_LENGTH);
+        } finally {
+            in.reset();
+        }
+        int length = signature.length;
+        if (ZipArchiveInputStream.matches(signature, length)) {
+            return Optional.of(ZIP);
+        }
+        if (GzipCompressorInputStream.matches(signature, length)) {
+            return Optional.of(GZIP);
+        }
+        if (BZip2CompressorInputStream.matches(signature, length)) {
+            return Optional.of(BZIP2);
+        }
+        if (length >= XZ_MAGIC.length && Arrays.equals(signature, 0, XZ_MAGIC.length, XZ_MAGIC, 0, XZ_MAGIC.length)) {
+            return Optional.of(XZ);
+        }
+        if (TarArchiveInputStream.matches(signature, length)) {
+            return Optional.of(TAR);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return the decompressed content of a compressed format, the stream itself otherwise.
+     */
+    InputStream decompress(InputStream in) throws IOException {
+        return switch (this) {
+            case TAR_GZIP, GZIP -> new GzipCompressorInputStream(in, true);
+            case TAR_XZ, XZ -> new XZCompressorInputStream(in, true);
+            case TAR_BZIP2, BZIP2 -> new BZip2CompressorInputStream(in, true);
+            case ZIP, TAR -> in;
+        };
+    }
+
+    /**
+     * @return the format of a tar compressed with this format, e.g. {@link #TAR_GZIP} for {@link #GZIP}.
+     */
+    ArchiveFormat withTar() {
+        return switch (this) {
+            case GZIP, TAR_GZIP -> TAR_GZIP;
+            case XZ, TAR_XZ -> TAR_XZ;
+            case BZIP2, TAR_BZIP2 -> TAR_BZIP2;
+            case ZIP, TAR -> throw new IllegalStateException("Not a compression format: " + this);
+        };
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+/**
+ * Thrown when an archive is rejected because it exceeds one of the limits against zip/tar bombs.
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+public class ArchiveLimitException extends IllegalStateException {
+
+    /**
+     * The limit exceeded by an archive.
+     */
+    public enum Reason {
+        TOO_MANY_ENTRIES("Archive has too many entries."),
+        TOO_BIG("Archive size is too big."),
+        COMPRESSION_RATIO_TOO_HIGH("Archive compression ratio is too high."),
+        ENTRY_COMPRESSION_RATIO_TOO_HIGH("Archive entry compression ratio is too high."),
+        NESTING_TOO_DEEP("Archive nesting is too deep."),
+        BUDGET_EXHAUSTED("Decompression budget is exhausted."),
+        DURATION_TOO_LONG("Archive decompression takes too long."),
+        CPU_TIME_TOO_LONG("Archive decompression uses too much CPU time."),
+        THROUGHPUT_TOO_LOW("Archive decompression throughput is too low.");
+
+        private final String message;
+
+        Reason(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    private final transient Reason reason;
+
+    public ArchiveLimitException(Reason reason) {
+        super(reason.getMessage());
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
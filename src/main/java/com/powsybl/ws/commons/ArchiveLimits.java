@@ -0,0 +1,268 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Limits enforced by the secured archive streams ({@link SecuredZipInputStream}, {@link SecuredTarInputStream} and
+ * {@link SecuredArchiveReader}) to avoid zip/tar bombs.
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+public final class ArchiveLimits {
+
+    public static final long DEFAULT_MIN_SIZE_FOR_RATIO_CHECK = ZipCentralDirectoryReader.MIN_SIZE_FOR_RATIO_CHECK;
+    public static final Duration DEFAULT_MIN_THROUGHPUT_GRACE_PERIOD = Duration.ofSeconds(10);
+
+    private final int maxEntries;
+    private final long maxUncompressedSize;
+    private final double maxCompressionRatio;
+    private final double maxEntryCompressionRatio;
+    private final long minSizeForRatioCheck;
+    private final int maxNestingDepth;
+    private final DecompressionBudget budget;
+    private final Duration maxDuration;
+    private final Duration maxCpuTime;
+    private final long minThroughput;
+    private final Duration minThroughputGracePeriod;
+    private final ArchiveMetricsRecorder metricsRecorder;
+
+    private ArchiveLimits(Builder builder) {
+        this.maxEntries = builder.maxEntries;
+        this.maxUncompressedSize = builder.maxUncompressedSize;
+        this.maxCompressionRatio = builder.maxCompressionRatio;
+        this.maxEntryCompressionRatio = builder.maxEntryCompressionRatio;
+        this.minSizeForRatioCheck = builder.minSizeForRatioCheck;
+        this.maxNestingDepth = builder.maxNestingDepth;
+        this.budget = builder.budget;
+        this.maxDuration = builder.maxDuration;
+        this.maxCpuTime = builder.maxCpuTime;
+        this.minThroughput = builder.minThroughput;
+        this.minThroughputGracePeriod = builder.minThroughputGracePeriod;
+        this.metricsRecorder = builder.metricsRecorder;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    static ArchiveLimits of(int maxEntries, long maxUncompressedSize, DecompressionBudget budget) {
+        return builder().maxEntries(maxEntries).maxUncompressedSize(maxUncompressedSize).budget(budget).build();
+    }
+
+    /**
+     * @return the maximum number of entries, counting the entries of nested archives.
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @return the maximum number of decompressed bytes, counting the bytes decompressed by each layer of nested archives.
+     */
+    public long getMaxUncompressedSize() {
+        return maxUncompressedSize;
+    }
+
+    /**
+     * @return the maximum ratio between the decompressed bytes and the compressed bytes read of a whole archive.
+     */
+    public double getMaxCompressionRatio() {
+        return maxCompressionRatio;
+    }
+
+    /**
+     * @return the maximum ratio between the decompressed bytes and the compressed bytes read of a single entry.
+     */
+    public double getMaxEntryCompressionRatio() {
+        return maxEntryCompressionRatio;
+    }
+
+    /**
+     * @return the number of decompressed bytes below which the compression ratios are not checked, small files of
+     * repeated bytes being common.
+     */
+    public long getMinSizeForRatioCheck() {
+        return minSizeForRatioCheck;
+    }
+
+    /**
+     * @return the maximum number of archives enclosing a nested archive read by {@link SecuredArchiveReader}.
+     */
+    public int getMaxNestingDepth() {
+        return maxNestingDepth;
+    }
+
+    /**
+     * @return the budget shared with other streams, from which the decompressed bytes are drawn until the stream is closed.
+     */
+    public Optional<DecompressionBudget> getBudget() {
+        return Optional.ofNullable(budget);
+    }
+
+    /**
+     * @return the maximum wall-clock time between the opening of the stream and its last read, nested archives included.
+     */
+    public Optional<Duration> getMaxDuration() {
+        return Optional.ofNullable(maxDuration);
+    }
+
+    /**
+     * @return the maximum CPU time spent by the threads reading the stream, when the JVM measures it.
+     */
+    public Optional<Duration> getMaxCpuTime() {
+        return Optional.ofNullable(maxCpuTime);
+    }
+
+    /**
+     * @return the minimum number of decompressed bytes per second since the opening of the stream, 0 if there is none.
+     */
+    public long getMinThroughput() {
+        return minThroughput;
+    }
+
+    /**
+     * @return the time after the opening of the stream during which the minimum throughput is not checked.
+     */
+    public Duration getMinThroughputGracePeriod() {
+        return minThroughputGracePeriod;
+    }
+
+    /**
+     * @return the recorder of the statistics and rejections of the archives read with these limits.
+     */
+    public ArchiveMetricsRecorder getMetricsRecorder() {
+        return metricsRecorder;
+    }
+
+    public static final class Builder {
+
+        private int maxEntries = -1;
+        private long maxUncompressedSize = -1;
+        private double maxCompressionRatio = Double.POSITIVE_INFINITY;
+        private double maxEntryCompressionRatio = Double.POSITIVE_INFINITY;
+        private long minSizeForRatioCheck = DEFAULT_MIN_SIZE_FOR_RATIO_CHECK;
+        private int maxNestingDepth = SecuredArchiveReader.DEFAULT_MAX_NESTING_DEPTH;
+        private DecompressionBudget budget;
+        private Duration maxDuration;
+        private Duration maxCpuTime;
+        private long minThroughput = 0;
+        private Duration minThroughputGracePeriod = DEFAULT_MIN_THROUGHPUT_GRACE_PERIOD;
+        private ArchiveMetricsRecorder metricsRecorder = DefaultArchiveMetricsRecorder.INSTANCE;
+
+        private Builder() {
+        }
+
+        public Builder maxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        public Builder maxUncompressedSize(long maxUncompressedSize) {
+            this.maxUncompressedSize = maxUncompressedSize;
+            return this;
+        }
+
+        public Builder maxCompressionRatio(double maxCompressionRatio) {
+            this.maxCompressionRatio = checkRatio(maxCompressionRatio);
+            return this;
+        }
+
+        public Builder maxEntryCompressionRatio(double maxEntryCompressionRatio) {
+            this.maxEntryCompressionRatio = checkRatio(maxEntryCompressionRatio);
+            return this;
+        }
+
+        public Builder minSizeForRatioCheck(long minSizeForRatioCheck) {
+            this.minSizeForRatioCheck = minSizeForRatioCheck;
+            return this;
+        }
+
+        public Builder maxNestingDepth(int maxNestingDepth) {
+            if (maxNestingDepth < 0) {
+                throw new IllegalArgumentException("Max nesting depth must be positive.");
+            }
+            this.maxNestingDepth = maxNestingDepth;
+            return this;
+        }
+
+        public Builder budget(DecompressionBudget budget) {
+            this.budget = budget;
+            return this;
+        }
+
+        /**
+         * Aborts the reads of an archive taking longer than the given duration, e.g. a slowly uploaded archive holding
+         * a request thread.
+         */
+        public Builder maxDuration(Duration maxDuration) {
+            this.maxDuration = checkDuration(maxDuration, "Max duration");
+            return this;
+        }
+
+        /**
+         * Aborts the reads of an archive costing more than the given CPU time, e.g. a pathological archive which is
+         * slow to decompress.
+         */
+        public Builder maxCpuTime(Duration maxCpuTime) {
+            this.maxCpuTime = checkDuration(maxCpuTime, "Max CPU time");
+            return this;
+        }
+
+        /**
+         * Aborts the reads of an archive decompressed at less than the given number of bytes per second on average,
+         * once the grace period is over.
+         */
+        public Builder minThroughput(long minThroughput, Duration gracePeriod) {
+            if (minThroughput < 0) {
+                throw new IllegalArgumentException("Min throughput must be positive.");
+            }
+            Objects.requireNonNull(gracePeriod, "gracePeriod");
+            if (gracePeriod.isNegative()) {
+                throw new IllegalArgumentException("Min throughput grace period must be positive.");
+            }
+            this.minThroughput = minThroughput;
+            this.minThroughputGracePeriod = gracePeriod;
+            return this;
+        }
+
+        /**
+         * Records the statistics of the archives with another recorder than the default one, which is the last
+         * {@link MicrometerArchiveMetrics} bound to a registry, e.g. by the auto-configuration, nothing being recorded
+         * without one.
+         */
+        public Builder metricsRecorder(ArchiveMetricsRecorder metricsRecorder) {
+            this.metricsRecorder = Objects.requireNonNull(metricsRecorder, "metricsRecorder");
+            return this;
+        }
+
+        public ArchiveLimits build() {
+            if (maxEntries < 0 || maxUncompressedSize < 0) {
+                throw new IllegalArgumentException("Max entries and max uncompressed size must be set.");
+            }
+            return new ArchiveLimits(this);
+        }
+
+        private static double checkRatio(double ratio) {
+            if (!(ratio >= 1)) {
+                throw new IllegalArgumentException("Invalid compression ratio: " + ratio);
+            }
+            return ratio;
+        }
+
+        private static Duration checkDuration(Duration duration, String name) {
+            Objects.requireNonNull(duration, "duration");
+            if (duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException(name + " must be strictly positive.");
+            }
+            return duration;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+/**
+ * Receives the statistics of the archives read and written by the secured streams and {@link ZipUtils}, see
+ * {@link ArchiveLimits.Builder#metricsRecorder} and {@link ZipOptions.Builder#metricsRecorder}, the last
+ * {@link MicrometerArchiveMetrics} bound to a registry being used by default. Implementations must be thread-safe and
+ * cheap, as they are called for each entry, possibly by several archives at once.
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+public interface ArchiveMetricsRecorder {
+
+    ArchiveMetricsRecorder NOOP = new ArchiveMetricsRecorder() {
+    };
+
+    /**
+     * Called when an archive stream is closed.
+     *
+     * @param format            the format of the archive, e.g. {@code zip}
+     * @param compressedBytes   the bytes read from the archive
+     * @param uncompressedBytes the bytes decompressed from the archive, counting the bytes of every layer of nested archives
+     * @param entries           the number of entries read
+     * @param durationNanos     the time between the opening and the closing of the archive
+     */
+    default void recordRead(String format, long compressedBytes, long uncompressedBytes, int entries, long durationNanos) {
+    }
+
+    /**
+     * Called when an archive is written.
+     */
+    default void recordWrite(String format, long uncompressedBytes, long compressedBytes, int entries, long durationNanos) {
+    }
+
+    /**
+     * Called for each entry read from a compressed archive.
+     */
+    default void recordEntry(String format, long compressedBytes, long uncompressedBytes) {
+    }
+
+    /**
+     * Called when an archive is rejected because it exceeds a limit.
+     */
+    default void recordRejection(String format, ArchiveLimitException.Reason reason) {
+    }
+}
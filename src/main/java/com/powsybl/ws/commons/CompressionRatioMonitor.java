@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Compares the bytes decompressed by a stream to the compressed bytes it consumed, for the whole stream and for its
+ * current entry, to abort as soon as a ratio is too high instead of decompressing a bomb until the size limit.
+ * The compression ratio of each entry is also recorded in the metrics, see {@link ArchiveLimits#getMetricsRecorder()}.
+ * <p>
+ * The compressed bytes are counted from the underlying stream, read ahead by the decompressing streams, so a ratio is
+ * slightly underestimated, which is negligible above the minimum size for the check.
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+final class CompressionRatioMonitor {
+
+    private final SecuredInputStream securedStream;
+    private final String format;
+    private final LongSupplier compressedCount;
+    private final double maxRatio;
+    private final double maxEntryRatio;
+    private final long minSize;
+    private final boolean limited;
+    private long uncompressedBytes;
+    private long entryUncompressedBytes;
+    private long entryStartCompressedCount;
+    private boolean inEntry;
+
+    CompressionRatioMonitor(SecuredInputStream securedStream, String format, LongSupplier compressedCount, double maxRatio,
+                            double maxEntryRatio, long minSize) {
+        this.securedStream = securedStream;
+        this.format = format;
+        this.compressedCount = compressedCount;
+        this.maxRatio = maxRatio;
+        this.maxEntryRatio = maxEntryRatio;
+        this.minSize = minSize;
+        this.limited = !Double.isInfinite(maxRatio) || !Double.isInfinite(maxEntryRatio);
+    }
+
+    void startEntry() {
+        endEntry();
+        inEntry = true;
+        entryUncompressedBytes = 0;
+        entryStartCompressedCount = compressedCount.getAsLong();
+    }
+
+    /**
+     * Records the ratio of the current entry, if any.
+     */
+    void endEntry() {
+        if (inEntry) {
+            inEntry = false;
+            securedStream.getMetricsRecorder().recordEntry(format, compressedCount.getAsLong() - entryStartCompressedCount, entryUncompressedBytes);
+        }
+    }
+
+    void onRead(int readBytes) {
+        if (readBytes <= 0) {
+            return;
+        }
+        uncompressedBytes += readBytes;
+        entryUncompressedBytes += readBytes;
+        if (!limited || entryUncompressedBytes < minSize && uncompressedBytes < minSize) {
+            return;
+        }
+        long compressedBytes = compressedCount.getAsLong();
+        if (entryUncompressedBytes >= minSize && entryUncompressedBytes > maxEntryRatio * (compressedBytes - entryStartCompressedCount)) {
+            throw securedStream.reject(ArchiveLimitException.Reason.ENTRY_COMPRESSION_RATIO_TOO_HIGH);
+        }
+        if (uncompressedBytes >= minSize && uncompressedBytes > maxRatio * compressedBytes) {
+            throw securedStream.reject(ArchiveLimitException.Reason.COMPRESSION_RATIO_TOO_HIGH);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Digests the decompressed content of the entries of an archive while they are read, and the archive as the sequence
+ * of the names and digests of its entries, so that the archive digest does not depend on how it was compressed.
+ *
+ * @author Thang PHAM <quyet-thang.pham at rte-france.com>
+ */
+final class ContentDigester {
+
+    private final MessageDigest entryDigest;
+    private final MessageDigest archiveDigest;
+    private String entryName;
+    private boolean inEntry;
+
+    ContentDigester(String algorithm) {
+        try {
+            this.entryDigest = MessageDigest.getInstance(algorithm);
+            this.archiveDigest = MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Unknown digest algorithm: " + algorithm, e);
+        }
+    }
+
+    void startEntry(String name) {
+        endEntry();
+        entryDigest.reset();
+        entryName = name;
+        inEntry = true;
+    }
+
+    /**
+     * Adds the digest of the current entry, if any, to the archive digest.
+     */
+    void endEntry() {
+        if (inEntry) {
+            inEntry = false;
+            addEntry(archiveDigest, entryName, entryDigest.digest());
+        }
+    }
+
+    void update(byte[] b, int off, int readBytes) {
+        if (inEntry && readBytes > 0) {
+            entryDigest.update(b, off, readBytes);
+        }
+    }
+
+    /**
+     * @return the digest of the bytes read from the current entry so far, null if there is no current entry
+     */
+    byte[] getEntryDigest() {
+        return inEntry ? copy(entryDigest).digest() : null;
+    }
+
+    /**
+     * @return the digest of the entries read so far, including the bytes read from the current entry
+     */
+    byte[] getArchiveDigest() {
+        MessageDigest digest = copy(archiveDigest);
+        if (inEntry) {
+            addEntry(digest, entryName, copy(entryDigest).digest());
+        }
+        return digest.digest();
+    }
+
+    private static void addEntry(MessageDigest digest, String name, byte[] contentDigest) {
+        digest.update(name.getBytes(StandardCharsets.UTF_8));
+        // the name is not a valid UTF-8 prefix of the content digest, so different entries cannot give the same input
+        digest.update((byte) 0);
+        digest.update(contentDigest);
+    }
+
+    private static MessageDigest copy(MessageDigest digest) {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("Digest algorithm cannot be cloned: " + digest.getAlgorithm(), e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts the bytes read from a compressed stream, see {@link CompressionRatioMonitor}.
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+final class CountingInputStream extends FilterInputStream {
+
+    private long count;
+
+    CountingInputStream(InputStream in) {
+        super(in);
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b != -1) {
+            count++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int readBytes = in.read(b, off, len);
+        if (readBytes > 0) {
+            count += readBytes;
+        }
+        return readBytes;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skippedBytes = in.skip(n);
+        count += skippedBytes;
+        return skippedBytes;
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Number of decompressed bytes shared by several secured streams, possibly read by different threads, e.g. to cap the
+ * bytes decompressed by all the concurrent imports of a service.
+ * <p>
+ * Each secured stream draws the bytes it decompresses from the budget, and gives them back when it is closed.
+ * When the budget is exhausted, a stream needing more bytes either fails right away, or waits for other streams to be
+ * closed at most a timeout, depending on the {@link Admission} of the budget. There is no unbounded wait, as streams
+ * waiting for each other, e.g. nested ones read by the same thread, would never be released. Acquiring and releasing
+ * bytes is lock-free, only waiting streams take a lock.
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+public final class DecompressionBudget {
+
+    /**
+     * What a stream does when it needs more bytes than available.
+     */
+    public enum Admission {
+        /** Fails right away. */
+        FAIL_FAST,
+        /** Waits until enough bytes are released, failing after the timeout of the budget. */
+        TIMEOUT
+    }
+
+    private final long capacity;
+    private final Admission admission;
+    private final Duration timeout;
+    private final AtomicLong availableBytes;
+    private final AtomicInteger waitingThreads = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    private DecompressionBudget(Builder builder) {
+        this.capacity = builder.capacity;
+        this.admission = builder.admission;
+        this.timeout = builder.timeout;
+        this.availableBytes = new AtomicLong(capacity);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public Admission getAdmission() {
+        return admission;
+    }
+
+    public long getAvailableBytes() {
+        return availableBytes.get();
+    }
+
+    /**
+     * Takes as many bytes as available, up to {@code bytes}, without waiting.
+     *
+     * @return the number of bytes taken, 0 if the budget is exhausted
+     */
+    public long tryAcquireUpTo(long bytes) {
+        while (true) {
+            long available = availableBytes.get();
+            long acquired = Math.min(available, bytes);
+            if (acquired <= 0 || availableBytes.compareAndSet(available, available - acquired)) {
+                return Math.max(0, acquired);
+            }
+        }
+    }
+
+    /**
+     * Takes exactly {@code bytes}, failing or waiting according to the admission of the budget when they are not available.
+     *
+     * @throws ArchiveLimitException if the bytes are not available in time
+     * @throws InterruptedIOException if the thread is interrupted while waiting
+     */
+    public void acquire(long bytes) throws InterruptedIOException {
+        if (bytes <= 0 || tryAcquire(bytes)) {
+            return;
+        }
+        if (bytes > capacity || admission == Admission.FAIL_FAST) {
+            throw new ArchiveLimitException(ArchiveLimitException.Reason.BUDGET_EXHAUSTED);
+        }
+        long remainingNanos = timeout.toNanos();
+        waitingThreads.incrementAndGet();
+        lock.lock();
+        try {
+            while (!tryAcquire(bytes)) {
+                if (remainingNanos <= 0) {
+                    throw new ArchiveLimitException(ArchiveLimitException.Reason.BUDGET_EXHAUSTED);
+                }
+                remainingNanos = released.awaitNanos(remainingNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for decompression budget");
+        } finally {
+            lock.unlock();
+            waitingThreads.decrementAndGet();
+        }
+    }
+
+    /**
+     * Gives back bytes previously acquired.
+     */
+    public void release(long bytes) {
+        if (bytes <= 0) {
+            return;
+        }
+        availableBytes.addAndGet(bytes);
+        if (waitingThreads.get() > 0) {
+            lock.lock();
+            try {
+                released.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private boolean tryAcquire(long bytes) {
+        while (true) {
+            long available = availableBytes.get();
+            if (available < bytes) {
+                return false;
+            }
+            if (availableBytes.compareAndSet(available, available - bytes)) {
+                return true;
+            }
+        }
+    }
+
+    public static final class Builder {
+
+        private long capacity = -1;
+        private Admission admission = Admission.FAIL_FAST;
+        private Duration timeout;
+
+        private Builder() {
+        }
+
+        public Builder capacity(long capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("Capacity must be strictly positive.");
+            }
+            this.capacity = capacity;
+            return this;
+        }
+
+        public Builder failFast() {
+            this.admission = Admission.FAIL_FAST;
+            this.timeout = null;
+            return this;
+        }
+
+        public Builder timeout(Duration timeout) {
+            Objects.requireNonNull(timeout);
+            if (timeout.isNegative()) {
+                throw new IllegalArgumentException("Timeout must be positive.");
+            }
+            this.admission = Admission.TIMEOUT;
+            this.timeout = timeout;
+            return this;
+        }
+
+        public Builder timeout(long timeout, TimeUnit unit) {
+            return timeout(Duration.of(timeout, unit.toChronoUnit()));
+        }
+
+        public DecompressionBudget build() {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("Capacity must be strictly positive.");
+            }
+            return new DecompressionBudget(this);
+        }
+    }
+}
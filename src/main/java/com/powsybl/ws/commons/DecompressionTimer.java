@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+
+/**
+ * Enforces the time limits of an archive: its wall-clock duration, the CPU time of the threads reading it and its
+ * minimum throughput, see {@link ArchiveLimits}.
+ * <p>
+ * Reading the clocks costs much more than decompressing a few bytes, the thread CPU time even needing a system call,
+ * so they are only sampled once every {@link #CHECK_INTERVAL_READS} reads or {@link #CHECK_INTERVAL_BYTES} bytes. A
+ * limit is then detected at most one interval late, an interval of reads blocked on a slow input being itself bounded
+ * by the read timeout of the server.
+ * <p>
+ * The CPU time is only counted while the archive is read by the same thread between two samples, the time spent since
+ * the previous sample being ignored when another thread takes over.
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+final class DecompressionTimer {
+
+    static final int CHECK_INTERVAL_READS = 16;
+    static final int CHECK_INTERVAL_BYTES = 1024 * 1024;
+
+    private static final Duration MAX_DURATION = Duration.ofNanos(Long.MAX_VALUE);
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private final long startNanos;
+    private final long maxDurationNanos;
+    private final long maxCpuTimeNanos;
+    private final long minThroughput;
+    private final long minThroughputGracePeriodNanos;
+    private int readsSinceCheck;
+    private long bytesSinceCheck;
+    private long cpuTimeNanos;
+    private long lastCpuTimeNanos;
+    private Thread lastThread;
+
+    private DecompressionTimer(long startNanos, ArchiveLimits limits, boolean cpuTimeMeasured) {
+        this.startNanos = startNanos;
+        this.maxDurationNanos = limits.getMaxDuration().map(DecompressionTimer::toNanos).orElse(Long.MAX_VALUE);
+        this.maxCpuTimeNanos = cpuTimeMeasured ? limits.getMaxCpuTime().map(DecompressionTimer::toNanos).orElse(Long.MAX_VALUE) : Long.MAX_VALUE;
+        this.minThroughput = limits.getMinThroughput();
+        this.minThroughputGracePeriodNanos = toNanos(limits.getMinThroughputGracePeriod());
+        if (maxCpuTimeNanos != Long.MAX_VALUE) {
+            lastThread = Thread.currentThread();
+            lastCpuTimeNanos = THREAD_MX_BEAN.getCurrentThreadCpuTime();
+        }
+    }
+
+    /**
+     * @return a timer of the archive, null if it has no time limit
+     */
+    static DecompressionTimer of(long startNanos, ArchiveLimits limits) {
+        boolean cpuTimeMeasured = limits.getMaxCpuTime().isPresent()
+            && THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_MX_BEAN.isThreadCpuTimeEnabled();
+        if (limits.getMaxDuration().isEmpty() && !cpuTimeMeasured && limits.getMinThroughput() == 0) {
+            return null;
+        }
+        return new DecompressionTimer(startNanos, limits, cpuTimeMeasured);
+    }
+
+    /**
+     * To call after each read, or each entry.
+     *
+     * @param readBytes the bytes of the read, 0 for an entry
+     * @param totalReadBytes the bytes decompressed from the archive so far
+     * @return the exceeded limit, null if none is exceeded or if the clocks are not sampled by this call
+     */
+    ArchiveLimitException.Reason check(int readBytes, long totalReadBytes) {
+        bytesSinceCheck += Math.max(0, readBytes);
+        if (++readsSinceCheck < CHECK_INTERVAL_READS && bytesSinceCheck < CHECK_INTERVAL_BYTES) {
+            return null;
+        }
+        readsSinceCheck = 0;
+        bytesSinceCheck = 0;
+        long elapsedNanos = System.nanoTime() - startNanos;
+        if (elapsedNanos > maxDurationNanos) {
+            return ArchiveLimitException.Reason.DURATION_TOO_LONG;
+        }
+        if (minThroughput > 0 && elapsedNanos > minThroughputGracePeriodNanos
+            && totalReadBytes < minThroughput * (elapsedNanos / 1_000_000_000.0)) {
+            return ArchiveLimitException.Reason.THROUGHPUT_TOO_LOW;
+        }
+        if (maxCpuTimeNanos != Long.MAX_VALUE && updateCpuTime() > maxCpuTimeNanos) {
+            return ArchiveLimitException.Reason.CPU_TIME_TOO_LONG;
+        }
+        return null;
+    }
+
+    private long updateCpuTime() {
+        // -1 on a virtual thread, whose CPU time is not measured
+        long currentCpuTimeNanos = THREAD_MX_BEAN.getCurrentThreadCpuTime();
+        Thread currentThread = Thread.currentThread();
+        if (currentThread == lastThread && currentCpuTimeNanos >= 0 && lastCpuTimeNanos >= 0) {
+            cpuTimeNanos += currentCpuTimeNanos - lastCpuTimeNanos;
+        } else {
+            lastThread = currentThread;
+        }
+        lastCpuTimeNanos = currentCpuTimeNanos;
+        return cpuTimeNanos;
+    }
+
+    private static long toNanos(Duration duration) {
+        return duration.compareTo(MAX_DURATION) >= 0 ? Long.MAX_VALUE : duration.toNanos();
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Recorder of the archives read or written without an explicit recorder, delegating to the last
+ * {@link MicrometerArchiveMetrics} bound to a registry, until it is closed. The delegate is looked up at each call, so
+ * limits and options built before the binding, e.g. in constants, record too.
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+final class DefaultArchiveMetricsRecorder implements ArchiveMetricsRecorder {
+
+    static final ArchiveMetricsRecorder INSTANCE = new DefaultArchiveMetricsRecorder();
+
+    private static final AtomicReference<ArchiveMetricsRecorder> DELEGATE = new AtomicReference<>(NOOP);
+
+    private DefaultArchiveMetricsRecorder() {
+    }
+
+    static void set(ArchiveMetricsRecorder recorder) {
+        DELEGATE.set(recorder);
+    }
+
+    /**
+     * Stops delegating to a recorder, unless another one was set since.
+     */
+    static void unset(ArchiveMetricsRecorder recorder) {
+        DELEGATE.compareAndSet(recorder, NOOP);
+    }
+
+    @Override
+    public void recordRead(String format, long compressedBytes, long uncompressedBytes, int entries, long durationNanos) {
+        DELEGATE.get().recordRead(format, compressedBytes, uncompressedBytes, entries, durationNanos);
+    }
+
+    @Override
+    public void recordWrite(String format, long uncompressedBytes, long compressedBytes, int entries, long durationNanos) {
+        DELEGATE.get().recordWrite(format, uncompressedBytes, compressedBytes, entries, durationNanos);
+    }
+
+    @Override
+    public void recordEntry(String format, long compressedBytes, long uncompressedBytes) {
+        DELEGATE.get().recordEntry(format, compressedBytes, uncompressedBytes);
+    }
+
+    @Override
+    public void recordRejection(String format, ArchiveLimitException.Reason reason) {
+        DELEGATE.get().recordRejection(format, reason);
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Bounded pool of raw (nowrap) {@link Deflater}, to avoid allocating and freeing native zlib streams for each entry.
+ * Idle deflaters beyond the capacity are ended right away instead of waiting for their cleaner.
+ *
+ * @author Thang PHAM <quyet-thang.pham at rte-france.com>
+ */
+final class DeflaterPool {
+
+    static final DeflaterPool SHARED = new DeflaterPool(2 * Runtime.getRuntime().availableProcessors());
+
+    private final BlockingQueue<Deflater> idleDeflaters;
+
+    DeflaterPool(int capacity) {
+        this.idleDeflaters = new ArrayBlockingQueue<>(capacity);
+    }
+
+    Deflater borrow(int level) {
+        Deflater deflater = idleDeflaters.poll();
+        if (deflater == null) {
+            return new Deflater(level, true);
+        }
+        // a reset deflater has no pending input, so the new level applies to the whole next entry
+        deflater.setLevel(level);
+        return deflater;
+    }
+
+    void release(Deflater deflater) {
+        deflater.reset();
+        if (!idleDeflaters.offer(deflater)) {
+            deflater.end();
+        }
+    }
+}
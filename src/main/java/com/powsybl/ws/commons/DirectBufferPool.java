@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Pools of direct buffers holding the content of entries off the heap, see {@link EntryBuffer}, by size class from
+ * {@value #MIN_POOLED_SIZE} to {@value #MAX_POOLED_SIZE} bytes, each power of two being a class. Each class keeps at
+ * most {@value #MAX_IDLE_BYTES_PER_CLASS} idle bytes, and at least one buffer. Bigger buffers are not pooled, their
+ * memory being freed when they are no longer referenced.
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+final class DirectBufferPool {
+
+    static final int MIN_POOLED_SIZE = 64 * 1024;
+    static final int MAX_POOLED_SIZE = 8 * 1024 * 1024;
+    private static final int MAX_IDLE_BYTES_PER_CLASS = 8 * 1024 * 1024;
+
+    private static final List<ResourcePool<ByteBuffer>> POOLS = createPools();
+
+    private DirectBufferPool() {
+    }
+
+    private static List<ResourcePool<ByteBuffer>> createPools() {
+        List<ResourcePool<ByteBuffer>> pools = new ArrayList<>();
+        for (int size = MIN_POOLED_SIZE; size <= MAX_POOLED_SIZE; size *= 2) {
+            int bufferSize = size;
+            int capacity = Math.max(1, Math.min(MAX_IDLE_BYTES_PER_CLASS / size, Runtime.getRuntime().availableProcessors()));
+            pools.add(new ResourcePool<>("direct-buffer-" + size / 1024 + "k", capacity,
+                () -> ByteBuffer.allocateDirect(bufferSize), ByteBuffer::clear, buffer -> { }));
+        }
+        return Collections.unmodifiableList(pools);
+    }
+
+    /**
+     * @return the pools of the size classes, from the smallest to the biggest.
+     */
+    static List<ResourcePool<ByteBuffer>> getPools() {
+        return POOLS;
+    }
+
+    /**
+     * @return a cleared direct buffer whose limit is the given size, its capacity being the one of its size class
+     */
+    static ByteBuffer borrow(int size) {
+        ResourcePool<ByteBuffer> pool = pool(size);
+        ByteBuffer buffer = pool != null ? pool.borrow() : ByteBuffer.allocateDirect(size);
+        return buffer.limit(size);
+    }
+
+    static void release(ByteBuffer buffer) {
+        ResourcePool<ByteBuffer> pool = pool(buffer.capacity());
+        if (pool != null) {
+            pool.release(buffer);
+        }
+    }
+
+    private static ResourcePool<ByteBuffer> pool(int size) {
+        if (size > MAX_POOLED_SIZE) {
+            return null;
+        }
+        int classSize = size <= MIN_POOLED_SIZE ? MIN_POOLED_SIZE : Integer.highestOneBit(size - 1) << 1;
+        return POOLS.get(Integer.numberOfTrailingZeros(classSize) - Integer.numberOfTrailingZeros(MIN_POOLED_SIZE));
+    }
+}
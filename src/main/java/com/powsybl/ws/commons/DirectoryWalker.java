@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Lists the files of a directory tree with their attributes, sorted by entry name, so that they are not read again
+ * when they are archived. Like {@link Files#walk}, symbolic links to files are listed but links to directories are not
+ * followed.
+ * <p>
+ * With a parallelism greater than 1, the directories are listed and the attributes of their files are read on virtual
+ * threads, at most {@code parallelism} filesystem calls being in flight, so that the latency of a network filesystem
+ * is paid concurrently instead of once per file.
+ *
+ * @author Thang PHAM <quyet-thang.pham at rte-france.com>
+ */
+final class DirectoryWalker {
+
+    record WalkedFile(Path path, String name, BasicFileAttributes attributes) {
+    }
+
+    private final Path sourceDirPath;
+    private final Semaphore permits;
+    private final Queue<WalkedFile> files = new ConcurrentLinkedQueue<>();
+
+    private DirectoryWalker(Path sourceDirPath, int parallelism) {
+        this.sourceDirPath = sourceDirPath;
+        this.permits = new Semaphore(parallelism);
+    }
+
+    static List<WalkedFile> walk(Path sourceDirPath, int parallelism) throws IOException {
+        List<WalkedFile> walkedFiles = parallelism == 1
+            ? walkSequentially(sourceDirPath)
+            : new DirectoryWalker(sourceDirPath, parallelism).walkInParallel();
+        return walkedFiles.stream()
+            .sorted(Comparator.comparing(WalkedFile::name))
+            .toList();
+    }
+
+    private static List<WalkedFile> walkSequentially(Path sourceDirPath) throws IOException {
+        List<WalkedFile> walkedFiles = new ArrayList<>();
+        Files.walkFileTree(sourceDirPath, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                BasicFileAttributes fileAttributes = attributes.isSymbolicLink() ? Files.readAttributes(file, BasicFileAttributes.class) : attributes;
+                if (!fileAttributes.isDirectory()) {
+                    walkedFiles.add(new WalkedFile(file, ZipArchiver.entryName(sourceDirPath, file), fileAttributes));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return walkedFiles;
+    }
+
+    private List<WalkedFile> walkInParallel() throws IOException {
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("powsybl-ws-walk-", 0).factory())) {
+            try {
+                executor.submit(() -> walkDirectory(executor, sourceDirPath)).get();
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while walking " + sourceDirPath);
+            } catch (ExecutionException e) {
+                executor.shutdownNow();
+                throw unwrap(e);
+            }
+        }
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * Reads the attributes of the children of a directory concurrently, recursing into the subdirectories.
+     */
+    private Void walkDirectory(ExecutorService executor, Path directory) throws IOException, InterruptedException, ExecutionException {
+        List<Path> children = new ArrayList<>();
+        permits.acquire();
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory)) {
+            directoryStream.forEach(children::add);
+        } finally {
+            permits.release();
+        }
+        List<Future<Void>> futures = new ArrayList<>(children.size());
+        for (Path child : children) {
+            futures.add(executor.submit(() -> walkPath(executor, child)));
+        }
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+        return null;
+    }
+
+    private Void walkPath(ExecutorService executor, Path path) throws IOException, InterruptedException, ExecutionException {
+        BasicFileAttributes attributes;
+        permits.acquire();
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            if (attributes.isSymbolicLink()) {
+                attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                if (attributes.isDirectory()) {
+                    return null;
+                }
+            }
+        } finally {
+            permits.release();
+        }
+        if (attributes.isDirectory()) {
+            walkDirectory(executor, path);
+        } else {
+            files.add(new WalkedFile(path, ZipArchiver.entryName(sourceDirPath, path), attributes));
+        }
+        return null;
+    }
+
+    private static IOException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        while (cause instanceof ExecutionException executionException) {
+            cause = executionException.getCause();
+        }
+        if (cause instanceof IOException ioException) {
+            return ioException;
+        }
+        if (cause instanceof UncheckedIOException uncheckedIOException) {
+            return uncheckedIOException.getCause();
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        return new IOException(cause);
+    }
+}
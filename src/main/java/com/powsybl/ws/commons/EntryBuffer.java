@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Content of an archive entry held off the heap, in a pooled direct buffer, or memory-mapped from the archive for an
+ * entry of at least {@value #MIN_MAPPED_SIZE} bytes stored without compression, so that a parser gets a contiguous
+ * view of a big entry without copying it into growing byte arrays.
+ * <p>
+ * The buffer is given back to its pool when this is closed, so the views returned by {@link #getBuffer()} must not be
+ * used afterward. A mapped buffer is unmapped when it is no longer referenced.
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+public final class EntryBuffer implements Closeable {
+
+    /**
+     * Size from which a stored entry is memory-mapped instead of copied, mapping a file costing more than copying a
+     * small entry.
+     */
+    public static final int MIN_MAPPED_SIZE = 1024 * 1024;
+
+    // the biggest size of an array or a buffer in most JVMs
+    static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+
+    // the size of the first buffer of a copy, the declared size of an entry not being trusted for an allocation
+    static final int INITIAL_SIZE = DirectBufferPool.MIN_POOLED_SIZE;
+
+    private final ByteBuffer buffer;
+    private final boolean mapped;
+    private boolean closed;
+
+    private EntryBuffer(ByteBuffer buffer, boolean mapped) {
+        this.buffer = buffer;
+        this.mapped = mapped;
+    }
+
+    /**
+     * @return a read-only view of the content, from position 0 to the size of the entry.
+     * @throws IllegalStateException if this is closed
+     */
+    public ByteBuffer getBuffer() {
+        if (closed) {
+            throw new IllegalStateException("Entry buffer is closed");
+        }
+        return buffer.asReadOnlyBuffer();
+    }
+
+    public int getSize() {
+        return buffer.limit();
+    }
+
+    /**
+     * @return whether the content is memory-mapped from the archive file.
+     */
+    public boolean isMapped() {
+        return mapped;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (!mapped) {
+            DirectBufferPool.release(buffer);
+        }
+    }
+
+    /**
+     * @param buffer a buffer borrowed from {@link DirectBufferPool}, filled up to its position
+     */
+    static EntryBuffer ofPooled(ByteBuffer buffer) {
+        return new EntryBuffer(buffer.flip(), false);
+    }
+
+    /**
+     * Maps or copies stored content from a file, depending on its size.
+     */
+    static EntryBuffer read(FileChannel channel, long offset, int size, String name) throws IOException {
+        if (offset < 0 || offset > channel.size() - size) {
+            throw new EOFException("Truncated entry: " + LogUtils.sanitizeParam(name));
+        }
+        if (size >= MIN_MAPPED_SIZE) {
+            return new EntryBuffer(channel.map(FileChannel.MapMode.READ_ONLY, offset, size), true);
+        }
+        ByteBuffer buffer = DirectBufferPool.borrow(size);
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new EOFException("Truncated entry: " + LogUtils.sanitizeParam(name));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            DirectBufferPool.release(buffer);
+            throw e;
+        }
+        return ofPooled(buffer);
+    }
+
+    /**
+     * Copies the rest of a stream, with reads in a pooled heap buffer, into a pooled direct buffer grown as needed.
+     *
+     * @param expectedSize the expected number of bytes, up to which the buffer grows without overshooting, -1 if unknown
+     */
+    static EntryBuffer read(InputStream in, long expectedSize) throws IOException {
+        ByteBuffer buffer = borrow(expectedSize);
+        byte[] chunk = ResourcePool.BUFFERS.borrow();
+        try {
+            int readBytes;
+            while ((readBytes = in.read(chunk, 0, Math.max(1, Math.min(chunk.length, buffer.remaining())))) >= 0) {
+                if (readBytes > buffer.remaining()) {
+                    buffer = grow(buffer, readBytes, expectedSize);
+                }
+                buffer.put(chunk, 0, readBytes);
+            }
+        } catch (IOException | RuntimeException e) {
+            DirectBufferPool.release(buffer);
+            throw e;
+        } finally {
+            ResourcePool.BUFFERS.release(chunk);
+        }
+        return ofPooled(buffer);
+    }
+
+    /**
+     * @param expectedSize the expected number of bytes, -1 if unknown
+     * @return a pooled direct buffer of at most {@value #INITIAL_SIZE} bytes, to be grown with
+     * {@link #grow(ByteBuffer, int, long)}
+     */
+    static ByteBuffer borrow(long expectedSize) {
+        return DirectBufferPool.borrow((int) (expectedSize >= 0 ? Math.min(INITIAL_SIZE, expectedSize) : INITIAL_SIZE));
+    }
+
+    /**
+     * Moves the content of a full buffer into a bigger one, doubling its size but not beyond the expected size unless
+     * more is needed, and releases it.
+     *
+     * @param expectedSize the expected number of bytes, -1 if unknown
+     */
+    static ByteBuffer grow(ByteBuffer buffer, int minGrowth, long expectedSize) throws IOException {
+        if (buffer.position() > MAX_SIZE - minGrowth) {
+            throw new IOException("Entry is too big for a buffer");
+        }
+        long doubledSize = 2L * buffer.limit();
+        if (expectedSize > buffer.limit()) {
+            doubledSize = Math.min(doubledSize, expectedSize);
+        }
+        long newSize = Math.min(MAX_SIZE, Math.max((long) buffer.position() + minGrowth, doubledSize));
+        ByteBuffer newBuffer = DirectBufferPool.borrow((int) newSize);
+        newBuffer.put(buffer.flip());
+        DirectBufferPool.release(buffer);
+        return newBuffer;
+    }
+}
@@ -0,0 +1,274 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Local cache of extracted archives, keyed by the digest of their content, so that an archive uploaded again is not
+ * extracted again. Each key is a subdirectory of the cache directory, the least recently used ones being deleted when
+ * the size of the extracted files exceeds the maximum size. The directory of an archive is kept while it is leased.
+ * <p>
+ * The key can be the hexadecimal digest computed while reading the archive, see
+ * {@link SecuredZipInputStream#getArchiveDigest()} and {@link #toKey(byte[])}, or the SHA-256 of the archive file.
+ * Two threads missing the same key both extract the archive, only one of the extractions being kept.
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+public final class ExtractionCache {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9A-Za-z_-]+");
+    private static final String TMP_PREFIX = ".tmp-";
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final long maxSize;
+    // in access order, the least recently used first
+    private final Map<String, CachedEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    /**
+     * Creates a cache in a directory, keeping the archives extracted by a previous cache in the same directory.
+     *
+     * @param maxSize maximum size in bytes of the extracted files which are not leased
+     */
+    public ExtractionCache(Path directory, long maxSize) throws IOException {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Max size must be positive: " + maxSize);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.maxSize = maxSize;
+        load();
+    }
+
+    @FunctionalInterface
+    public interface Extractor {
+
+        /**
+         * Extracts the archive to an empty directory.
+         */
+        void extractTo(Path targetDirectory) throws IOException;
+    }
+
+    /**
+     * Lease of an extracted archive, which is not evicted until the lease is closed.
+     */
+    public final class Lease implements Closeable {
+
+        private final String key;
+        private final CachedEntry entry;
+        private boolean closed;
+
+        private Lease(String key, CachedEntry entry) {
+            this.key = key;
+            this.entry = entry;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * @return the directory of the extracted archive, which must not be modified
+         */
+        public Path getDirectory() {
+            return directory.resolve(key);
+        }
+
+        @Override
+        public void close() throws IOException {
+            List<Path> evicted;
+            synchronized (ExtractionCache.this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                entry.leases--;
+                evicted = evict();
+            }
+            delete(evicted);
+        }
+    }
+
+    /**
+     * @return the extracted archive file, extracted by the extractor if the SHA-256 of its content is not in the cache
+     */
+    public Lease getOrExtract(Path archive, Extractor extractor) throws IOException {
+        return getOrExtract(digest(archive), extractor);
+    }
+
+    /**
+     * @param key the key of the archive, made of letters, digits, '-' and '_'
+     * @return the extracted archive, extracted by the extractor if the key is not in the cache
+     */
+    public Lease getOrExtract(String key, Extractor extractor) throws IOException {
+        Objects.requireNonNull(extractor);
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid cache key: " + key);
+        }
+        synchronized (this) {
+            CachedEntry entry = entries.get(key);
+            if (entry != null) {
+                entry.leases++;
+                return new Lease(key, entry);
+            }
+        }
+        Path tmpDirectory = Files.createTempDirectory(directory, TMP_PREFIX);
+        try {
+            extractor.extractTo(tmpDirectory);
+            long extractedSize = sizeOf(tmpDirectory);
+            Lease lease;
+            List<Path> evicted;
+            synchronized (this) {
+                CachedEntry entry = entries.get(key);
+                if (entry == null) {
+                    Files.move(tmpDirectory, directory.resolve(key), StandardCopyOption.ATOMIC_MOVE);
+                    entry = new CachedEntry(extractedSize);
+                    entries.put(key, entry);
+                    size += extractedSize;
+                }
+                entry.leases++;
+                lease = new Lease(key, entry);
+                evicted = evict();
+            }
+            delete(evicted);
+            return lease;
+        } finally {
+            if (Files.exists(tmpDirectory)) {
+                ZipArchiver.deleteDirectory(tmpDirectory);
+            }
+        }
+    }
+
+    /**
+     * @return the size in bytes of the extracted files in the cache, including the leased ones
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    public synchronized boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * @return the hexadecimal representation of a digest, to be used as a key
+     */
+    public static String toKey(byte[] digest) {
+        return HexFormat.of().formatHex(digest);
+    }
+
+    private static String digest(Path archive) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(archive)) {
+            int readBytes;
+            while ((readBytes = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, readBytes);
+            }
+        }
+        return toKey(digest.digest());
+    }
+
+    private void load() throws IOException {
+        List<Path> subdirectories;
+        try (Stream<Path> pathStream = Files.list(directory)) {
+            subdirectories = pathStream.filter(Files::isDirectory).toList();
+        }
+        List<Path> keyDirectories = new ArrayList<>();
+        for (Path subdirectory : subdirectories) {
+            String name = subdirectory.getFileName().toString();
+            if (name.startsWith(TMP_PREFIX)) {
+                // interrupted extraction or eviction
+                ZipArchiver.deleteDirectory(subdirectory);
+            } else if (KEY_PATTERN.matcher(name).matches()) {
+                keyDirectories.add(subdirectory);
+            }
+        }
+        Map<Path, Long> lastModifiedTimes = new LinkedHashMap<>();
+        for (Path keyDirectory : keyDirectories) {
+            lastModifiedTimes.put(keyDirectory, Files.getLastModifiedTime(keyDirectory).toMillis());
+        }
+        keyDirectories.sort(Comparator.comparing(lastModifiedTimes::get));
+        for (Path keyDirectory : keyDirectories) {
+            long extractedSize = sizeOf(keyDirectory);
+            entries.put(keyDirectory.getFileName().toString(), new CachedEntry(extractedSize));
+            size += extractedSize;
+        }
+        delete(evict());
+    }
+
+    /**
+     * Removes the least recently used entries which are not leased until the size is under the maximum size.
+     *
+     * @return the directories of the removed entries, renamed so that they can be deleted outside the lock
+     */
+    private List<Path> evict() throws IOException {
+        List<Path> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, CachedEntry>> iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            Map.Entry<String, CachedEntry> entry = iterator.next();
+            if (entry.getValue().leases == 0) {
+                Path evictedDirectory = directory.resolve(TMP_PREFIX + UUID.randomUUID());
+                Files.move(directory.resolve(entry.getKey()), evictedDirectory, StandardCopyOption.ATOMIC_MOVE);
+                evicted.add(evictedDirectory);
+                iterator.remove();
+                size -= entry.getValue().size;
+            }
+        }
+        return evicted;
+    }
+
+    private static void delete(List<Path> directories) throws IOException {
+        for (Path evictedDirectory : directories) {
+            ZipArchiver.deleteDirectory(evictedDirectory);
+        }
+    }
+
+    private static long sizeOf(Path directory) throws IOException {
+        try (Stream<Path> pathStream = Files.walk(directory)) {
+            long size = 0;
+            for (Path file : pathStream.filter(Files::isRegularFile).toList()) {
+                size += Files.size(file);
+            }
+            return size;
+        }
+    }
+
+    private static final class CachedEntry {
+        private final long size;
+        private int leases;
+
+        private CachedEntry(long size) {
+            this.size = size;
+        }
+    }
+}
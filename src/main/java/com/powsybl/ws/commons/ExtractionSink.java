@@ -0,0 +1,332 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the entries extracted from an archive stream, e.g. {@link SecuredZipInputStream} or
+ * {@link SecuredTarInputStream}, without keeping big entries in memory nor writing small ones to files: an entry of at
+ * most the memory threshold is kept in a pooled direct buffer, see {@link EntryBuffer}, while a bigger one is spilled
+ * to a temporary file as soon as the threshold is exceeded. The entries held in memory by a sink are bounded by its
+ * maximum memory size, the next entries being spilled.
+ * <p>
+ * Both kinds of entries are read the same way, with positional reads which can be concurrent. The temporary files are
+ * deleted when their entry is closed, the files of the entries still open being deleted when the sink is closed.
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+public final class ExtractionSink implements Closeable {
+
+    private static final String TMP_PREFIX = "powsybl-ws-entry-";
+
+    private final Path tempDirectory;
+    private final int memoryThreshold;
+    private final long maxMemorySize;
+    private final AtomicLong memorySize = new AtomicLong();
+    private final Set<Entry> openEntries = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    /**
+     * @param tempDirectory   the directory of the temporary files
+     * @param memoryThreshold the maximum size of an entry kept in memory
+     * @param maxMemorySize   the maximum size of the entries kept in memory by this sink
+     */
+    public ExtractionSink(Path tempDirectory, int memoryThreshold, long maxMemorySize) {
+        if (memoryThreshold < 0 || memoryThreshold > EntryBuffer.MAX_SIZE) {
+            throw new IllegalArgumentException("Invalid memory threshold: " + memoryThreshold);
+        }
+        if (maxMemorySize < 0) {
+            throw new IllegalArgumentException("Max memory size must be positive: " + maxMemorySize);
+        }
+        this.tempDirectory = Objects.requireNonNull(tempDirectory);
+        this.memoryThreshold = memoryThreshold;
+        this.maxMemorySize = maxMemorySize;
+    }
+
+    /**
+     * Same as {@link #add(String, InputStream, long)} for an entry whose size is unknown.
+     */
+    public Entry add(String name, InputStream in) throws IOException {
+        return add(name, in, -1);
+    }
+
+    /**
+     * Reads the rest of a stream, e.g. the current entry of an archive stream, into a new entry of this sink.
+     *
+     * @param expectedSize the expected size of the entry, to spill it without buffering it when it is known to be
+     *                     bigger than the threshold, -1 if it is unknown
+     */
+    public Entry add(String name, InputStream in, long expectedSize) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Extraction sink is closed");
+        }
+        Entry entry = expectedSize > memoryThreshold ? spill(name, in) : buffer(name, in, expectedSize);
+        openEntries.add(entry);
+        if (closed) {
+            // closed concurrently, after the other entries were closed
+            entry.close();
+            throw new IllegalStateException("Extraction sink is closed");
+        }
+        return entry;
+    }
+
+    /**
+     * @return the size of the entries currently kept in memory.
+     */
+    public long getMemorySize() {
+        return memorySize.get();
+    }
+
+    private Entry buffer(String name, InputStream in, long expectedSize) throws IOException {
+        ByteBuffer buffer = EntryBuffer.borrow(expectedSize >= 0 ? expectedSize : Math.min(memoryThreshold, EntryBuffer.INITIAL_SIZE));
+        byte[] chunk = ResourcePool.BUFFERS.borrow();
+        try {
+            int readBytes;
+            while ((readBytes = in.read(chunk)) >= 0) {
+                if (readBytes > buffer.remaining()) {
+                    if ((long) buffer.position() + readBytes > memoryThreshold) {
+                        return spill(name, in, buffer.flip(), ByteBuffer.wrap(chunk, 0, readBytes));
+                    }
+                    buffer = grow(buffer, buffer.position() + readBytes, expectedSize);
+                }
+                buffer.put(chunk, 0, readBytes);
+            }
+            if (memorySize.addAndGet(buffer.position()) > maxMemorySize) {
+                memorySize.addAndGet(-buffer.position());
+                return spill(name, InputStream.nullInputStream(), buffer.flip());
+            }
+            Entry entry = new Entry(name, EntryBuffer.ofPooled(buffer));
+            buffer = null;
+            return entry;
+        } finally {
+            ResourcePool.BUFFERS.release(chunk);
+            if (buffer != null) {
+                DirectBufferPool.release(buffer);
+            }
+        }
+    }
+
+    /**
+     * Doubles the size of a full buffer, up to the expected size when it is not reached yet, and to the memory threshold.
+     */
+    private ByteBuffer grow(ByteBuffer buffer, int minSize, long expectedSize) {
+        long doubledSize = 2L * buffer.limit();
+        if (expectedSize > buffer.limit()) {
+            doubledSize = Math.min(doubledSize, expectedSize);
+        }
+        int newSize = (int) Math.min(memoryThreshold, Math.max(minSize, doubledSize));
+        ByteBuffer newBuffer = DirectBufferPool.borrow(newSize);
+        newBuffer.put(buffer.flip());
+        DirectBufferPool.release(buffer);
+        return newBuffer;
+    }
+
+    /**
+     * Writes the bytes already read and the rest of a stream to a temporary file, deleted when its channel is closed.
+     */
+    private Entry spill(String name, InputStream in, ByteBuffer... readBytes) throws IOException {
+        Path file = Files.createTempFile(tempDirectory, TMP_PREFIX, ".tmp");
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        try {
+            for (ByteBuffer bytes : readBytes) {
+                write(channel, bytes);
+            }
+            byte[] chunk = ResourcePool.BUFFERS.borrow();
+            try {
+                int chunkLength;
+                while ((chunkLength = in.read(chunk)) >= 0) {
+                    write(channel, ByteBuffer.wrap(chunk, 0, chunkLength));
+                }
+            } finally {
+                ResourcePool.BUFFERS.release(chunk);
+            }
+            return new Entry(name, channel, channel.size());
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Closes the entries which are still open, deleting their temporary files.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        List<Entry> entries = new ArrayList<>(openEntries);
+        IOException exception = null;
+        for (Entry entry : entries) {
+            try {
+                entry.close();
+            } catch (IOException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /**
+     * An extracted entry, held in memory or in a temporary file.
+     */
+    public final class Entry implements Closeable {
+
+        private final String name;
+        private final long size;
+        // exactly one of them is not null
+        private final EntryBuffer entryBuffer;
+        private final FileChannel channel;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Entry(String name, EntryBuffer entryBuffer) {
+            this.name = name;
+            this.size = entryBuffer.getSize();
+            this.entryBuffer = entryBuffer;
+            this.channel = null;
+        }
+
+        private Entry(String name, FileChannel channel, long size) {
+            this.name = name;
+            this.size = size;
+            this.entryBuffer = null;
+            this.channel = channel;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * @return whether the entry is held in memory rather than in a temporary file.
+         */
+        public boolean isInMemory() {
+            return entryBuffer != null;
+        }
+
+        /**
+         * Reads bytes of the entry from the given position, without changing any state, so reads can be concurrent.
+         *
+         * @return the number of bytes read, -1 if the position is at or after the end of the entry
+         */
+        public int read(ByteBuffer dst, long position) throws IOException {
+            if (position < 0) {
+                throw new IllegalArgumentException("Negative position: " + position);
+            }
+            if (position >= size) {
+                return -1;
+            }
+            if (channel != null) {
+                return channel.read(dst, position);
+            }
+            ByteBuffer source = entryBuffer.getBuffer().position((int) position);
+            int readBytes = Math.min(source.remaining(), dst.remaining());
+            dst.put(source.limit((int) position + readBytes));
+            return readBytes;
+        }
+
+        /**
+         * @return a stream of the content of the entry, reading it from the start.
+         */
+        public InputStream getInputStream() {
+            return new EntryInputStream(this);
+        }
+
+        /**
+         * Releases the memory or deletes the temporary file of the entry.
+         */
+        @Override
+        public void close() throws IOException {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            openEntries.remove(this);
+            if (entryBuffer != null) {
+                memorySize.addAndGet(-size);
+                entryBuffer.close();
+            } else {
+                channel.close();
+            }
+        }
+    }
+
+    private static final class EntryInputStream extends InputStream {
+
+        private final Entry entry;
+        private long position;
+
+        private EntryInputStream(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, b.length);
+            if (len == 0) {
+                return 0;
+            }
+            int readBytes = entry.read(ByteBuffer.wrap(b, off, len), position);
+            if (readBytes > 0) {
+                position += readBytes;
+            }
+            return readBytes;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skippedBytes = Math.max(0, Math.min(n, entry.getSize() - position));
+            position += skippedBytes;
+            return skippedBytes;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, entry.getSize() - position);
+        }
+    }
+}
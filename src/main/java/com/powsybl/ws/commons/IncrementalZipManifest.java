@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Files of a directory archived by {@link ZipUtils#zipIncrementally}, written next to the archive, one line per entry:
+ * <pre>size TAB last modified time in ms TAB SHA-256 TAB entry name</pre>
+ *
+ * @author Thang PHAM <quyet-thang.pham at rte-france.com>
+ */
+final class IncrementalZipManifest {
+
+    static final String HASH_ALGORITHM = "SHA-256";
+    static final IncrementalZipManifest EMPTY = new IncrementalZipManifest(List.of());
+
+    private static final String HEADER = "powsybl-ws-zip-manifest 1";
+    private static final String SEPARATOR = "\t";
+
+    record Entry(String name, long size, long lastModifiedTime, String hash) {
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    IncrementalZipManifest(List<Entry> entries) {
+        entries.forEach(entry -> this.entries.put(entry.name(), entry));
+    }
+
+    Entry get(String name) {
+        return entries.get(name);
+    }
+
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * @return the manifest of the archive, e.g. {@code data.zip.manifest} for {@code data.zip}
+     */
+    static Path manifestPath(Path zipFilePath) {
+        return zipFilePath.resolveSibling(zipFilePath.getFileName() + ".manifest");
+    }
+
+    /**
+     * @return the entries of a manifest file, {@link #EMPTY} if it does not exist or is not a valid manifest, in which
+     * case the whole directory is compressed again
+     */
+    static IncrementalZipManifest read(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(reader.readLine())) {
+                return EMPTY;
+            }
+            List<Entry> entries = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(SEPARATOR, 4);
+                if (fields.length != 4) {
+                    return EMPTY;
+                }
+                try {
+                    entries.add(new Entry(fields[3], Long.parseLong(fields[0]), Long.parseLong(fields[1]), fields[2]));
+                } catch (NumberFormatException e) {
+                    return EMPTY;
+                }
+            }
+            return new IncrementalZipManifest(entries);
+        } catch (NoSuchFileException e) {
+            return EMPTY;
+        }
+    }
+
+    static void write(Path file, List<Entry> entries) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Entry entry : entries) {
+                // an entry whose name cannot be written on a line is compressed again next time
+                if (entry.name().indexOf('\n') < 0 && entry.name().indexOf('\r') < 0) {
+                    writer.write(entry.size() + SEPARATOR + entry.lastModifiedTime() + SEPARATOR + entry.hash() + SEPARATOR + entry.name());
+                    writer.newLine();
+                }
+            }
+        }
+    }
+}
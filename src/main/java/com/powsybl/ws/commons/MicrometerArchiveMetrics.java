@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the archive statistics to a Micrometer registry, for the archives whose {@link ArchiveLimits} or
+ * {@link ZipOptions} have it as metrics recorder. Once bound, it is also the default recorder of the archives without
+ * an explicit one, until it is closed or another instance is bound. Nothing is recorded until it is bound to a
+ * registry, nor once it is closed. Several instances bound to different registries record independently.
+ * <p>
+ * Meters are tagged with the format of the archive, and for the bytes, entries, durations and throughputs with the
+ * operation ({@code read} or {@code write}):
+ * <ul>
+ *     <li>{@code powsybl.ws.archive.bytes.in} and {@code powsybl.ws.archive.bytes.out}: bytes read and written</li>
+ *     <li>{@code powsybl.ws.archive.entries}: entries per archive</li>
+ *     <li>{@code powsybl.ws.archive.compression.ratio}: uncompressed over compressed size, per {@code entry} or {@code archive} scope</li>
+ *     <li>{@code powsybl.ws.archive.duration}: time to read or write an archive</li>
+ *     <li>{@code powsybl.ws.archive.throughput}: uncompressed bytes per second</li>
+ *     <li>{@code powsybl.ws.archive.rejections}: archives rejected by a limit, per reason</li>
+ * </ul>
+ * The pools of inflaters, buffers and direct buffers shared by the archive streams are tagged with their {@code pool} name:
+ * <ul>
+ *     <li>{@code powsybl.ws.archive.pool.borrowed}: resources borrowed from the pool</li>
+ *     <li>{@code powsybl.ws.archive.pool.created}: resources allocated because the pool was empty</li>
+ *     <li>{@code powsybl.ws.archive.pool.idle}: resources waiting in the pool</li>
+ * </ul>
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+public class MicrometerArchiveMetrics implements ArchiveMetricsRecorder, MeterBinder, AutoCloseable {
+
+    private static final String PREFIX = "powsybl.ws.archive.";
+    private static final String FORMAT_TAG = "format";
+    private static final String OPERATION_TAG = "operation";
+    private static final String POOL_TAG = "pool";
+    private static final String READ = "read";
+    private static final String WRITE = "write";
+
+    private volatile MeterRegistry registry;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        DefaultArchiveMetricsRecorder.set(this);
+        bindPool(registry, ResourcePool.INFLATERS);
+        bindPool(registry, ResourcePool.BUFFERS);
+        DirectBufferPool.getPools().forEach(pool -> bindPool(registry, pool));
+    }
+
+    private static void bindPool(MeterRegistry registry, ResourcePool<?> pool) {
+        FunctionCounter.builder(PREFIX + "pool.borrowed", pool, ResourcePool::getBorrowedCount)
+            .tag(POOL_TAG, pool.getName())
+            .register(registry);
+        FunctionCounter.builder(PREFIX + "pool.created", pool, ResourcePool::getCreatedCount)
+            .description("Resources allocated because the pool was empty")
+            .tag(POOL_TAG, pool.getName())
+            .register(registry);
+        Gauge.builder(PREFIX + "pool.idle", pool, ResourcePool::getIdleCount)
+            .tag(POOL_TAG, pool.getName())
+            .register(registry);
+    }
+
+    @Override
+    public void recordRead(String format, long compressedBytes, long uncompressedBytes, int entries, long durationNanos) {
+        record(READ, format, compressedBytes, uncompressedBytes, uncompressedBytes, entries, durationNanos);
+    }
+
+    @Override
+    public void recordWrite(String format, long uncompressedBytes, long compressedBytes, int entries, long durationNanos) {
+        record(WRITE, format, uncompressedBytes, compressedBytes, uncompressedBytes, entries, durationNanos);
+    }
+
+    @Override
+    public void recordEntry(String format, long compressedBytes, long uncompressedBytes) {
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry != null && compressedBytes > 0) {
+            ratio(meterRegistry, format, "entry").record((double) uncompressedBytes / compressedBytes);
+        }
+    }
+
+    @Override
+    public void recordRejection(String format, ArchiveLimitException.Reason reason) {
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry != null) {
+            Counter.builder(PREFIX + "rejections")
+                .description("Archives rejected because they exceed a limit")
+                .tag(FORMAT_TAG, format)
+                .tag("reason", reason.name())
+                .register(meterRegistry)
+                .increment();
+        }
+    }
+
+    private void record(String operation, String format, long bytesIn, long bytesOut, long uncompressedBytes, int entries, long durationNanos) {
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry == null) {
+            return;
+        }
+        Counter.builder(PREFIX + "bytes.in")
+            .baseUnit("bytes")
+            .tag(FORMAT_TAG, format)
+            .tag(OPERATION_TAG, operation)
+            .register(meterRegistry)
+            .increment(bytesIn);
+        Counter.builder(PREFIX + "bytes.out")
+            .baseUnit("bytes")
+            .tag(FORMAT_TAG, format)
+            .tag(OPERATION_TAG, operation)
+            .register(meterRegistry)
+            .increment(bytesOut);
+        DistributionSummary.builder(PREFIX + "entries")
+            .tag(FORMAT_TAG, format)
+            .tag(OPERATION_TAG, operation)
+            .register(meterRegistry)
+            .record(entries);
+        Timer.builder(PREFIX + "duration")
+            .tag(FORMAT_TAG, format)
+            .tag(OPERATION_TAG, operation)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(durationNanos, TimeUnit.NANOSECONDS);
+        if (durationNanos > 0) {
+            DistributionSummary.builder(PREFIX + "throughput")
+                .baseUnit("bytes/s")
+                .tag(FORMAT_TAG, format)
+                .tag(OPERATION_TAG, operation)
+                .register(meterRegistry)
+                .record(uncompressedBytes * 1e9 / durationNanos);
+        }
+        long compressedBytes = READ.equals(operation) ? bytesIn : bytesOut;
+        if (compressedBytes > 0) {
+            ratio(meterRegistry, format, "archive").record((double) uncompressedBytes / compressedBytes);
+        }
+    }
+
+    private static DistributionSummary ratio(MeterRegistry meterRegistry, String format, String scope) {
+        return DistributionSummary.builder(PREFIX + "compression.ratio")
+            .tag(FORMAT_TAG, format)
+            .tag("scope", scope)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void close() {
+        registry = null;
+        DefaultArchiveMetricsRecorder.unset(this);
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.Inflater;
+
+/**
+ * Bounded pool of resources shared by the archive streams, so that an archive does not allocate its own. A resource is
+ * created when the pool is empty, and discarded when it is released to a full pool, so the pool never blocks.
+ * The pools are published by {@link MicrometerArchiveMetrics}.
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+final class ResourcePool<T> {
+
+    // the size of the reads of the streams, bigger buffers being mostly left unused
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Raw (nowrap) inflaters of the zip entries. Their native zlib stream is ended when they are discarded instead of
+     * waiting for their cleaner.
+     */
+    static final ResourcePool<Inflater> INFLATERS = new ResourcePool<>("inflater", 2 * Runtime.getRuntime().availableProcessors(),
+        () -> new Inflater(true), Inflater::reset, Inflater::end);
+
+    /**
+     * Buffers of {@value #BUFFER_SIZE} bytes copying the content of the entries.
+     */
+    static final ResourcePool<byte[]> BUFFERS = new ResourcePool<>("buffer", Runtime.getRuntime().availableProcessors(),
+        () -> new byte[BUFFER_SIZE], buffer -> { }, buffer -> { });
+
+    private final String name;
+    private final BlockingQueue<T> idleResources;
+    private final Supplier<T> factory;
+    private final Consumer<T> reset;
+    private final Consumer<T> discard;
+    private final AtomicLong borrowedCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+
+    /**
+     * @param reset resets a released resource before it is borrowed again
+     * @param discard frees a released resource which does not fit in the pool
+     */
+    ResourcePool(String name, int capacity, Supplier<T> factory, Consumer<T> reset, Consumer<T> discard) {
+        this.name = name;
+        this.idleResources = new ArrayBlockingQueue<>(capacity);
+        this.factory = factory;
+        this.reset = reset;
+        this.discard = discard;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    T borrow() {
+        borrowedCount.incrementAndGet();
+        T resource = idleResources.poll();
+        if (resource == null) {
+            createdCount.incrementAndGet();
+            return factory.get();
+        }
+        return resource;
+    }
+
+    void release(T resource) {
+        reset.accept(resource);
+        if (!idleResources.offer(resource)) {
+            discard.accept(resource);
+        }
+    }
+
+    long getBorrowedCount() {
+        return borrowedCount.get();
+    }
+
+    /**
+     * @return the number of resources allocated because the pool was empty
+     */
+    long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    int getIdleCount() {
+        return idleResources.size();
+    }
+}
@@ -0,0 +1,401 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.utils.InputStreamStatistics;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.zip.ZipEntry;
+
+/**
+ * Reads the entries of an archive and of the archives it contains, e.g. a tar.gz file inside a zip file, as a single
+ * sequence of entries.
+ * <p>
+ * Nested archives are recognized from the extension of their name (see {@link ArchiveFormat#fromName}) and read lazily
+ * while their enclosing entry is decompressed, nothing being spooled to memory or disk. Their entries are returned
+ * instead of them, with the path of the nested archives as name prefix, e.g. {@code outer.zip/inner.tar/file.xml}.
+ * <p>
+ * All the layers are charged to the same limits: every entry of every archive counts in the maximum number of entries,
+ * and the bytes decompressed by every layer count in the maximum uncompressed size, so the content of a nested archive
+ * counts once for each layer it goes through, a compressed tar being a single layer.
+ * <p>
+ * Uploads of unknown format can be opened with {@link #open(InputStream, ArchiveLimits)}, which finds the format from
+ * the magic bytes of the stream. A single compressed file, e.g. a gzip file, is read as an archive with a single entry.
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+public class SecuredArchiveReader extends InputStream {
+
+    public static final int DEFAULT_MAX_NESTING_DEPTH = 3;
+
+    private final CountingInputStream source;
+    private final ArchiveFormat format;
+    private final SecuredInputStream securedStream;
+    private final int maxNestingDepth;
+    private final Deque<Layer> layers = new ArrayDeque<>();
+    private Predicate<String> entryFilter;
+    private Entry currentEntry;
+
+    public SecuredArchiveReader(InputStream in, ArchiveFormat format, int maxEntries, long maxUncompressedSize) throws IOException {
+        this(in, format, maxEntries, maxUncompressedSize, DEFAULT_MAX_NESTING_DEPTH, null);
+    }
+
+    /**
+     * @param maxNestingDepth maximum number of archives enclosing an archive, 0 to not read nested archives
+     * @param budget          optional budget shared with other streams, from which the read bytes are drawn until this reader is closed
+     */
+    public SecuredArchiveReader(InputStream in, ArchiveFormat format, int maxEntries, long maxUncompressedSize, int maxNestingDepth,
+                                DecompressionBudget budget) throws IOException {
+        this(in, format, ArchiveLimits.builder()
+            .maxEntries(maxEntries)
+            .maxUncompressedSize(maxUncompressedSize)
+            .maxNestingDepth(maxNestingDepth)
+            .budget(budget)
+            .build());
+    }
+
+    /**
+     * The compression ratios of the limits are checked for each layer, e.g. for a tar.gz nested in a zip, the ratio of
+     * the zip entry of the tar.gz and the ratio of the tar.gz itself.
+     */
+    public SecuredArchiveReader(InputStream in, ArchiveFormat format, ArchiveLimits limits) throws IOException {
+        this(new CountingInputStream(in), format, limits);
+    }
+
+    private SecuredArchiveReader(CountingInputStream source, ArchiveFormat format, ArchiveLimits limits) throws IOException {
+        this(source, format == null ? detect(new NonClosingInputStream(source)) : decompress(new NonClosingInputStream(source), format), limits);
+    }
+
+    private SecuredArchiveReader(CountingInputStream source, Content content, ArchiveLimits limits) {
+        this.source = source;
+        this.format = content.format();
+        this.securedStream = new SecuredInputStream(limits, format.getName());
+        this.maxNestingDepth = limits.getMaxNestingDepth();
+        layers.push(openLayer(content, List.of()));
+    }
+
+    /**
+     * Opens an upload of unknown format, in a single pass: the format is found from the magic bytes of the stream, then
+     * for compressed content from the magic bytes of the decompressed content, to tell a compressed tar from a single
+     * compressed file. Only the bytes actually returned are charged to the limits.
+     *
+     * @throws IOException if the format is not one of {@link ArchiveFormat}
+     */
+    public static SecuredArchiveReader open(InputStream in, ArchiveLimits limits) throws IOException {
+        return new SecuredArchiveReader(new CountingInputStream(in), (ArchiveFormat) null, limits);
+    }
+
+    /**
+     * @return the format of the archive, as given or as detected
+     */
+    public ArchiveFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Only returns the entries whose name, prefixed by the path of their nested archives, is accepted by the filter, see
+     * {@link ArchiveEntryFilters}. The other entries are skipped by each layer as with
+     * {@link SecuredZipInputStream#setEntryFilter} and {@link SecuredTarInputStream#setEntryFilter}, being counted in the
+     * entry limit, and their skipped bytes in the uncompressed size when they are decompressed anyway. Nested archives
+     * are still read to find the entries they contain.
+     *
+     * @param entryFilter the filter of the entry names, null to return all the entries
+     */
+    public void setEntryFilter(Predicate<String> entryFilter) {
+        this.entryFilter = entryFilter;
+    }
+
+    /**
+     * @return the next entry which is not an archive, going into nested archives, or null if there are no more entries
+     * @throws IllegalStateException if a limit is exceeded
+     */
+    public Entry getNextEntry() throws IOException {
+        currentEntry = null;
+        while (!layers.isEmpty()) {
+            Layer layer = layers.peek();
+            Entry entry = layer.nextEntry();
+            if (entry == null) {
+                layers.pop().stream().close();
+                continue;
+            }
+            ArchiveFormat nestedFormat = entry.directory() ? null : nestedFormat(entry.getSimpleName());
+            if (nestedFormat == null) {
+                currentEntry = entry;
+                return entry;
+            }
+            if (layers.size() > maxNestingDepth) {
+                throw securedStream.reject(ArchiveLimitException.Reason.NESTING_TOO_DEEP);
+            }
+            layers.push(openLayer(decompress(new NonClosingInputStream(layer.stream()), nestedFormat), entry.path()));
+        }
+        return null;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return currentEntry == null ? -1 : layers.element().stream().read();
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        return currentEntry == null ? -1 : layers.element().stream().read(b, off, len);
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        return currentEntry == null ? 0 : layers.element().stream().skip(n);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            while (!layers.isEmpty()) {
+                layers.pop().stream().close();
+            }
+            source.close();
+        } finally {
+            securedStream.close(source.getCount());
+        }
+    }
+
+    /**
+     * @return the format of an entry to read as a nested archive, null if it is a plain entry
+     */
+    private ArchiveFormat nestedFormat(String name) {
+        return maxNestingDepth == 0 ? null : ArchiveFormat.fromName(name).filter(ArchiveFormat::isArchive).orElse(null);
+    }
+
+    private boolean accepts(List<String> path, String name) {
+        return entryFilter == null || nestedFormat(name) != null || entryFilter.test(String.join("/", append(path, name)));
+    }
+
+    private Layer openLayer(Content content, List<String> path) {
+        InputStream in = content.stream();
+        Predicate<String> layerFilter = name -> accepts(path, name);
+        return switch (content.format()) {
+            case ZIP -> {
+                SecuredZipInputStream zipStream = new SecuredZipInputStream(in, StandardCharsets.UTF_8, securedStream, false);
+                zipStream.setEntryFilter(layerFilter);
+                yield new ZipLayer(zipStream, path);
+            }
+            case TAR, TAR_GZIP, TAR_XZ, TAR_BZIP2 -> {
+                // the decompressed bytes of a compressed tar are only charged by the tar stream, for its entries
+                SecuredTarInputStream tarStream = new SecuredTarInputStream(in, securedStream, false, content.compressedCount());
+                tarStream.setEntryFilter(layerFilter);
+                yield new TarLayer(tarStream, path);
+            }
+            case GZIP, XZ, BZIP2 -> new SingleEntryLayer(new SingleEntryStream(new SecuredFilterInputStream(in, securedStream),
+                securedStream.newCompressionRatioMonitor(content.format().getName(), content.compressedCount())),
+                path, content.name(), layerFilter);
+        };
+    }
+
+    private static Content decompress(InputStream in, ArchiveFormat format) throws IOException {
+        InputStream stream = format.decompress(in);
+        LongSupplier compressedCount = stream instanceof InputStreamStatistics statistics ? statistics::getCompressedCount : null;
+        String name = stream instanceof GzipCompressorInputStream gzipStream
+            ? Objects.requireNonNullElse(gzipStream.getMetaData().getFileName(), "")
+            : "";
+        return new Content(format, stream, compressedCount, name);
+    }
+
+    private static Content detect(InputStream in) throws IOException {
+        InputStream bufferedIn = new BufferedInputStream(in);
+        ArchiveFormat format = ArchiveFormat.detect(bufferedIn).orElseThrow(() -> new IOException("Unknown archive format."));
+        Content content = decompress(bufferedIn, format);
+        if (!format.isCompressed()) {
+            return content;
+        }
+        // the peeked bytes are only charged when they are read again by the layer
+        InputStream decompressed = new BufferedInputStream(content.stream(), ArchiveFormat.SIGNATURE_LENGTH);
+        ArchiveFormat contentFormat = ArchiveFormat.detect(decompressed).orElse(null) == ArchiveFormat.TAR ? format.withTar() : format;
+        return new Content(contentFormat, decompressed, content.compressedCount(), content.name());
+    }
+
+    /**
+     * An entry of the archive or of a nested archive.
+     *
+     * @param path      the names of the enclosing nested archives, followed by the name of the entry in its archive
+     * @param size      the uncompressed size, -1 if unknown
+     * @param directory whether the entry is a directory
+     */
+    public record Entry(List<String> path, long size, boolean directory) {
+
+        public Entry {
+            path = List.copyOf(path);
+        }
+
+        /**
+         * @return the path joined with '/'
+         */
+        public String getName() {
+            return String.join("/", path);
+        }
+
+        /**
+         * @return the name of the entry in its archive
+         */
+        public String getSimpleName() {
+            return path.getLast();
+        }
+
+        /**
+         * @return the number of archives enclosing the archive of the entry
+         */
+        public int getDepth() {
+            return path.size() - 1;
+        }
+    }
+
+    private interface Layer {
+
+        InputStream stream();
+
+        Entry nextEntry() throws IOException;
+    }
+
+    private record ZipLayer(SecuredZipInputStream stream, List<String> path) implements Layer {
+
+        @Override
+        public Entry nextEntry() throws IOException {
+            ZipEntry entry = stream.getNextEntry();
+            return entry == null ? null : new Entry(append(path, entry.getName()), entry.getSize(), entry.isDirectory());
+        }
+    }
+
+    /**
+     * Content of an archive or a compressed file, decompressed but not charged yet.
+     *
+     * @param compressedCount the number of compressed bytes read so far, null if the format is not compressed
+     * @param name            the name of the single entry of a compressed file, as stored by gzip, empty if unknown
+     */
+    private record Content(ArchiveFormat format, InputStream stream, LongSupplier compressedCount, String name) {
+    }
+
+    private static final class SingleEntryLayer implements Layer {
+
+        private final SingleEntryStream stream;
+        private final List<String> path;
+        private final String name;
+        private final Predicate<String> filter;
+        private boolean read;
+
+        private SingleEntryLayer(SingleEntryStream stream, List<String> path, String name, Predicate<String> filter) {
+            this.stream = stream;
+            this.path = path;
+            this.name = name;
+            this.filter = filter;
+        }
+
+        @Override
+        public InputStream stream() {
+            return stream;
+        }
+
+        @Override
+        public Entry nextEntry() {
+            if (read || !filter.test(name)) {
+                return null;
+            }
+            read = true;
+            stream.start();
+            return new Entry(append(path, name), -1, false);
+        }
+    }
+
+    /**
+     * Checks the compression ratio of a single compressed file, the entry limit being checked like for an archive.
+     */
+    private final class SingleEntryStream extends FilterInputStream {
+
+        private final CompressionRatioMonitor ratioMonitor;
+        private final byte[] singleByte = new byte[1];
+
+        private SingleEntryStream(InputStream in, CompressionRatioMonitor ratioMonitor) {
+            super(in);
+            this.ratioMonitor = ratioMonitor;
+        }
+
+        private void start() {
+            securedStream.incrementAndValidateEntryLimit();
+            securedStream.onEntry();
+            ratioMonitor.startEntry();
+        }
+
+        @Override
+        public int read() throws IOException {
+            return read(singleByte, 0, 1) == -1 ? -1 : Byte.toUnsignedInt(singleByte[0]);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int readBytes = in.read(b, off, len);
+            ratioMonitor.onRead(readBytes);
+            return readBytes;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            return SecuredInputStream.skipByReading(this, n);
+        }
+
+        @Override
+        public void close() throws IOException {
+            ratioMonitor.endEntry();
+            in.close();
+        }
+    }
+
+    private record TarLayer(SecuredTarInputStream stream, List<String> path) implements Layer {
+
+        @Override
+        public Entry nextEntry() throws IOException {
+            TarArchiveEntry entry = stream.getNextEntry();
+            return entry == null ? null : new Entry(append(path, entry.getName()), entry.getSize(), entry.isDirectory());
+        }
+    }
+
+    private static List<String> append(List<String> path, String name) {
+        List<String> entryPath = new ArrayList<>(path.size() + 1);
+        entryPath.addAll(path);
+        entryPath.add(name);
+        return entryPath;
+    }
+
+    /**
+     * Closing a layer must not close the entry of the enclosing archive it reads, nor the source of the reader.
+     */
+    private static final class NonClosingInputStream extends FilterInputStream {
+
+        private NonClosingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return in.read(b, off, len);
+        }
+
+        @Override
+        public void close() {
+            // the enclosing stream is closed by its own layer
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Charges the bytes read from a decompressing stream which is not an archive, e.g. a gzip stream, to a {@link SecuredInputStream}.
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+class SecuredFilterInputStream extends FilterInputStream {
+
+    private final SecuredInputStream securedStream;
+    private final byte[] singleByte = new byte[1];
+
+    SecuredFilterInputStream(InputStream in, SecuredInputStream securedStream) {
+        super(in);
+        this.securedStream = securedStream;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return read(singleByte, 0, 1) == -1 ? -1 : Byte.toUnsignedInt(singleByte[0]);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        return securedStream.read(b, off, len, super::read);
+    }
+
+    /**
+     * Skipped bytes are decompressed anyway, so they are counted like read bytes.
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        return SecuredInputStream.skipByReading(this, n);
+    }
+}
@@ -6,39 +6,328 @@
  */
 package com.powsybl.ws.commons;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
 /**
  * @author Etienne Lesot <etienne.lesot at rte-france.com>
  */
 public class SecuredInputStream {
+    private static final int DEFAULT_BUFFER_SIZE = ResourcePool.BUFFER_SIZE;
+
     // This attribute defines the maximum of entries count an archive can contain. This limit is defined to avoid zip/tar bombs.
     private final int maxEntries;
     // This attribute defines the maximum for the total of the sizes of the uncompressed entries. This limit is defined to avoid zip/tar bombs.
     private final long maxUncompressedSize;
+    // Optional budget shared with other streams, from which the read bytes are drawn until the stream is closed
+    private final DecompressionBudget budget;
+    private final ArchiveLimits limits;
+    private final ArchiveMetricsRecorder metricsRecorder;
+    // Format of the archive in the metrics
+    private final String format;
+    private final long startNanos = System.nanoTime();
+    // Null when the archive has no time limit
+    private final DecompressionTimer timer;
     private int entryCount = 0;
+    private int readEntries = 0;
     private long totalReadBytes = 0;
+    private long chargedBytes = 0;
+    private boolean closed = false;
 
     protected SecuredInputStream(int maxEntries, long maxUncompressedSize) {
+        this(maxEntries, maxUncompressedSize, null);
+    }
+
+    protected SecuredInputStream(int maxEntries, long maxUncompressedSize, DecompressionBudget budget) {
+        this(ArchiveLimits.of(maxEntries, maxUncompressedSize, budget));
+    }
+
+    protected SecuredInputStream(ArchiveLimits limits) {
+        this(limits, "archive");
+    }
+
+    SecuredInputStream(ArchiveLimits limits, String format) {
         super();
-        this.maxEntries = maxEntries;
-        this.maxUncompressedSize = maxUncompressedSize;
+        this.maxEntries = limits.getMaxEntries();
+        this.maxUncompressedSize = limits.getMaxUncompressedSize();
+        this.budget = limits.getBudget().orElse(null);
+        this.limits = limits;
+        this.metricsRecorder = limits.getMetricsRecorder();
+        this.format = format;
+        this.timer = DecompressionTimer.of(startNanos, limits);
+    }
+
+    ArchiveLimits getLimits() {
+        return limits;
+    }
+
+    ArchiveMetricsRecorder getMetricsRecorder() {
+        return metricsRecorder;
+    }
+
+    /**
+     * @param layerFormat     the format of the stream, which is not the format of the archive for a nested archive
+     * @param compressedCount the number of compressed bytes read so far by the stream, null if it is not compressed
+     * @return a monitor of the compression ratios of the stream, null if it is not compressed
+     */
+    CompressionRatioMonitor newCompressionRatioMonitor(String layerFormat, LongSupplier compressedCount) {
+        if (compressedCount == null) {
+            return null;
+        }
+        return new CompressionRatioMonitor(this, layerFormat, compressedCount, limits.getMaxCompressionRatio(), limits.getMaxEntryCompressionRatio(),
+            limits.getMinSizeForRatioCheck());
+    }
+
+    /**
+     * Records the rejection of the archive in the metrics.
+     *
+     * @return the exception to throw
+     */
+    ArchiveLimitException reject(ArchiveLimitException.Reason reason) {
+        metricsRecorder.recordRejection(format, reason);
+        return new ArchiveLimitException(reason);
     }
 
     public void incrementAndValidateEntryLimit() {
         if (++entryCount > maxEntries) {
-            throw new IllegalStateException("Archive has too many entries.");
+            throw reject(ArchiveLimitException.Reason.TOO_MANY_ENTRIES);
         }
+        checkTimeLimits(0);
+    }
+
+    /**
+     * To call for each entry actually returned by the archive, as {@link #incrementAndValidateEntryLimit()} is called
+     * before knowing whether there is a next entry.
+     */
+    void onEntry() {
+        readEntries++;
     }
 
+    /**
+     * @deprecated rejects reads of big buffers near the limit even when less bytes remain, use {@link #clampToBudget(int)} instead.
+     */
+    @Deprecated(since = "1.41.0")
     public void checkBeforeRead(int len) {
         if (len + totalReadBytes > maxUncompressedSize) {
-            throw new IllegalStateException("Archive size is too big.");
+            throw reject(ArchiveLimitException.Reason.TOO_BIG);
         }
     }
 
+    /**
+     * @return the number of bytes to request from the archive for a read of {@code len} bytes: at most the remaining
+     * budget plus one byte, so that an archive going over the limit is still detected by {@link #incrementAndValidateMaxSize(int)}.
+     */
+    public int clampToBudget(int len) {
+        return (int) Math.min(len, getRemainingBytes() + 1);
+    }
+
     public void incrementAndValidateMaxSize(int readBytes) {
+        if (readBytes <= 0) {
+            return;
+        }
         totalReadBytes += readBytes;
         if (totalReadBytes > maxUncompressedSize) {
-            throw new IllegalStateException("Archive size is too big.");
+            throw reject(ArchiveLimitException.Reason.TOO_BIG);
+        }
+    }
+
+    /**
+     * Reads from an archive, clamping the read to the remaining size and charging the read bytes, and when there is a
+     * shared budget, taking the bytes to read from it. When the shared budget is exhausted, a single byte is read and
+     * only paid for if the entry is not over, waiting for other streams to release bytes according to the admission of
+     * the budget.
+     * <p>
+     * The bytes granted by the budget are local to each call, as the reads of nested archives sharing this instance are
+     * nested in the reads of their enclosing archives.
+     */
+    int read(byte[] b, int off, int len, ArchiveReader reader) throws IOException {
+        int clampedLen = clampToBudget(len);
+        if (budget == null || clampedLen <= 0) {
+            int readBytes = reader.read(b, off, clampedLen);
+            incrementAndValidateMaxSize(readBytes);
+            checkTimeLimits(readBytes);
+            return readBytes;
+        }
+        long grantedBytes = budget.tryAcquireUpTo(clampedLen);
+        int readBytes = -1;
+        try {
+            readBytes = reader.read(b, off, grantedBytes > 0 ? (int) grantedBytes : 1);
+        } finally {
+            long paidBytes = Math.max(0, readBytes);
+            if (grantedBytes == 0) {
+                acquireFromBudget(paidBytes);
+            } else {
+                budget.release(grantedBytes - paidBytes);
+            }
+            chargedBytes += paidBytes;
+        }
+        incrementAndValidateMaxSize(readBytes);
+        checkTimeLimits(readBytes);
+        return readBytes;
+    }
+
+    /**
+     * Checks the time limits of the archive, sampling the clocks, see {@link DecompressionTimer}.
+     */
+    private void checkTimeLimits(int readBytes) {
+        if (timer == null) {
+            return;
+        }
+        ArchiveLimitException.Reason reason = timer.check(readBytes, totalReadBytes);
+        if (reason != null) {
+            throw reject(reason);
+        }
+    }
+
+    private void acquireFromBudget(long bytes) throws InterruptedIOException {
+        try {
+            budget.acquire(bytes);
+        } catch (ArchiveLimitException e) {
+            metricsRecorder.recordRejection(format, e.getReason());
+            throw e;
+        }
+    }
+
+    /**
+     * Gives back to the shared budget the bytes read by this stream and records the statistics of the archive, to call
+     * once when the stream is closed.
+     *
+     * @param compressedBytes the bytes read from the archive
+     */
+    void close(long compressedBytes) {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (budget != null) {
+            budget.release(chargedBytes);
+            chargedBytes = 0;
+        }
+        metricsRecorder.recordRead(format, compressedBytes, totalReadBytes, readEntries, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Fails before anything is read when a known number of bytes would go over the limit.
+     */
+    public void checkRemainingSize(long size) {
+        if (size > getRemainingBytes()) {
+            throw reject(ArchiveLimitException.Reason.TOO_BIG);
+        }
+    }
+
+    public long getRemainingBytes() {
+        return maxUncompressedSize - totalReadBytes;
+    }
+
+    /**
+     * Reads up to {@code len} bytes into an array sized from the expected number of remaining bytes. As this number
+     * comes from the archive, the array starts at {@value #DEFAULT_BUFFER_SIZE} bytes at most, and doubles up to the
+     * expected size while it is filled.
+     */
+    byte[] readNBytes(InputStream in, int len, int expectedSize) throws IOException {
+        checkRemainingSize(expectedSize);
+        byte[] bytes = new byte[Math.min(expectedSize, DEFAULT_BUFFER_SIZE)];
+        int size = in.readNBytes(bytes, 0, bytes.length);
+        while (size == bytes.length && size < expectedSize) {
+            bytes = Arrays.copyOf(bytes, (int) Math.min(expectedSize, 2L * size));
+            size += in.readNBytes(bytes, size, bytes.length - size);
+        }
+        if (size < bytes.length) {
+            return Arrays.copyOf(bytes, size);
+        }
+        int b = bytes.length < len ? in.read() : -1;
+        if (b == -1) {
+            return bytes;
         }
+        // more bytes than expected, which the archive format should have rejected
+        ByteArrayOutputStream allBytes = new ByteArrayOutputStream();
+        allBytes.write(bytes);
+        allBytes.write(b);
+        byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
+        long remainingBytes = (long) len - bytes.length - 1;
+        int readBytes;
+        while (remainingBytes > 0 && (readBytes = in.read(buffer, 0, (int) Math.min(buffer.length, remainingBytes))) >= 0) {
+            allBytes.write(buffer, 0, readBytes);
+            remainingBytes -= readBytes;
+        }
+        return allBytes.toByteArray();
+    }
+
+    /**
+     * Reads the rest of the current entry into an {@link EntryBuffer}, failing before anything is read when its known
+     * size would go over the limit.
+     *
+     * @param expectedSize the number of bytes left in the entry, -1 if unknown
+     */
+    EntryBuffer readEntry(InputStream in, long expectedSize) throws IOException {
+        if (expectedSize >= 0) {
+            checkRemainingSize(expectedSize);
+        }
+        return EntryBuffer.read(in, expectedSize);
+    }
+
+    /**
+     * Transfers the rest of the current entry with reads sized from the expected number of bytes, when it is known,
+     * into a buffer borrowed from {@link ResourcePool#BUFFERS}.
+     */
+    static long transferTo(InputStream in, OutputStream out, long expectedSize) throws IOException {
+        Objects.requireNonNull(out, "out");
+        byte[] buffer = ResourcePool.BUFFERS.borrow();
+        int bufferSize = expectedSize >= 0 ? (int) Math.max(1, Math.min(expectedSize, buffer.length)) : buffer.length;
+        try {
+            long transferredBytes = 0;
+            int readBytes;
+            while ((readBytes = in.read(buffer, 0, bufferSize)) >= 0) {
+                out.write(buffer, 0, readBytes);
+                transferredBytes += readBytes;
+            }
+            return transferredBytes;
+        } finally {
+            ResourcePool.BUFFERS.release(buffer);
+        }
+    }
+
+    /**
+     * Skips bytes by reading them in big chunks, for formats which must decompress the skipped bytes anyway.
+     */
+    static long skipByReading(InputStream in, long n) throws IOException {
+        return skipByReading(in::read, n);
+    }
+
+    /**
+     * Same as {@link #skipByReading(InputStream, long)} with the read method of an archive stream.
+     */
+    static long skipByReading(ArchiveReader reader, long n) throws IOException {
+        if (n <= 0) {
+            return 0;
+        }
+        byte[] buffer = ResourcePool.BUFFERS.borrow();
+        try {
+            long skippedBytes = 0;
+            while (skippedBytes < n) {
+                int readBytes = reader.read(buffer, 0, (int) Math.min(buffer.length, n - skippedBytes));
+                if (readBytes < 0) {
+                    break;
+                }
+                skippedBytes += readBytes;
+            }
+            return skippedBytes;
+        } finally {
+            ResourcePool.BUFFERS.release(buffer);
+        }
+    }
+
+    /**
+     * The read method of the underlying archive stream.
+     */
+    @FunctionalInterface
+    interface ArchiveReader {
+        int read(byte[] b, int off, int len) throws IOException;
     }
 }
@@ -0,0 +1,432 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarConstants;
+import org.apache.commons.compress.archivers.tar.TarUtils;
+import org.apache.commons.compress.archivers.zip.ZipEncoding;
+import org.apache.commons.compress.archivers.zip.ZipEncodingHelper;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Random access reader of an uncompressed tar file, enforcing the same limits as {@link SecuredTarInputStream}.
+ * <p>
+ * The headers are scanned once with positional reads, jumping over the content of the entries without reading it, to
+ * index the offset and size of the content of each file and directory, other entries like links being ignored, though
+ * every header counts in the maximum number of entries. The index can be saved to a file and loaded instead of
+ * scanning the tar again, as long as the tar keeps the same size and last modified time. An entry is then found by its name in constant time, and read with
+ * positional reads of a shared {@link FileChannel}, so entries can be read concurrently, each read being charged to the
+ * maximum uncompressed size.
+ *
+ * @author Etienne Lesot <etienne.lesot at rte-france.com>
+ */
+public class SecuredTarFile implements Closeable {
+
+    private static final String FORMAT = "tar";
+    private static final int INDEX_MAGIC = 0x50575449;
+    private static final int INDEX_VERSION = 2;
+    private static final int MAX_NAME_LENGTH = 64 * 1024;
+    private static final int RECORD_SIZE = TarConstants.DEFAULT_RCDSIZE;
+    private static final int MAX_EXTENDED_HEADER_SIZE = 1024 * 1024;
+    // the encoding of the names in the headers, as read by a tar stream
+    private static final ZipEncoding ZIP_ENCODING = ZipEncodingHelper.getZipEncoding(Charset.defaultCharset());
+
+    /**
+     * @param name the name of the entry in the tar
+     * @param offset the offset of the content of the entry in the tar file
+     * @param size the size of the content of the entry
+     * @param directory whether the entry is a directory
+     */
+    public record Entry(String name, long offset, long size, boolean directory) {
+    }
+
+    /**
+     * @param headerCount the number of headers of the tar, every kind of entry included
+     */
+    private record Index(List<Entry> entries, int headerCount) {
+    }
+
+    private final long maxUncompressedSize;
+    private final FileChannel channel;
+    private final List<Entry> entries;
+    private final Map<String, Entry> entriesByName;
+    private final AtomicLong totalReadBytes = new AtomicLong();
+    private final ArchiveMetricsRecorder metricsRecorder;
+
+    public SecuredTarFile(Path tarFilePath, int maxTarEntries, long maxUncompressedSize) throws IOException {
+        this(tarFilePath, maxTarEntries, maxUncompressedSize, null);
+    }
+
+    /**
+     * @param indexFilePath the file the index is loaded from if it matches the tar, or saved to otherwise, null to
+     *                      always scan the tar
+     * @throws ArchiveLimitException if the tar has more than {@code maxTarEntries} entries, links and other special
+     * entries included, or if the total size of its files is greater than {@code maxUncompressedSize}
+     */
+    public SecuredTarFile(Path tarFilePath, int maxTarEntries, long maxUncompressedSize, Path indexFilePath) throws IOException {
+        this(tarFilePath, maxTarEntries, maxUncompressedSize, indexFilePath, DefaultArchiveMetricsRecorder.INSTANCE);
+    }
+
+    /**
+     * Tar file checked against the maximum number of entries and the maximum uncompressed size of the limits, its
+     * rejections being recorded by their metrics recorder.
+     *
+     * @param indexFilePath the file the index is loaded from if it matches the tar, or saved to otherwise, null to
+     *                      always scan the tar
+     */
+    public SecuredTarFile(Path tarFilePath, ArchiveLimits limits, Path indexFilePath) throws IOException {
+        this(tarFilePath, limits.getMaxEntries(), limits.getMaxUncompressedSize(), indexFilePath, limits.getMetricsRecorder());
+    }
+
+    private SecuredTarFile(Path tarFilePath, int maxTarEntries, long maxUncompressedSize, Path indexFilePath,
+                           ArchiveMetricsRecorder metricsRecorder) throws IOException {
+        this.maxUncompressedSize = maxUncompressedSize;
+        this.metricsRecorder = metricsRecorder;
+        BasicFileAttributes attributes = Files.readAttributes(tarFilePath, BasicFileAttributes.class);
+        Index index = indexFilePath != null ? loadIndex(indexFilePath, attributes, maxTarEntries) : null;
+        if (index == null) {
+            index = scan(tarFilePath, maxTarEntries);
+            if (indexFilePath != null) {
+                saveIndex(indexFilePath, attributes, index);
+            }
+        }
+        List<Entry> indexedEntries = index.entries();
+        if (indexedEntries.stream().mapToLong(Entry::size).sum() > maxUncompressedSize) {
+            throw reject(ArchiveLimitException.Reason.TOO_BIG);
+        }
+        this.entries = indexedEntries;
+        this.entriesByName = HashMap.newHashMap(indexedEntries.size());
+        // like when extracting a tar, an entry replaces the previous ones with the same name
+        indexedEntries.forEach(entry -> entriesByName.put(entry.name(), entry));
+        this.channel = FileChannel.open(tarFilePath);
+    }
+
+    /**
+     * @return the files and directories of the archive, in the order of the archive.
+     */
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * @return the last entry of the archive with the given name, empty if there is none.
+     */
+    public Optional<Entry> getEntry(String name) {
+        return Optional.ofNullable(entriesByName.get(name));
+    }
+
+    /**
+     * @return the content of an entry, whose reads are charged to the maximum uncompressed size.
+     */
+    public InputStream getInputStream(Entry entry) {
+        return new EntryInputStream(entry);
+    }
+
+    /**
+     * @return the content of the last entry with the given name
+     * @throws FileNotFoundException if there is no such entry
+     */
+    public InputStream getInputStream(String name) throws FileNotFoundException {
+        Entry entry = entriesByName.get(name);
+        if (entry == null) {
+            throw new FileNotFoundException("No tar entry: " + LogUtils.sanitizeParam(name));
+        }
+        return getInputStream(entry);
+    }
+
+    /**
+     * Reads the content of an entry into an {@link EntryBuffer}, memory-mapped from the tar file or copied into a
+     * direct buffer depending on its size, its size being charged to the maximum uncompressed size before anything is
+     * read.
+     */
+    public EntryBuffer readEntry(Entry entry) throws IOException {
+        if (entry.size() > EntryBuffer.MAX_SIZE) {
+            throw new IOException("Tar entry is too big for a buffer: " + LogUtils.sanitizeParam(entry.name()));
+        }
+        charge(entry.size());
+        return EntryBuffer.read(channel, entry.offset(), (int) entry.size(), entry.name());
+    }
+
+    /**
+     * Walks the headers with positional reads of the tar file, jumping over the content of each entry, only the headers
+     * and the GNU long names and PAX extended headers, which apply to the next header, being read.
+     */
+    private Index scan(Path tarFilePath, int maxTarEntries) throws IOException {
+        List<Entry> scannedEntries = new ArrayList<>();
+        int headerCount = 0;
+        Map<String, String> globalPaxHeaders = new HashMap<>();
+        Map<String, String> paxHeaders = new HashMap<>();
+        String longName = null;
+        byte[] record = new byte[RECORD_SIZE];
+        try (FileChannel tarChannel = FileChannel.open(tarFilePath)) {
+            long position = 0;
+            // like the tar stream, a missing or incomplete end-of-archive record ends the archive too
+            while (readFully(tarChannel, record, position) && !isZeroRecord(record)) {
+                if (!TarUtils.verifyCheckSum(record)) {
+                    throw new IOException("Corrupted tar header at offset " + position);
+                }
+                TarArchiveEntry tarEntry = parseHeader(record, globalPaxHeaders);
+                position += RECORD_SIZE;
+                // the sparse map of an old GNU sparse entry may go on in extension records
+                boolean extended = tarEntry.isExtended();
+                while (extended && readFully(tarChannel, record, position)) {
+                    extended = TarUtils.parseBoolean(record, TarConstants.SPARSELEN_GNU_SPARSE);
+                    position += RECORD_SIZE;
+                }
+                long offset = position;
+                if (tarEntry.isGNULongNameEntry()) {
+                    longName = trimNul(new String(readContent(tarChannel, offset, tarEntry.getSize()), Charset.defaultCharset()));
+                } else if (tarEntry.isGlobalPaxHeader()) {
+                    parsePaxHeaders(readContent(tarChannel, offset, tarEntry.getSize()), globalPaxHeaders);
+                } else if (tarEntry.isPaxHeader()) {
+                    parsePaxHeaders(readContent(tarChannel, offset, tarEntry.getSize()), paxHeaders);
+                } else if (!tarEntry.isGNULongLinkEntry()) {
+                    // every header counts, the entries which are not indexed costing a scan step too
+                    if (++headerCount > maxTarEntries) {
+                        throw reject(ArchiveLimitException.Reason.TOO_MANY_ENTRIES);
+                    }
+                    if (longName != null) {
+                        tarEntry.setName(longName);
+                    }
+                    // e.g. a PAX size replaces the size of the header
+                    for (Map.Entry<String, String> paxHeader : paxHeaders.entrySet()) {
+                        tarEntry.addPaxHeader(paxHeader.getKey(), paxHeader.getValue());
+                    }
+                    longName = null;
+                    paxHeaders.clear();
+                    // links are reported as files by the tar entry
+                    if ((tarEntry.isFile() && !tarEntry.isSparse() && !tarEntry.isLink() && !tarEntry.isSymbolicLink()) || tarEntry.isDirectory()) {
+                        long size = tarEntry.isDirectory() ? 0 : tarEntry.getSize();
+                        scannedEntries.add(new Entry(tarEntry.getName(), offset, size, tarEntry.isDirectory()));
+                    }
+                }
+                // the content is jumped over, padded to a whole number of records
+                position += (tarEntry.getSize() + RECORD_SIZE - 1) / RECORD_SIZE * RECORD_SIZE;
+            }
+        }
+        return new Index(scannedEntries, headerCount);
+    }
+
+    private static TarArchiveEntry parseHeader(byte[] header, Map<String, String> globalPaxHeaders) throws IOException {
+        try {
+            return new TarArchiveEntry(globalPaxHeaders, header, ZIP_ENCODING, false);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Error detected parsing the tar header", e);
+        }
+    }
+
+    /**
+     * @return false if the end of the file is reached before the record is complete
+     */
+    private static boolean readFully(FileChannel tarChannel, byte[] record, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        while (buffer.hasRemaining()) {
+            if (tarChannel.read(buffer, position + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isZeroRecord(byte[] record) {
+        for (byte b : record) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] readContent(FileChannel tarChannel, long offset, long size) throws IOException {
+        if (size > MAX_EXTENDED_HEADER_SIZE) {
+            throw new IOException("Tar extended header is too big: " + size);
+        }
+        byte[] content = new byte[(int) size];
+        if (!readFully(tarChannel, content, offset)) {
+            throw new EOFException("Truncated tar extended header at offset " + offset);
+        }
+        return content;
+    }
+
+    private static String trimNul(String name) {
+        int length = name.indexOf('\0');
+        return length < 0 ? name : name.substring(0, length);
+    }
+
+    /**
+     * Parses the "length key=value\n" records of a PAX extended header, an empty value removing the key.
+     */
+    private static void parsePaxHeaders(byte[] content, Map<String, String> headers) throws IOException {
+        int recordStart = 0;
+        while (recordStart < content.length && content[recordStart] != 0) {
+            int space = recordStart;
+            int length = 0;
+            while (space < content.length && content[space] >= '0' && content[space] <= '9') {
+                length = Math.addExact(Math.multiplyExact(length, 10), content[space++] - '0');
+            }
+            int recordEnd = recordStart + length;
+            if (space == recordStart || space >= content.length || content[space] != ' '
+                || recordEnd > content.length || recordEnd <= space || content[recordEnd - 1] != '\n') {
+                throw new IOException("Invalid PAX header record at " + recordStart);
+            }
+            String keyValue = new String(content, space + 1, recordEnd - space - 2, StandardCharsets.UTF_8);
+            int equals = keyValue.indexOf('=');
+            if (equals <= 0) {
+                throw new IOException("Invalid PAX header record at " + recordStart);
+            }
+            String value = keyValue.substring(equals + 1);
+            if (value.isEmpty()) {
+                headers.remove(keyValue.substring(0, equals));
+            } else {
+                headers.put(keyValue.substring(0, equals), value);
+            }
+            recordStart = recordEnd;
+        }
+    }
+
+    /**
+     * @return the index, null if it does not exist or does not match the tar file
+     */
+    private Index loadIndex(Path indexFilePath, BasicFileAttributes tarAttributes, int maxTarEntries) throws IOException {
+        if (!Files.isRegularFile(indexFilePath)) {
+            return null;
+        }
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFilePath)))) {
+            if (dis.readInt() != INDEX_MAGIC || dis.readInt() != INDEX_VERSION
+                || dis.readLong() != tarAttributes.size() || dis.readLong() != tarAttributes.lastModifiedTime().toMillis()) {
+                return null;
+            }
+            int headerCount = dis.readInt();
+            int entryCount = dis.readInt();
+            if (entryCount < 0 || entryCount > headerCount) {
+                return null;
+            }
+            if (headerCount > maxTarEntries) {
+                throw reject(ArchiveLimitException.Reason.TOO_MANY_ENTRIES);
+            }
+            List<Entry> indexedEntries = new ArrayList<>(entryCount);
+            for (int i = 0; i < entryCount; i++) {
+                int nameLength = dis.readInt();
+                if (nameLength < 0 || nameLength > MAX_NAME_LENGTH) {
+                    return null;
+                }
+                String name = new String(dis.readNBytes(nameLength), StandardCharsets.UTF_8);
+                long offset = dis.readLong();
+                long size = dis.readLong();
+                if (offset < 0 || size < 0 || offset > tarAttributes.size() - size) {
+                    return null;
+                }
+                indexedEntries.add(new Entry(name, offset, size, dis.readBoolean()));
+            }
+            return new Index(indexedEntries, headerCount);
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static void saveIndex(Path indexFilePath, BasicFileAttributes tarAttributes, Index index) throws IOException {
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFilePath)))) {
+            dos.writeInt(INDEX_MAGIC);
+            dos.writeInt(INDEX_VERSION);
+            dos.writeLong(tarAttributes.size());
+            dos.writeLong(tarAttributes.lastModifiedTime().toMillis());
+            dos.writeInt(index.headerCount());
+            dos.writeInt(index.entries().size());
+            for (Entry entry : index.entries()) {
+                byte[] name = entry.name().getBytes(StandardCharsets.UTF_8);
+                dos.writeInt(name.length);
+                dos.write(name);
+                dos.writeLong(entry.offset());
+                dos.writeLong(entry.size());
+                dos.writeBoolean(entry.directory());
+            }
+        }
+    }
+
+    private void charge(long readBytes) {
+        if (totalReadBytes.addAndGet(readBytes) > maxUncompressedSize) {
+            throw reject(ArchiveLimitException.Reason.TOO_BIG);
+        }
+    }
+
+    private ArchiveLimitException reject(ArchiveLimitException.Reason reason) {
+        metricsRecorder.recordRejection(FORMAT, reason);
+        return new ArchiveLimitException(reason);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads the content of an entry with positional reads, which do not move the position of the shared channel.
+     */
+    private final class EntryInputStream extends InputStream {
+
+        private final Entry entry;
+        private long position;
+
+        private EntryInputStream(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, b.length);
+            long remainingBytes = entry.size() - position;
+            if (remainingBytes <= 0) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+            int readBytes = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, remainingBytes)), entry.offset() + position);
+            if (readBytes < 0) {
+                throw new EOFException("Truncated tar entry: " + LogUtils.sanitizeParam(entry.name()));
+            }
+            charge(readBytes);
+            position += readBytes;
+            return readBytes;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skippedBytes = Math.max(0, Math.min(n, entry.size() - position));
+            position += skippedBytes;
+            return skippedBytes;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, entry.size() - position);
+        }
+    }
+}
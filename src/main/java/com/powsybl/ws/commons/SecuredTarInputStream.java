@@ -8,32 +8,225 @@ package com.powsybl.ws.commons;
 
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.compressors.CompressorInputStream;
+import org.apache.commons.compress.utils.InputStreamStatistics;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.zip.InflaterInputStream;
 
 /**
  * @author Etienne Lesot <etienne.lesot at rte-france.com>
  */
 public class SecuredTarInputStream extends TarArchiveInputStream {
     private final SecuredInputStream securedStream;
+    // false when the limits are shared with the enclosing archive, which releases the budget
+    private final boolean ownsSecuredStream;
+    private final CompressionRatioMonitor ratioMonitor;
+    // the bytes read from the archive, compressed ones when the tar is compressed
+    private final LongSupplier inputCount;
+    // true when the tar is read from a decompressing stream, whose skipped bytes are decompressed anyway
+    private final boolean compressed;
+    private Predicate<String> entryFilter;
+    private ContentDigester digester;
 
     public SecuredTarInputStream(InputStream in, int maxTarEntries, long maxUncompressedSize) {
+        this(in, maxTarEntries, maxUncompressedSize, null);
+    }
+
+    /**
+     * @param budget budget shared with other streams, from which the read bytes are drawn until this stream is closed
+     */
+    public SecuredTarInputStream(InputStream in, int maxTarEntries, long maxUncompressedSize, DecompressionBudget budget) {
+        this(in, ArchiveLimits.of(maxTarEntries, maxUncompressedSize, budget));
+    }
+
+    /**
+     * The compression ratios of the limits are only checked if the tar is read from a decompressing stream providing
+     * its compressed count, like {@link org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream}.
+     */
+    public SecuredTarInputStream(InputStream in, ArchiveLimits limits) {
+        this(in, new SecuredInputStream(limits, "tar"), true, compressedCount(in));
+    }
+
+    /**
+     * Stream charging its entries and bytes to the limits of another stream, e.g. for a nested archive.
+     *
+     * @param compressedCount the number of compressed bytes read to decompress the tar, null if it is not compressed
+     */
+    SecuredTarInputStream(InputStream in, SecuredInputStream securedStream, boolean ownsSecuredStream, LongSupplier compressedCount) {
+        this(securedStream, ownsSecuredStream, compressedCount, isCompressed(in, compressedCount), new CountingInputStream(in));
+    }
+
+    private SecuredTarInputStream(SecuredInputStream securedStream, boolean ownsSecuredStream, LongSupplier compressedCount, boolean compressed,
+                                  CountingInputStream in) {
         super(in);
-        this.securedStream = new SecuredInputStream(maxTarEntries, maxUncompressedSize);
+        this.securedStream = securedStream;
+        this.ownsSecuredStream = ownsSecuredStream;
+        this.ratioMonitor = securedStream.newCompressionRatioMonitor("tar", compressedCount);
+        this.inputCount = compressedCount != null ? compressedCount : in::getCount;
+        this.compressed = compressed;
+    }
+
+    private static LongSupplier compressedCount(InputStream in) {
+        return in instanceof InputStreamStatistics statistics ? statistics::getCompressedCount : null;
+    }
+
+    private static boolean isCompressed(InputStream in, LongSupplier compressedCount) {
+        return compressedCount != null || in instanceof CompressorInputStream || in instanceof InflaterInputStream;
+    }
+
+    /**
+     * Only returns the entries whose name is accepted by the filter, see {@link ArchiveEntryFilters}. The other entries
+     * are still counted in the entry limit. Their content is skipped from the size in their header without being read
+     * nor charged when the tar is not compressed; otherwise it is decompressed anyway, so it is read and counted in the
+     * uncompressed size like read bytes.
+     *
+     * @param entryFilter the filter of the entry names, null to return all the entries
+     */
+    public void setEntryFilter(Predicate<String> entryFilter) {
+        this.entryFilter = entryFilter;
+    }
+
+    /**
+     * Digests the entries while they are read, see {@link #getEntryDigest()} and {@link #getArchiveDigest()}. Must be
+     * called before reading the first entry.
+     *
+     * @param algorithm a {@link java.security.MessageDigest} algorithm, e.g. {@code SHA-256}, null to stop digesting
+     */
+    public void setDigestAlgorithm(String algorithm) {
+        this.digester = algorithm != null ? new ContentDigester(algorithm) : null;
+    }
+
+    /**
+     * @return the digest of the bytes read from the current entry so far, null if there is no current entry or no
+     * digest algorithm
+     */
+    public byte[] getEntryDigest() {
+        return digester != null ? digester.getEntryDigest() : null;
+    }
+
+    /**
+     * The digest of an archive is the digest of the names and the digests of its entries, in order, so that it does not
+     * depend on the compression. The unread bytes of an entry are skipped without being digested, so the entries must be
+     * read entirely for the digest to cover the content. It is complete once {@link #getNextEntry()} returned null.
+     *
+     * @return the digest of the entries returned so far, null if there is no digest algorithm
+     */
+    public byte[] getArchiveDigest() {
+        return digester != null ? digester.getArchiveDigest() : null;
     }
 
     @Override
     public TarArchiveEntry getNextEntry() throws IOException {
         securedStream.incrementAndValidateEntryLimit();
-        return super.getNextEntry();
+        if (digester != null) {
+            digester.endEntry();
+        }
+        TarArchiveEntry entry = super.getNextEntry();
+        while (entry != null && entryFilter != null && !entryFilter.test(entry.getName())) {
+            securedStream.incrementAndValidateEntryLimit();
+            if (!compressed) {
+                skipUncharged();
+            }
+            entry = super.getNextEntry();
+        }
+        if (entry != null) {
+            securedStream.onEntry();
+            if (digester != null) {
+                digester.startEntry(entry.getName());
+            }
+        }
+        if (ratioMonitor != null) {
+            if (entry != null) {
+                ratioMonitor.startEntry();
+            } else {
+                ratioMonitor.endEntry();
+            }
+        }
+        return entry;
     }
 
     @Override
     public int read(byte[] b, int off, int len) throws IOException {
-        securedStream.checkBeforeRead(len);
-        int readBytes = super.read(b, off, len);
-        securedStream.incrementAndValidateMaxSize(readBytes);
+        int readBytes = readCharged(b, off, len);
+        if (digester != null) {
+            digester.update(b, off, readBytes);
+        }
         return readBytes;
     }
+
+    private int readCharged(byte[] b, int off, int len) throws IOException {
+        int readBytes = securedStream.read(b, off, len, super::read);
+        if (ratioMonitor != null) {
+            ratioMonitor.onRead(readBytes);
+        }
+        return readBytes;
+    }
+
+    /**
+     * Skips the bytes of a compressed tar by reading them, so that they are charged to the limits, as they are
+     * decompressed anyway. The bytes of an uncompressed tar are skipped without being read nor charged. Moving to the
+     * next entry reads the rest of the current one, which is then charged.
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        if (!compressed) {
+            return super.skip(n);
+        }
+        return SecuredInputStream.skipByReading(this::readCharged, n);
+    }
+
+    /**
+     * Skips the rest of the current entry of an uncompressed tar with the skip of the underlying stream, which seeks
+     * when it can, before {@link TarArchiveInputStream#getNextEntry()} would read it.
+     */
+    private void skipUncharged() throws IOException {
+        while (available() > 0) {
+            if (super.skip(available()) <= 0) {
+                // e.g. a truncated tar, whose end is found by reading
+                return;
+            }
+        }
+    }
+
+    @Override
+    public byte[] readNBytes(int len) throws IOException {
+        // the size of a tar entry is always known, the remaining bytes of the current entry being returned by available()
+        int remainingEntryBytes = getCurrentEntry() != null ? available() : -1;
+        if (remainingEntryBytes < 0 || remainingEntryBytes > len) {
+            return super.readNBytes(len);
+        }
+        return securedStream.readNBytes(this, len, remainingEntryBytes);
+    }
+
+    /**
+     * Reads the rest of the current entry into a pooled direct buffer, see {@link EntryBuffer}, its remaining size
+     * being checked against the maximum uncompressed size before anything is read.
+     */
+    public EntryBuffer readEntry() throws IOException {
+        return securedStream.readEntry(this, getCurrentEntry() != null ? available() : 0);
+    }
+
+    @Override
+    public long transferTo(OutputStream out) throws IOException {
+        return SecuredInputStream.transferTo(this, out, getCurrentEntry() != null ? available() : -1);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            if (ratioMonitor != null) {
+                ratioMonitor.endEntry();
+            }
+            if (ownsSecuredStream) {
+                securedStream.close(inputCount.getAsLong());
+            }
+        }
+    }
 }
@@ -0,0 +1,500 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * Random access reader of a zip file, enforcing the same limits as {@link SecuredZipInputStream}.
+ * <p>
+ * The central directory is first scanned (see {@link #scan}) to reject archives declaring too many entries or a too big
+ * total size before anything is decompressed. The entries can then be read concurrently, each read being charged to the
+ * maximum uncompressed size of the whole archive, as declared sizes are not trusted.
+ * <p>
+ * With an entry filter (see {@link ArchiveEntryFilters}), only the selected entries are checked, listed and extracted,
+ * the other ones being neither read nor counted in the limits.
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+public class SecuredZipFile implements Closeable {
+
+    private static final String FORMAT = "zip";
+
+    private final Path zipFilePath;
+    private final long maxUncompressedSize;
+    private final ZipFile zipFile;
+    // channel of the zip file for the entries read into buffers, opened on the first one
+    private FileChannel channel;
+    private final List<ZipArchiveEntry> entries;
+    private final ZipManifest manifest;
+    private final AtomicLong totalReadBytes = new AtomicLong();
+    private final ArchiveMetricsRecorder metricsRecorder;
+
+    public SecuredZipFile(Path zipFilePath, int maxZipEntries, long maxUncompressedSize) throws IOException {
+        this(zipFilePath, maxZipEntries, maxUncompressedSize, Double.POSITIVE_INFINITY);
+    }
+
+    public SecuredZipFile(Path zipFilePath, int maxZipEntries, long maxUncompressedSize, double maxCompressionRatio) throws IOException {
+        this(zipFilePath, maxZipEntries, maxUncompressedSize, maxCompressionRatio, null);
+    }
+
+    /**
+     * @param entryFilter the filter of the entry names, null to select all the entries
+     */
+    public SecuredZipFile(Path zipFilePath, int maxZipEntries, long maxUncompressedSize, double maxCompressionRatio,
+                          Predicate<String> entryFilter) throws IOException {
+        this(zipFilePath, maxZipEntries, maxUncompressedSize, maxCompressionRatio, entryFilter, DefaultArchiveMetricsRecorder.INSTANCE);
+    }
+
+    /**
+     * Zip file checked against the maximum number of entries, the maximum uncompressed size and the maximum entry
+     * compression ratio of the limits, its statistics and rejections being recorded by their metrics recorder.
+     *
+     * @param entryFilter the filter of the entry names, null to select all the entries
+     */
+    public SecuredZipFile(Path zipFilePath, ArchiveLimits limits, Predicate<String> entryFilter) throws IOException {
+        this(zipFilePath, limits.getMaxEntries(), limits.getMaxUncompressedSize(), limits.getMaxEntryCompressionRatio(), entryFilter,
+            limits.getMetricsRecorder());
+    }
+
+    private SecuredZipFile(Path zipFilePath, int maxZipEntries, long maxUncompressedSize, double maxCompressionRatio,
+                           Predicate<String> entryFilter, ArchiveMetricsRecorder metricsRecorder) throws IOException {
+        this.zipFilePath = zipFilePath;
+        this.maxUncompressedSize = maxUncompressedSize;
+        this.metricsRecorder = metricsRecorder;
+        this.manifest = scan(zipFilePath, maxZipEntries, maxUncompressedSize, maxCompressionRatio, entryFilter, metricsRecorder);
+        this.zipFile = ZipFile.builder().setPath(zipFilePath).get();
+        this.entries = Collections.list(zipFile.getEntries()).stream()
+            .filter(entry -> entryFilter == null || entryFilter.test(entry.getName()))
+            .toList();
+        if (entries.size() > maxZipEntries) {
+            zipFile.close();
+            throw reject(ArchiveLimitException.Reason.TOO_MANY_ENTRIES);
+        }
+    }
+
+    /**
+     * Reads the central directory of a zip archive without decompressing anything, and checks its declared entry count,
+     * total uncompressed size and compression ratios (only for entries of at least 1 MiB) against the limits.
+     *
+     * @return the entries as declared by the central directory
+     * @throws IllegalStateException if a limit is exceeded
+     * @throws java.util.zip.ZipException if the archive is not a valid zip archive
+     */
+    public static ZipManifest scan(SeekableByteChannel channel, int maxZipEntries, long maxUncompressedSize, double maxCompressionRatio) throws IOException {
+        return scan(channel, maxZipEntries, maxUncompressedSize, maxCompressionRatio, null);
+    }
+
+    /**
+     * Same as {@link #scan(SeekableByteChannel, int, long, double)}, only checking and returning the selected entries.
+     *
+     * @param entryFilter the filter of the entry names, null to select all the entries
+     */
+    public static ZipManifest scan(SeekableByteChannel channel, int maxZipEntries, long maxUncompressedSize, double maxCompressionRatio,
+                                   Predicate<String> entryFilter) throws IOException {
+        return scan(channel, maxZipEntries, maxUncompressedSize, maxCompressionRatio, entryFilter, DefaultArchiveMetricsRecorder.INSTANCE);
+    }
+
+    /**
+     * Same as {@link #scan(SeekableByteChannel, int, long, double, Predicate)} with the maximum number of entries, the
+     * maximum uncompressed size and the maximum entry compression ratio of the limits, a rejection being recorded by
+     * their metrics recorder.
+     */
+    public static ZipManifest scan(SeekableByteChannel channel, ArchiveLimits limits, Predicate<String> entryFilter) throws IOException {
+        return scan(channel, limits.getMaxEntries(), limits.getMaxUncompressedSize(), limits.getMaxEntryCompressionRatio(), entryFilter,
+            limits.getMetricsRecorder());
+    }
+
+    private static ZipManifest scan(SeekableByteChannel channel, int maxZipEntries, long maxUncompressedSize, double maxCompressionRatio,
+                                    Predicate<String> entryFilter, ArchiveMetricsRecorder metricsRecorder) throws IOException {
+        try {
+            return ZipCentralDirectoryReader.read(channel, maxZipEntries, maxUncompressedSize, maxCompressionRatio, entryFilter);
+        } catch (ArchiveLimitException e) {
+            metricsRecorder.recordRejection(FORMAT, e.getReason());
+            throw e;
+        }
+    }
+
+    /**
+     * Same as {@link #scan(SeekableByteChannel, int, long, double)} for a zip file.
+     */
+    public static ZipManifest scan(Path zipFilePath, int maxZipEntries, long maxUncompressedSize, double maxCompressionRatio) throws IOException {
+        return scan(zipFilePath, maxZipEntries, maxUncompressedSize, maxCompressionRatio, null);
+    }
+
+    /**
+     * Same as {@link #scan(SeekableByteChannel, int, long, double, Predicate)} for a zip file.
+     */
+    public static ZipManifest scan(Path zipFilePath, int maxZipEntries, long maxUncompressedSize, double maxCompressionRatio,
+                                   Predicate<String> entryFilter) throws IOException {
+        return scan(zipFilePath, maxZipEntries, maxUncompressedSize, maxCompressionRatio, entryFilter, DefaultArchiveMetricsRecorder.INSTANCE);
+    }
+
+    private static ZipManifest scan(Path zipFilePath, int maxZipEntries, long maxUncompressedSize, double maxCompressionRatio,
+                                    Predicate<String> entryFilter, ArchiveMetricsRecorder metricsRecorder) throws IOException {
+        try (SeekableByteChannel channel = Files.newByteChannel(zipFilePath)) {
+            return scan(channel, maxZipEntries, maxUncompressedSize, maxCompressionRatio, entryFilter, metricsRecorder);
+        }
+    }
+
+    /**
+     * @return the entries of the archive as declared by its central directory.
+     */
+    public ZipManifest getManifest() {
+        return manifest;
+    }
+
+    /**
+     * @return the selected entries of the archive, in the order of the central directory.
+     */
+    public List<ZipArchiveEntry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * @return the uncompressed content of an entry, whose reads are charged to the maximum uncompressed size.
+     */
+    public InputStream getInputStream(ZipArchiveEntry entry) throws IOException {
+        return new ChargedInputStream(zipFile.getInputStream(entry));
+    }
+
+    /**
+     * Reads an entry into an {@link EntryBuffer}, its declared size being charged to the maximum uncompressed size
+     * before anything is read. A stored entry is memory-mapped or copied from the zip file, and a deflated entry is
+     * inflated straight into a direct buffer, so the content of the entry is never copied into the heap. The buffer
+     * of an entry which is not mapped grows with its content, its declared size being only a hint, and its CRC is
+     * checked. The CRC of a mapped entry is not checked, since it would read the whole entry.
+     *
+     * @throws java.util.zip.ZipException if the content of the entry does not match its declared size or CRC
+     */
+    public EntryBuffer readEntry(ZipArchiveEntry entry) throws IOException {
+        long size = entry.getSize();
+        if (size < 0 || size > EntryBuffer.MAX_SIZE) {
+            throw new IOException("Unknown size or too big for a buffer: " + LogUtils.sanitizeParam(entry.getName()));
+        }
+        checkStoredSize(entry);
+        charge(size);
+        if (entry.getMethod() == ZipEntry.STORED && entry.getDataOffset() >= 0) {
+            EntryBuffer entryBuffer = EntryBuffer.read(getChannel(), entry.getDataOffset(), (int) size, entry.getName());
+            if (!entryBuffer.isMapped()) {
+                try {
+                    checkCrc(entry, entryBuffer.getBuffer());
+                } catch (IOException | RuntimeException e) {
+                    entryBuffer.close();
+                    throw e;
+                }
+            }
+            return entryBuffer;
+        }
+        // one more byte to detect an entry bigger than declared
+        ByteBuffer buffer = entry.getMethod() == ZipEntry.DEFLATED && entry.getDataOffset() >= 0
+            ? inflate(entry, size + 1)
+            : copy(entry, size + 1);
+        try {
+            if (buffer.position() != size) {
+                throw new ZipException("Entry size does not match its declared size: " + LogUtils.sanitizeParam(entry.getName()));
+            }
+            checkCrc(entry, buffer.duplicate().flip());
+        } catch (IOException | RuntimeException e) {
+            DirectBufferPool.release(buffer);
+            throw e;
+        }
+        return EntryBuffer.ofPooled(buffer);
+    }
+
+    /**
+     * A stored entry is read or copied from its declared size, which must then be its compressed size too.
+     */
+    private static void checkStoredSize(ZipArchiveEntry entry) throws ZipException {
+        if (entry.getMethod() == ZipEntry.STORED && entry.getSize() != entry.getCompressedSize()) {
+            throw new ZipException("Stored entry size does not match its compressed size: " + LogUtils.sanitizeParam(entry.getName()));
+        }
+    }
+
+    private static void checkCrc(ZipArchiveEntry entry, ByteBuffer content) throws ZipException {
+        if (entry.getCrc() == -1) {
+            return;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        if (crc.getValue() != entry.getCrc()) {
+            throw new ZipException("Entry CRC does not match its declared CRC: " + LogUtils.sanitizeParam(entry.getName()));
+        }
+    }
+
+    /**
+     * Inflates the compressed data read from the zip file into a pooled heap buffer with a pooled inflater, into a
+     * direct buffer grown up to the given maximum size.
+     *
+     * @return the direct buffer, filled up to its position
+     */
+    private ByteBuffer inflate(ZipArchiveEntry entry, long maxSize) throws IOException {
+        ByteBuffer buffer = EntryBuffer.borrow(maxSize);
+        Inflater inflater = ResourcePool.INFLATERS.borrow();
+        byte[] input = ResourcePool.BUFFERS.borrow();
+        boolean complete = false;
+        try {
+            FileChannel zipChannel = getChannel();
+            long position = 0;
+            while (!inflater.finished() && buffer.position() < maxSize) {
+                if (!buffer.hasRemaining()) {
+                    buffer = EntryBuffer.grow(buffer, 1, maxSize);
+                }
+                if (inflater.needsInput()) {
+                    int readBytes = position < entry.getCompressedSize()
+                        ? zipChannel.read(ByteBuffer.wrap(input, 0, (int) Math.min(input.length, entry.getCompressedSize() - position)), entry.getDataOffset() + position)
+                        : -1;
+                    if (readBytes < 0) {
+                        throw new EOFException("Truncated zip entry: " + LogUtils.sanitizeParam(entry.getName()));
+                    }
+                    position += readBytes;
+                    inflater.setInput(input, 0, readBytes);
+                } else if (inflater.needsDictionary()) {
+                    throw new ZipException("Invalid zip entry: " + LogUtils.sanitizeParam(entry.getName()));
+                }
+                inflater.inflate(buffer);
+            }
+            complete = true;
+            return buffer;
+        } catch (DataFormatException e) {
+            throw new ZipException("Invalid zip entry: " + LogUtils.sanitizeParam(entry.getName()) + ": " + e.getMessage());
+        } finally {
+            ResourcePool.BUFFERS.release(input);
+            ResourcePool.INFLATERS.release(inflater);
+            if (!complete) {
+                DirectBufferPool.release(buffer);
+            }
+        }
+    }
+
+    /**
+     * Copies the uncompressed content of the entry into a direct buffer grown up to the given maximum size.
+     *
+     * @return the direct buffer, filled up to its position
+     */
+    private ByteBuffer copy(ZipArchiveEntry entry, long maxSize) throws IOException {
+        ByteBuffer buffer = EntryBuffer.borrow(maxSize);
+        byte[] chunk = ResourcePool.BUFFERS.borrow();
+        boolean complete = false;
+        try (InputStream is = zipFile.getInputStream(entry)) {
+            int readBytes;
+            while (buffer.position() < maxSize) {
+                if (!buffer.hasRemaining()) {
+                    buffer = EntryBuffer.grow(buffer, 1, maxSize);
+                }
+                if ((readBytes = is.read(chunk, 0, Math.min(chunk.length, buffer.remaining()))) == -1) {
+                    break;
+                }
+                buffer.put(chunk, 0, readBytes);
+            }
+            complete = true;
+            return buffer;
+        } finally {
+            ResourcePool.BUFFERS.release(chunk);
+            if (!complete) {
+                DirectBufferPool.release(buffer);
+            }
+        }
+    }
+
+    private synchronized FileChannel getChannel() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(zipFilePath);
+        }
+        return channel;
+    }
+
+    /**
+     * Extracts all the entries into a directory, using the given number of threads.
+     * Entries which would be extracted outside the target directory are rejected.
+     */
+    public void extractTo(Path targetDirPath, int parallelism) throws IOException {
+        long startNanos = System.nanoTime();
+        long startReadBytes = totalReadBytes.get();
+        Path targetDir = targetDirPath.toAbsolutePath().normalize();
+        List<ZipArchiveEntry> fileEntries = new ArrayList<>();
+        for (ZipArchiveEntry entry : entries) {
+            Path target = resolveTarget(targetDir, entry);
+            if (entry.isDirectory()) {
+                Files.createDirectories(target);
+            } else {
+                Files.createDirectories(target.getParent());
+                fileEntries.add(entry);
+            }
+        }
+        try (FileChannel zipChannel = FileChannel.open(zipFilePath)) {
+            if (parallelism > 1) {
+                extractInParallel(fileEntries, targetDir, zipChannel, parallelism);
+            } else {
+                for (ZipArchiveEntry entry : fileEntries) {
+                    extract(entry, resolveTarget(targetDir, entry), zipChannel);
+                }
+            }
+            long compressedBytes = fileEntries.stream().mapToLong(ZipArchiveEntry::getCompressedSize).sum();
+            metricsRecorder.recordRead(FORMAT, compressedBytes, totalReadBytes.get() - startReadBytes, fileEntries.size(),
+                System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * The workers are stopped before returning, so that none of them still uses the zip channel once it is closed.
+     */
+    private void extractInParallel(List<ZipArchiveEntry> fileEntries, Path targetDir, FileChannel zipChannel, int parallelism) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+            Thread.ofPlatform().name("powsybl-ws-unzip-", 0).daemon().factory());
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (ZipArchiveEntry entry : fileEntries) {
+                futures.add(executor.submit(() -> {
+                    extract(entry, resolveTarget(targetDir, entry), zipChannel);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                await(future);
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+            executor.shutdownNow();
+            ZipArchiver.awaitTermination(executor);
+        }
+    }
+
+    private void extract(ZipArchiveEntry entry, Path target, FileChannel zipChannel) throws IOException {
+        try (FileChannel targetChannel = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            if (entry.getMethod() == ZipEntry.STORED && entry.getDataOffset() >= 0) {
+                // stored data is copied as is between the channels, without going through the heap
+                checkStoredSize(entry);
+                charge(entry.getCompressedSize());
+                long position = 0;
+                while (position < entry.getCompressedSize()) {
+                    long transferredBytes = zipChannel.transferTo(entry.getDataOffset() + position, entry.getCompressedSize() - position, targetChannel);
+                    if (transferredBytes <= 0) {
+                        throw new EOFException("Truncated zip entry: " + LogUtils.sanitizeParam(entry.getName()));
+                    }
+                    position += transferredBytes;
+                }
+            } else {
+                byte[] buffer = ResourcePool.BUFFERS.borrow();
+                try (InputStream is = getInputStream(entry)) {
+                    int readBytes;
+                    while ((readBytes = is.read(buffer)) != -1) {
+                        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, readBytes);
+                        while (byteBuffer.hasRemaining()) {
+                            targetChannel.write(byteBuffer);
+                        }
+                    }
+                } finally {
+                    ResourcePool.BUFFERS.release(buffer);
+                }
+            }
+        }
+    }
+
+    private static Path resolveTarget(Path targetDir, ZipArchiveEntry entry) {
+        Path target = targetDir.resolve(entry.getName()).normalize();
+        if (!target.startsWith(targetDir)) {
+            throw new IllegalStateException("Archive entry is outside of the target directory: " + LogUtils.sanitizeParam(entry.getName()));
+        }
+        return target;
+    }
+
+    private void charge(long readBytes) {
+        if (totalReadBytes.addAndGet(readBytes) > maxUncompressedSize) {
+            throw reject(ArchiveLimitException.Reason.TOO_BIG);
+        }
+    }
+
+    private ArchiveLimitException reject(ArchiveLimitException.Reason reason) {
+        metricsRecorder.recordRejection(FORMAT, reason);
+        return new ArchiveLimitException(reason);
+    }
+
+    private static void await(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while unzipping");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (zipFile) {
+            synchronized (this) {
+                if (channel != null) {
+                    channel.close();
+                }
+            }
+        }
+    }
+
+    private final class ChargedInputStream extends FilterInputStream {
+
+        private ChargedInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                charge(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int readBytes = super.read(b, off, len);
+            if (readBytes > 0) {
+                charge(readBytes);
+            }
+            return readBytes;
+        }
+
+        /**
+         * The skipped bytes are inflated anyway, so they are read to be charged.
+         */
+        @Override
+        public long skip(long n) throws IOException {
+            return SecuredInputStream.skipByReading(this::read, n);
+        }
+    }
+}
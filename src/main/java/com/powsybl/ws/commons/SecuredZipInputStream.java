@@ -8,8 +8,11 @@ package com.powsybl.ws.commons;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.function.Predicate;
+import java.util.zip.Inflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -18,28 +21,210 @@ import java.util.zip.ZipInputStream;
  */
 public class SecuredZipInputStream extends ZipInputStream {
 
+    // ZipInputStream ends its inflater when it is closed, this one being ended already, so ending it again does nothing
+    private static final Inflater ENDED_INFLATER = endedInflater();
+
     private final SecuredInputStream securedStream;
+    // false when the limits are shared with the enclosing archive, which releases the budget
+    private final boolean ownsSecuredStream;
+    private final CountingInputStream countingStream;
+    private final CompressionRatioMonitor ratioMonitor;
+    private Predicate<String> entryFilter;
+    private ContentDigester digester;
+    private ZipEntry currentEntry;
+    private long entryReadBytes;
 
     public SecuredZipInputStream(InputStream in, int maxZipEntries, long maxUncompressedSize) {
         this(in, StandardCharsets.UTF_8, maxZipEntries, maxUncompressedSize);
     }
 
     public SecuredZipInputStream(InputStream in, Charset charset, int maxZipEntries, long maxUncompressedSize) {
+        this(in, charset, maxZipEntries, maxUncompressedSize, null);
+    }
+
+    /**
+     * @param budget budget shared with other streams, from which the read bytes are drawn until this stream is closed
+     */
+    public SecuredZipInputStream(InputStream in, int maxZipEntries, long maxUncompressedSize, DecompressionBudget budget) {
+        this(in, StandardCharsets.UTF_8, maxZipEntries, maxUncompressedSize, budget);
+    }
+
+    public SecuredZipInputStream(InputStream in, Charset charset, int maxZipEntries, long maxUncompressedSize, DecompressionBudget budget) {
+        this(in, charset, ArchiveLimits.of(maxZipEntries, maxUncompressedSize, budget));
+    }
+
+    public SecuredZipInputStream(InputStream in, ArchiveLimits limits) {
+        this(in, StandardCharsets.UTF_8, limits);
+    }
+
+    public SecuredZipInputStream(InputStream in, Charset charset, ArchiveLimits limits) {
+        this(in, charset, new SecuredInputStream(limits, "zip"), true);
+    }
+
+    /**
+     * Stream charging its entries and bytes to the limits of another stream, e.g. for a nested archive.
+     */
+    SecuredZipInputStream(InputStream in, Charset charset, SecuredInputStream securedStream, boolean ownsSecuredStream) {
+        this(securedStream, ownsSecuredStream, new CountingInputStream(in), charset);
+    }
+
+    private SecuredZipInputStream(SecuredInputStream securedStream, boolean ownsSecuredStream, CountingInputStream in, Charset charset) {
         super(in, charset);
-        securedStream = new SecuredInputStream(maxZipEntries, maxUncompressedSize);
+        this.securedStream = securedStream;
+        this.ownsSecuredStream = ownsSecuredStream;
+        this.countingStream = in;
+        this.ratioMonitor = securedStream.newCompressionRatioMonitor("zip", in::getCount);
+        // the inflater of ZipInputStream is replaced by a pooled one, released on close, before its zlib stream
+        // allocates its window
+        inf.end();
+        inf = ResourcePool.INFLATERS.borrow();
+    }
+
+    private static Inflater endedInflater() {
+        Inflater inflater = new Inflater(true);
+        inflater.end();
+        return inflater;
+    }
+
+    /**
+     * Only returns the entries whose name is accepted by the filter, see {@link ArchiveEntryFilters}. The other entries
+     * are still counted in the entry limit, and their bytes are still inflated to reach the next entry, a zip being read
+     * as a stream, so they are counted in the uncompressed size. Use {@link SecuredZipFile} to jump to the selected
+     * entries of a zip file.
+     *
+     * @param entryFilter the filter of the entry names, null to return all the entries
+     */
+    public void setEntryFilter(Predicate<String> entryFilter) {
+        this.entryFilter = entryFilter;
+    }
+
+    /**
+     * Digests the entries while they are decompressed, see {@link #getEntryDigest()} and {@link #getArchiveDigest()}.
+     * Must be called before reading the first entry.
+     *
+     * @param algorithm a {@link java.security.MessageDigest} algorithm, e.g. {@code SHA-256}, null to stop digesting
+     */
+    public void setDigestAlgorithm(String algorithm) {
+        this.digester = algorithm != null ? new ContentDigester(algorithm) : null;
+    }
+
+    /**
+     * @return the digest of the bytes read from the current entry so far, null if there is no current entry or no
+     * digest algorithm
+     */
+    public byte[] getEntryDigest() {
+        return digester != null ? digester.getEntryDigest() : null;
+    }
+
+    /**
+     * The digest of an archive is the digest of the names and the digests of its entries, in order, so that it does not
+     * depend on the compression. The rest of an entry is decompressed when moving to the next one, so it is digested
+     * even if it was not read. It is complete once {@link #getNextEntry()} returned null.
+     *
+     * @return the digest of the entries returned so far, null if there is no digest algorithm
+     */
+    public byte[] getArchiveDigest() {
+        return digester != null ? digester.getArchiveDigest() : null;
     }
 
     @Override
     public ZipEntry getNextEntry() throws IOException {
         securedStream.incrementAndValidateEntryLimit();
-        return super.getNextEntry();
+        currentEntry = super.getNextEntry();
+        if (digester != null) {
+            // the rest of the previous entry has been read by closeEntry()
+            digester.endEntry();
+        }
+        while (currentEntry != null && entryFilter != null && !entryFilter.test(currentEntry.getName())) {
+            // the skipped entries are still counted and charged, and their compression ratio checked
+            securedStream.incrementAndValidateEntryLimit();
+            ratioMonitor.startEntry();
+            currentEntry = super.getNextEntry();
+        }
+        entryReadBytes = 0;
+        if (currentEntry != null) {
+            securedStream.onEntry();
+            ratioMonitor.startEntry();
+            if (digester != null) {
+                digester.startEntry(currentEntry.getName());
+            }
+        } else {
+            ratioMonitor.endEntry();
+        }
+        return currentEntry;
     }
 
     @Override
     public int read(byte[] b, int off, int len) throws IOException {
-        securedStream.checkBeforeRead(len);
-        int readBytes = super.read(b, off, len);
-        securedStream.incrementAndValidateMaxSize(readBytes);
+        int readBytes = securedStream.read(b, off, len, super::read);
+        if (readBytes > 0) {
+            entryReadBytes += readBytes;
+            if (digester != null) {
+                digester.update(b, off, readBytes);
+            }
+        }
+        ratioMonitor.onRead(readBytes);
         return readBytes;
     }
+
+    @Override
+    public byte[] readNBytes(int len) throws IOException {
+        long remainingEntryBytes = getRemainingEntryBytes();
+        if (remainingEntryBytes < 0 || remainingEntryBytes > len) {
+            return super.readNBytes(len);
+        }
+        return securedStream.readNBytes(this, len, (int) remainingEntryBytes);
+    }
+
+    /**
+     * Reads the rest of the current entry into a pooled direct buffer, see {@link EntryBuffer}. When the size of the
+     * entry is declared in its local header, it is checked against the maximum uncompressed size before anything is
+     * read, and the buffer is allocated once.
+     */
+    public EntryBuffer readEntry() throws IOException {
+        return securedStream.readEntry(this, getRemainingEntryBytes());
+    }
+
+    @Override
+    public long transferTo(OutputStream out) throws IOException {
+        return SecuredInputStream.transferTo(this, out, getRemainingEntryBytes());
+    }
+
+    /**
+     * Skipped bytes are decompressed anyway, so they are counted in the uncompressed size like read bytes.
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        if (n < 0) {
+            throw new IllegalArgumentException("negative skip length");
+        }
+        return SecuredInputStream.skipByReading(this, n);
+    }
+
+    /**
+     * @return the number of bytes left in the current entry if its size is declared in its local header, -1 otherwise.
+     */
+    private long getRemainingEntryBytes() {
+        if (currentEntry == null || currentEntry.getSize() < 0) {
+            return -1;
+        }
+        return Math.max(0, currentEntry.getSize() - entryReadBytes);
+    }
+
+    @Override
+    public void close() throws IOException {
+        Inflater pooledInflater = inf;
+        inf = ENDED_INFLATER;
+        try {
+            super.close();
+        } finally {
+            if (pooledInflater != ENDED_INFLATER) {
+                ResourcePool.INFLATERS.release(pooledInflater);
+            }
+            ratioMonitor.endEntry();
+            if (ownsSecuredStream) {
+                securedStream.close(countingStream.getCount());
+            }
+        }
+    }
 }
@@ -0,0 +1,508 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Writes the files of a directory into a zip archive, in the lexicographic order of their relative paths.
+ * <p>
+ * When the parallelism is greater than 1, entries are deflated ahead by a pool of workers and appended
+ * as raw compressed data in that same order, so the archive does not depend on thread scheduling.
+ * At most twice the parallelism entries are deflated ahead, and the ones bigger than
+ * {@link ZipOptions#getMaxInMemoryEntrySize()} are spilled to a temporary directory.
+ * <p>
+ * Each entry gets its own compression level (see {@link ZipOptions}), entries with
+ * {@link ZipOptions#STORED_LEVEL} being stored as is. Deflaters are borrowed from a shared {@link DeflaterPool}.
+ * <p>
+ * When archiving incrementally, the entries of the previous archive whose file did not change are copied as raw
+ * compressed data, and the files are digested while they are compressed to write the manifest of the new archive.
+ *
+ * @author Thang PHAM <quyet-thang.pham at rte-france.com>
+ */
+final class ZipArchiver {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int SAMPLE_SIZE = 64 * 1024;
+    private static final int MIN_SAMPLE_SIZE = 1024;
+    // a sample which does not deflate below this ratio of its size is not worth deflating
+    private static final double INCOMPRESSIBLE_RATIO = 0.95;
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+        "gz", "tgz", "zip", "jar", "xz", "txz", "bz2", "tbz2", "7z", "zst", "lz4", "png", "jpg", "jpeg", "gif", "webp", "mp4");
+
+    private final ZipOptions options;
+    private final DeflaterPool deflaterPool = DeflaterPool.SHARED;
+
+    ZipArchiver(ZipOptions options) {
+        this.options = options;
+    }
+
+    void archive(Path sourceDirPath, ZipArchiveOutputStream zos) throws IOException {
+        archive(sourceDirPath, zos, null);
+    }
+
+    /**
+     * @param previousZip the previous archive of the directory, null if there is none
+     * @param previousManifest the manifest of the previous archive
+     * @return the manifest entries of the new archive
+     */
+    List<IncrementalZipManifest.Entry> archiveIncrementally(Path sourceDirPath, ZipArchiveOutputStream zos, ZipFile previousZip,
+                                                 IncrementalZipManifest previousManifest) throws IOException {
+        Incremental incremental = new Incremental(previousZip, previousManifest);
+        archive(sourceDirPath, zos, incremental);
+        return incremental.entries;
+    }
+
+    private void archive(Path sourceDirPath, ZipArchiveOutputStream zos, Incremental incremental) throws IOException {
+        long startNanos = System.nanoTime();
+        long startBytesWritten = zos.getBytesWritten();
+        List<DirectoryWalker.WalkedFile> files = DirectoryWalker.walk(sourceDirPath, options.getWalkParallelism());
+        long uncompressedBytes = 0;
+        if (options.getParallelism() == 1) {
+            for (DirectoryWalker.WalkedFile file : files) {
+                BasicFileAttributes attributes = file.attributes();
+                uncompressedBytes += attributes.size();
+                PreparedEntry unchangedEntry = incremental != null ? incremental.unchangedEntry(file.path(), file.name(), attributes) : null;
+                if (unchangedEntry != null) {
+                    unchangedEntry.writeTo(zos);
+                    incremental.add(unchangedEntry);
+                } else {
+                    writeEntry(file.path(), file.name(), attributes, zos, incremental);
+                }
+                flushIfNeeded(zos);
+            }
+        } else {
+            uncompressedBytes = archiveInParallel(files, zos, incremental);
+        }
+        options.getMetricsRecorder().recordWrite("zip", uncompressedBytes, zos.getBytesWritten() - startBytesWritten, files.size(),
+            System.nanoTime() - startNanos);
+    }
+
+    private void writeEntry(Path file, String name, BasicFileAttributes attributes, ZipArchiveOutputStream zos,
+                            Incremental incremental) throws IOException {
+        long time = attributes.lastModifiedTime().toMillis();
+        ZipArchiveEntry zipEntry = new ZipArchiveEntry(name);
+        zipEntry.setTime(time);
+        // a known size lets the zip64 extra field be written upfront when the output is not seekable
+        zipEntry.setSize(attributes.size());
+        int level = resolveLevel(file, name, attributes.size());
+        if (level == ZipOptions.STORED_LEVEL) {
+            zipEntry.setMethod(ZipEntry.STORED);
+            zipEntry.setCrc(crc(file, null));
+        } else {
+            zipEntry.setMethod(ZipEntry.DEFLATED);
+            zos.setLevel(level);
+        }
+        zos.putArchiveEntry(zipEntry);
+        if (incremental != null) {
+            MessageDigest digest = newDigest();
+            try (InputStream is = new DigestInputStream(Files.newInputStream(file), digest)) {
+                is.transferTo(zos);
+            }
+            incremental.entries.add(new IncrementalZipManifest.Entry(name, attributes.size(), time, hash(digest)));
+        } else {
+            Files.copy(file, zos);
+        }
+        zos.closeArchiveEntry();
+    }
+
+    /**
+     * @return the uncompressed size of the written entries
+     */
+    private long archiveInParallel(List<DirectoryWalker.WalkedFile> files, ZipArchiveOutputStream zos, Incremental incremental) throws IOException {
+        Path spillDir = Files.createTempDirectory("powsybl-ws-zip");
+        ExecutorService executor = Executors.newFixedThreadPool(options.getParallelism(),
+            Thread.ofPlatform().name("powsybl-ws-zip-", 0).daemon().factory());
+        Deque<Future<PreparedEntry>> pending = new ArrayDeque<>();
+        long uncompressedBytes = 0;
+        try {
+            Iterator<DirectoryWalker.WalkedFile> fileIterator = files.iterator();
+            while (fileIterator.hasNext() || !pending.isEmpty()) {
+                while (fileIterator.hasNext() && pending.size() < 2 * options.getParallelism()) {
+                    DirectoryWalker.WalkedFile file = fileIterator.next();
+                    pending.add(executor.submit(() -> prepare(file, spillDir, incremental)));
+                }
+                PreparedEntry preparedEntry = await(pending.poll());
+                preparedEntry.writeTo(zos);
+                if (incremental != null) {
+                    incremental.add(preparedEntry);
+                }
+                uncompressedBytes += preparedEntry.size();
+                flushIfNeeded(zos);
+            }
+            return uncompressedBytes;
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+            executor.shutdownNow();
+            awaitTermination(executor);
+            deleteDirectory(spillDir);
+        }
+    }
+
+    private void flushIfNeeded(ZipArchiveOutputStream zos) throws IOException {
+        if (options.isFlushEachEntry()) {
+            zos.flush();
+        }
+    }
+
+    /**
+     * Resolves the compression level of an entry: the level of its extension when configured,
+     * then {@link ZipOptions#STORED_LEVEL} for compressed content in adaptive mode, then the level of its size class.
+     */
+    private int resolveLevel(Path file, String name, long size) throws IOException {
+        OptionalInt extensionLevel = options.getExtensionLevel(name);
+        if (extensionLevel.isPresent()) {
+            return extensionLevel.getAsInt();
+        }
+        if (options.isAdaptive() && (COMPRESSED_EXTENSIONS.contains(ZipOptions.extension(name)) || isIncompressible(file))) {
+            return ZipOptions.STORED_LEVEL;
+        }
+        return options.getLevel(size);
+    }
+
+    private boolean isIncompressible(Path file) throws IOException {
+        byte[] sample;
+        try (InputStream is = Files.newInputStream(file)) {
+            sample = is.readNBytes(SAMPLE_SIZE);
+        }
+        if (sample.length < MIN_SAMPLE_SIZE) {
+            return false;
+        }
+        Deflater deflater = deflaterPool.borrow(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(sample);
+            deflater.finish();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                deflater.deflate(buffer);
+            }
+            return deflater.getBytesWritten() > INCOMPRESSIBLE_RATIO * sample.length;
+        } finally {
+            deflaterPool.release(deflater);
+        }
+    }
+
+    private PreparedEntry prepare(DirectoryWalker.WalkedFile walkedFile, Path spillDir, Incremental incremental) {
+        Path file = walkedFile.path();
+        try {
+            BasicFileAttributes attributes = walkedFile.attributes();
+            String name = walkedFile.name();
+            PreparedEntry unchangedEntry = incremental != null ? incremental.unchangedEntry(file, name, attributes) : null;
+            if (unchangedEntry != null) {
+                return unchangedEntry;
+            }
+            MessageDigest digest = incremental != null ? newDigest() : null;
+            long time = attributes.lastModifiedTime().toMillis();
+            int level = resolveLevel(file, name, attributes.size());
+            if (level == ZipOptions.STORED_LEVEL) {
+                long size = attributes.size();
+                long crc = crc(file, digest);
+                return new PreparedEntry(name, time, ZipEntry.STORED, crc, size, size, new FilePayload(file), hash(digest));
+            }
+            return deflate(file, name, time, level, spillDir, digest);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error occurred while zipping the file: " + file, e);
+        }
+    }
+
+    private PreparedEntry deflate(Path file, String name, long time, int level, Path spillDir, MessageDigest digest) throws IOException {
+        Deflater deflater = deflaterPool.borrow(level);
+        CRC32 crc = new CRC32();
+        SpillingOutputStream payload = new SpillingOutputStream(options.getMaxInMemoryEntrySize(), spillDir);
+        try (InputStream is = Files.newInputStream(file);
+             DeflaterOutputStream dos = new DeflaterOutputStream(payload, deflater, BUFFER_SIZE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int readBytes;
+            while ((readBytes = is.read(buffer)) != -1) {
+                crc.update(buffer, 0, readBytes);
+                if (digest != null) {
+                    digest.update(buffer, 0, readBytes);
+                }
+                dos.write(buffer, 0, readBytes);
+            }
+            dos.finish();
+            return new PreparedEntry(name, time, ZipEntry.DEFLATED, crc.getValue(), deflater.getBytesRead(),
+                deflater.getBytesWritten(), payload, hash(digest));
+        } finally {
+            deflaterPool.release(deflater);
+        }
+    }
+
+    /**
+     * @param digest digest also updated with the content of the file, null if there is none
+     */
+    private static long crc(Path file, MessageDigest digest) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream is = Files.newInputStream(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int readBytes;
+            while ((readBytes = is.read(buffer)) != -1) {
+                crc.update(buffer, 0, readBytes);
+                if (digest != null) {
+                    digest.update(buffer, 0, readBytes);
+                }
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(IncrementalZipManifest.HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hash(MessageDigest digest) {
+        return digest != null ? HexFormat.of().formatHex(digest.digest()) : null;
+    }
+
+    private static PreparedEntry await(Future<PreparedEntry> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while zipping");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    static void awaitTermination(ExecutorService executor) {
+        try {
+            // workers are interrupted and only finish their current read
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static String entryName(Path sourceDirPath, Path file) {
+        return sourceDirPath.relativize(file).toString();
+    }
+
+    static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> pathStream = Files.walk(directory)) {
+            for (Path path : pathStream.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * @param hash the hexadecimal digest of the content for the manifest, null when not archiving incrementally
+     */
+    private record PreparedEntry(String name, long time, int method, long crc, long size, long compressedSize, Payload payload,
+                                 String hash) {
+
+        void writeTo(ZipArchiveOutputStream zos) throws IOException {
+            ZipArchiveEntry zipEntry = new ZipArchiveEntry(name);
+            zipEntry.setMethod(method);
+            zipEntry.setTime(time);
+            zipEntry.setCrc(crc);
+            zipEntry.setSize(size);
+            zipEntry.setCompressedSize(compressedSize);
+            try (InputStream raw = payload.openInputStream()) {
+                zos.addRawArchiveEntry(zipEntry, raw);
+            } finally {
+                payload.delete();
+            }
+        }
+    }
+
+    /**
+     * Raw data of an entry, as it is written in the archive.
+     */
+    private interface Payload {
+        InputStream openInputStream() throws IOException;
+
+        void delete() throws IOException;
+    }
+
+    /**
+     * Raw data of a stored entry, which is the file itself.
+     */
+    private record FilePayload(Path file) implements Payload {
+        @Override
+        public InputStream openInputStream() throws IOException {
+            return Files.newInputStream(file);
+        }
+
+        @Override
+        public void delete() {
+            // the source file is kept
+        }
+    }
+
+    /**
+     * Raw data of an unchanged entry, copied from the previous archive.
+     */
+    private record ZipEntryPayload(ZipFile zipFile, ZipArchiveEntry entry) implements Payload {
+        @Override
+        public InputStream openInputStream() throws IOException {
+            return zipFile.getRawInputStream(entry);
+        }
+
+        @Override
+        public void delete() {
+            // the previous archive is replaced once the new one is written
+        }
+    }
+
+    /**
+     * Previous archive of the directory, and manifest of the new one.
+     */
+    private static final class Incremental {
+        private final ZipFile previousZip;
+        private final IncrementalZipManifest previousManifest;
+        private final List<IncrementalZipManifest.Entry> entries = new ArrayList<>();
+
+        private Incremental(ZipFile previousZip, IncrementalZipManifest previousManifest) {
+            this.previousZip = previousZip;
+            this.previousManifest = previousManifest;
+        }
+
+        /**
+         * A file is unchanged if it has the size of the manifest, and either its last modified time or, when it was
+         * only touched, its digest.
+         *
+         * @return the entry of the previous archive if the file did not change, null otherwise
+         */
+        PreparedEntry unchangedEntry(Path file, String name, BasicFileAttributes attributes) throws IOException {
+            IncrementalZipManifest.Entry manifestEntry = previousManifest.get(name);
+            if (previousZip == null || manifestEntry == null || manifestEntry.size() != attributes.size()) {
+                return null;
+            }
+            ZipArchiveEntry zipEntry = previousZip.getEntry(name);
+            if (zipEntry == null || zipEntry.getSize() != manifestEntry.size()) {
+                return null;
+            }
+            long time = attributes.lastModifiedTime().toMillis();
+            if (time != manifestEntry.lastModifiedTime()) {
+                MessageDigest digest = newDigest();
+                crc(file, digest);
+                if (!manifestEntry.hash().equals(hash(digest))) {
+                    return null;
+                }
+            }
+            return new PreparedEntry(name, time, zipEntry.getMethod(), zipEntry.getCrc(), zipEntry.getSize(),
+                zipEntry.getCompressedSize(), new ZipEntryPayload(previousZip, zipEntry), manifestEntry.hash());
+        }
+
+        void add(PreparedEntry preparedEntry) {
+            entries.add(new IncrementalZipManifest.Entry(preparedEntry.name(), preparedEntry.size(), preparedEntry.time(), preparedEntry.hash()));
+        }
+    }
+
+    /**
+     * Buffers the bytes written to an output stream owned by the caller, which is flushed but not closed on close.
+     */
+    static final class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out, int bufferSize) {
+            super(new BufferedOutputStream(out, bufferSize));
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+
+    /**
+     * Keeps written bytes in memory until a threshold is reached, then moves them to a temporary file.
+     */
+    static final class SpillingOutputStream extends OutputStream implements Payload {
+        private final int threshold;
+        private final Path spillDir;
+        private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        private Path file;
+        private OutputStream fileStream;
+
+        SpillingOutputStream(int threshold, Path spillDir) {
+            this.threshold = threshold;
+            this.spillDir = spillDir;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (fileStream == null && memory.size() + len > threshold) {
+                file = Files.createTempFile(spillDir, "entry", ".deflated");
+                fileStream = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE);
+                memory.writeTo(fileStream);
+                memory = null;
+            }
+            if (fileStream != null) {
+                fileStream.write(b, off, len);
+            } else {
+                memory.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (fileStream != null) {
+                fileStream.close();
+            }
+        }
+
+        @Override
+        public InputStream openInputStream() throws IOException {
+            return file != null ? Files.newInputStream(file) : new ByteArrayInputStream(memory.toByteArray());
+        }
+
+        @Override
+        public void delete() throws IOException {
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
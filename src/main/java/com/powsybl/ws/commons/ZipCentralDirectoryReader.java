@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.ZipException;
+
+/**
+ * Reads the central directory of a zip archive without decompressing anything, checking the declared entry count,
+ * sizes and compression ratios against limits while reading it.
+ * <p>
+ * The entry count is read from the end of central directory record, so an archive with too many entries is rejected
+ * before its central directory is even read. With an entry filter, only the selected entries are counted and checked,
+ * so the central directory is read to find them.
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+final class ZipCentralDirectoryReader {
+
+    // entries smaller than this size are not checked against the compression ratio, small files of repeated bytes being common
+    static final long MIN_SIZE_FOR_RATIO_CHECK = 1024 * 1024;
+
+    private static final int EOCD_SIGNATURE = 0x06054b50;
+    private static final int EOCD_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final int ZIP64_EOCD_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_EOCD_LOCATOR_SIZE = 20;
+    private static final int ZIP64_EOCD_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_EOCD_SIZE = 56;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int MAX_CENTRAL_HEADER_SIZE = CENTRAL_HEADER_SIZE + 3 * 0xFFFF;
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+    private ZipCentralDirectoryReader() {
+    }
+
+    static ZipManifest read(SeekableByteChannel channel, int maxEntries, long maxUncompressedSize, double maxCompressionRatio) throws IOException {
+        return read(channel, maxEntries, maxUncompressedSize, maxCompressionRatio, null);
+    }
+
+    /**
+     * @param entryFilter the filter of the entry names, null to select all the entries
+     */
+    static ZipManifest read(SeekableByteChannel channel, int maxEntries, long maxUncompressedSize, double maxCompressionRatio,
+                            Predicate<String> entryFilter) throws IOException {
+        long archiveSize = channel.size();
+        if (archiveSize < EOCD_SIZE) {
+            throw new ZipException("Archive is not a zip file.");
+        }
+        int tailSize = (int) Math.min(archiveSize, EOCD_SIZE + MAX_COMMENT_SIZE);
+        ByteBuffer tail = readFully(channel, archiveSize - tailSize, tailSize);
+        int eocd = tailSize - EOCD_SIZE;
+        while (eocd >= 0 && tail.getInt(eocd) != EOCD_SIGNATURE) {
+            eocd--;
+        }
+        if (eocd < 0) {
+            throw new ZipException("Archive is not a zip file.");
+        }
+        long entryCount = Short.toUnsignedLong(tail.getShort(eocd + 10));
+        long centralDirectorySize = Integer.toUnsignedLong(tail.getInt(eocd + 12));
+        long centralDirectoryOffset = Integer.toUnsignedLong(tail.getInt(eocd + 16));
+
+        long eocdPosition = archiveSize - tailSize + eocd;
+        if (eocdPosition >= ZIP64_EOCD_LOCATOR_SIZE) {
+            ByteBuffer locator = readFully(channel, eocdPosition - ZIP64_EOCD_LOCATOR_SIZE, ZIP64_EOCD_LOCATOR_SIZE);
+            long zip64EocdPosition = locator.getLong(8);
+            if (locator.getInt(0) == ZIP64_EOCD_LOCATOR_SIGNATURE && zip64EocdPosition >= 0 && zip64EocdPosition + ZIP64_EOCD_SIZE <= eocdPosition) {
+                ByteBuffer zip64Eocd = readFully(channel, zip64EocdPosition, ZIP64_EOCD_SIZE);
+                if (zip64Eocd.getInt(0) != ZIP64_EOCD_SIGNATURE) {
+                    throw new ZipException("Invalid zip64 end of central directory.");
+                }
+                entryCount = zip64Eocd.getLong(32);
+                centralDirectorySize = zip64Eocd.getLong(40);
+                centralDirectoryOffset = zip64Eocd.getLong(48);
+            }
+        }
+
+        if (entryCount < 0 || entryFilter == null && entryCount > maxEntries) {
+            throw new ArchiveLimitException(ArchiveLimitException.Reason.TOO_MANY_ENTRIES);
+        }
+        // a central directory read in memory cannot hold more entries than headers of the minimum size
+        if (entryCount > (Integer.MAX_VALUE - 8) / CENTRAL_HEADER_SIZE
+            || centralDirectorySize < 0 || centralDirectorySize > Math.min(entryCount * MAX_CENTRAL_HEADER_SIZE, Integer.MAX_VALUE - 8)
+            || centralDirectoryOffset < 0 || centralDirectoryOffset + centralDirectorySize > eocdPosition) {
+            throw new ZipException("Invalid central directory.");
+        }
+        ByteBuffer centralDirectory = readFully(channel, centralDirectoryOffset, (int) centralDirectorySize);
+        return new ZipManifest(readEntries(centralDirectory, entryCount, maxEntries, maxUncompressedSize, maxCompressionRatio, entryFilter));
+    }
+
+    private static List<ZipManifest.Entry> readEntries(ByteBuffer centralDirectory, long entryCount, int maxEntries, long maxUncompressedSize,
+                                                       double maxCompressionRatio, Predicate<String> entryFilter) throws ZipException {
+        List<ZipManifest.Entry> entries = new ArrayList<>((int) Math.min(entryCount, maxEntries));
+        long totalSize = 0;
+        int position = 0;
+        for (long i = 0; i < entryCount; i++) {
+            if (position + CENTRAL_HEADER_SIZE > centralDirectory.limit() || centralDirectory.getInt(position) != CENTRAL_HEADER_SIGNATURE) {
+                throw new ZipException("Invalid central directory.");
+            }
+            int method = Short.toUnsignedInt(centralDirectory.getShort(position + 10));
+            long crc = Integer.toUnsignedLong(centralDirectory.getInt(position + 16));
+            long compressedSize = Integer.toUnsignedLong(centralDirectory.getInt(position + 20));
+            long size = Integer.toUnsignedLong(centralDirectory.getInt(position + 24));
+            int nameLength = Short.toUnsignedInt(centralDirectory.getShort(position + 28));
+            int extraLength = Short.toUnsignedInt(centralDirectory.getShort(position + 30));
+            int commentLength = Short.toUnsignedInt(centralDirectory.getShort(position + 32));
+            long localHeaderOffset = Integer.toUnsignedLong(centralDirectory.getInt(position + 42));
+            int extraStart = position + CENTRAL_HEADER_SIZE + nameLength;
+            int nextPosition = extraStart + extraLength + commentLength;
+            if (nextPosition > centralDirectory.limit()) {
+                throw new ZipException("Invalid central directory.");
+            }
+            byte[] name = new byte[nameLength];
+            centralDirectory.get(position + CENTRAL_HEADER_SIZE, name);
+
+            // the actual values of the fields set to the magic value are in the zip64 extra field, in this order
+            int zip64Field = findZip64ExtraField(centralDirectory, extraStart, extraStart + extraLength);
+            if (zip64Field >= 0) {
+                int zip64FieldEnd = zip64Field + Short.toUnsignedInt(centralDirectory.getShort(zip64Field - 2));
+                if (size == ZIP64_MAGIC && zip64Field + 8 <= zip64FieldEnd) {
+                    size = centralDirectory.getLong(zip64Field);
+                    zip64Field += 8;
+                }
+                if (compressedSize == ZIP64_MAGIC && zip64Field + 8 <= zip64FieldEnd) {
+                    compressedSize = centralDirectory.getLong(zip64Field);
+                    zip64Field += 8;
+                }
+                if (localHeaderOffset == ZIP64_MAGIC && zip64Field + 8 <= zip64FieldEnd) {
+                    localHeaderOffset = centralDirectory.getLong(zip64Field);
+                }
+            }
+
+            String entryName = new String(name, StandardCharsets.UTF_8);
+            position = nextPosition;
+            if (entryFilter != null && !entryFilter.test(entryName)) {
+                continue;
+            }
+            if (entries.size() >= maxEntries) {
+                throw new ArchiveLimitException(ArchiveLimitException.Reason.TOO_MANY_ENTRIES);
+            }
+            totalSize += size;
+            if (size < 0 || totalSize < 0 || totalSize > maxUncompressedSize) {
+                throw new ArchiveLimitException(ArchiveLimitException.Reason.TOO_BIG);
+            }
+            if (size >= MIN_SIZE_FOR_RATIO_CHECK && size > maxCompressionRatio * compressedSize) {
+                throw new ArchiveLimitException(ArchiveLimitException.Reason.COMPRESSION_RATIO_TOO_HIGH);
+            }
+            entries.add(new ZipManifest.Entry(entryName, method, compressedSize, size, crc, localHeaderOffset));
+        }
+        return entries;
+    }
+
+    /**
+     * @return the position of the data of the zip64 extra field, or -1 if there is none.
+     */
+    private static int findZip64ExtraField(ByteBuffer centralDirectory, int start, int end) {
+        int position = start;
+        while (position + 4 <= end) {
+            int id = Short.toUnsignedInt(centralDirectory.getShort(position));
+            int length = Short.toUnsignedInt(centralDirectory.getShort(position + 2));
+            if (id == ZIP64_EXTRA_ID && position + 4 + length <= end) {
+                return position + 4;
+            }
+            position += 4 + length;
+        }
+        return -1;
+    }
+
+    private static ByteBuffer readFully(SeekableByteChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        channel.position(position);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Unexpected end of zip archive.");
+            }
+        }
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import java.util.List;
+
+/**
+ * Entries of a zip archive as declared by its central directory, see {@link SecuredZipFile#scan}.
+ * Declared sizes are not trusted by the readers, which still count the bytes they actually decompress.
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+public record ZipManifest(List<Entry> entries) {
+
+    public ZipManifest {
+        entries = List.copyOf(entries);
+    }
+
+    public long getTotalSize() {
+        return entries.stream().mapToLong(Entry::size).sum();
+    }
+
+    public long getTotalCompressedSize() {
+        return entries.stream().mapToLong(Entry::compressedSize).sum();
+    }
+
+    /**
+     * @param name             the name of the entry
+     * @param method           the compression method, e.g. {@link java.util.zip.ZipEntry#DEFLATED}
+     * @param compressedSize   the declared compressed size
+     * @param size             the declared uncompressed size
+     * @param crc              the declared CRC-32 of the uncompressed content
+     * @param localHeaderOffset the offset of the local header of the entry in the archive
+     */
+    public record Entry(String name, int method, long compressedSize, long size, long crc, long localHeaderOffset) {
+
+        public boolean isDirectory() {
+            return name.endsWith("/");
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import java.util.*;
+import java.util.zip.Deflater;
+
+/**
+ * Options of {@link ZipUtils#zip(java.nio.file.Path, java.nio.file.Path, ZipOptions)}
+ * and {@link ZipUtils#zip(java.nio.file.Path, java.io.OutputStream, ZipOptions)}.
+ *
+ * @author Thang PHAM <quyet-thang.pham at rte-france.com>
+ */
+public final class ZipOptions {
+
+    public static final int DEFAULT_MAX_IN_MEMORY_ENTRY_SIZE = 4 * 1024 * 1024;
+    public static final int DEFAULT_OUTPUT_BUFFER_SIZE = 64 * 1024;
+    /**
+     * Compression level storing entries as is (STORED method) instead of deflating them.
+     */
+    public static final int STORED_LEVEL = Deflater.NO_COMPRESSION;
+
+    private final int parallelism;
+    private final int walkParallelism;
+    private final int maxInMemoryEntrySize;
+    private final int outputBufferSize;
+    private final boolean flushEachEntry;
+    private final int level;
+    private final Map<String, Integer> extensionLevels;
+    private final NavigableMap<Long, Integer> sizeLevels;
+    private final boolean adaptive;
+    private final ArchiveMetricsRecorder metricsRecorder;
+
+    private ZipOptions(Builder builder) {
+        this.parallelism = builder.parallelism;
+        this.walkParallelism = builder.walkParallelism;
+        this.maxInMemoryEntrySize = builder.maxInMemoryEntrySize;
+        this.outputBufferSize = builder.outputBufferSize;
+        this.flushEachEntry = builder.flushEachEntry;
+        this.level = builder.level;
+        this.extensionLevels = Map.copyOf(builder.extensionLevels);
+        this.sizeLevels = Collections.unmodifiableNavigableMap(new TreeMap<>(builder.sizeLevels));
+        this.adaptive = builder.adaptive;
+        this.metricsRecorder = builder.metricsRecorder;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the number of worker threads deflating entries, 1 meaning everything is done on the calling thread.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @return the maximum number of concurrent filesystem calls listing the directories and reading the attributes of
+     * the files, on virtual threads, 1 meaning the directory is walked on the calling thread.
+     */
+    public int getWalkParallelism() {
+        return walkParallelism;
+    }
+
+    /**
+     * @return the compressed size above which a deflated entry waiting to be written is spilled to a temporary file.
+     */
+    public int getMaxInMemoryEntrySize() {
+        return maxInMemoryEntrySize;
+    }
+
+    /**
+     * @return the size of the buffer between the archive and an {@link java.io.OutputStream} it is streamed to.
+     */
+    public int getOutputBufferSize() {
+        return outputBufferSize;
+    }
+
+    /**
+     * @return whether the output is flushed after each entry, so that a client receives the archive while it is written.
+     */
+    public boolean isFlushEachEntry() {
+        return flushEachEntry;
+    }
+
+    /**
+     * @return the compression level configured for the extension of an entry, if any.
+     */
+    public OptionalInt getExtensionLevel(String entryName) {
+        Integer extensionLevel = extensionLevels.get(extension(entryName));
+        return extensionLevel != null ? OptionalInt.of(extensionLevel) : OptionalInt.empty();
+    }
+
+    /**
+     * @return the compression level of the biggest size class not greater than the given size, or the default level.
+     */
+    public int getLevel(long size) {
+        Map.Entry<Long, Integer> sizeLevel = sizeLevels.floorEntry(size);
+        return sizeLevel != null ? sizeLevel.getValue() : level;
+    }
+
+    /**
+     * @return whether entries without a level configured for their extension are stored when they look incompressible.
+     */
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * @return the recorder of the statistics of the written archives.
+     */
+    public ArchiveMetricsRecorder getMetricsRecorder() {
+        return metricsRecorder;
+    }
+
+    static String extension(String entryName) {
+        int dotIndex = entryName.lastIndexOf('.');
+        return dotIndex >= 0 ? entryName.substring(dotIndex + 1).toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static void checkLevel(int level) {
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+    }
+
+    public static final class Builder {
+        private int parallelism = 1;
+        private int walkParallelism = 1;
+        private int maxInMemoryEntrySize = DEFAULT_MAX_IN_MEMORY_ENTRY_SIZE;
+        private int outputBufferSize = DEFAULT_OUTPUT_BUFFER_SIZE;
+        private boolean flushEachEntry = false;
+        private int level = Deflater.DEFAULT_COMPRESSION;
+        private final Map<String, Integer> extensionLevels = new HashMap<>();
+        private final Map<Long, Integer> sizeLevels = new HashMap<>();
+        private boolean adaptive = false;
+        private ArchiveMetricsRecorder metricsRecorder = DefaultArchiveMetricsRecorder.INSTANCE;
+
+        private Builder() {
+        }
+
+        public Builder parallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("Parallelism must be strictly positive.");
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Walks the directory with concurrent filesystem calls, e.g. 32 or more on a network filesystem where each call
+         * waits for a round-trip. The entries are still written in the order of their names.
+         */
+        public Builder walkParallelism(int walkParallelism) {
+            if (walkParallelism < 1) {
+                throw new IllegalArgumentException("Walk parallelism must be strictly positive.");
+            }
+            this.walkParallelism = walkParallelism;
+            return this;
+        }
+
+        public Builder maxInMemoryEntrySize(int maxInMemoryEntrySize) {
+            if (maxInMemoryEntrySize < 0) {
+                throw new IllegalArgumentException("Max in memory entry size must be positive.");
+            }
+            this.maxInMemoryEntrySize = maxInMemoryEntrySize;
+            return this;
+        }
+
+        public Builder outputBufferSize(int outputBufferSize) {
+            if (outputBufferSize < 1) {
+                throw new IllegalArgumentException("Output buffer size must be strictly positive.");
+            }
+            this.outputBufferSize = outputBufferSize;
+            return this;
+        }
+
+        public Builder flushEachEntry(boolean flushEachEntry) {
+            this.flushEachEntry = flushEachEntry;
+            return this;
+        }
+
+        /**
+         * Sets the default compression level, from {@link Deflater#DEFAULT_COMPRESSION} to {@link Deflater#BEST_COMPRESSION},
+         * {@link #STORED_LEVEL} storing entries.
+         */
+        public Builder level(int level) {
+            checkLevel(level);
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Sets the compression level of the entries with the given extension (case-insensitive, without the dot).
+         */
+        public Builder level(String extension, int level) {
+            checkLevel(level);
+            extensionLevels.put(extension.toLowerCase(Locale.ROOT), level);
+            return this;
+        }
+
+        /**
+         * Sets the compression level of the entries whose size is at least the given size, up to the next size class.
+         */
+        public Builder levelFromSize(long minSize, int level) {
+            checkLevel(level);
+            sizeLevels.put(minSize, level);
+            return this;
+        }
+
+        /**
+         * Stores entries known to be compressed, or whose first bytes barely deflate, instead of deflating them.
+         */
+        public Builder adaptive(boolean adaptive) {
+            this.adaptive = adaptive;
+            return this;
+        }
+
+        /**
+         * Records the statistics of the written archives with another recorder than the default one, which is the
+         * last {@link MicrometerArchiveMetrics} bound to a registry, e.g. by the auto-configuration, nothing being
+         * recorded without one.
+         */
+        public Builder metricsRecorder(ArchiveMetricsRecorder metricsRecorder) {
+            this.metricsRecorder = Objects.requireNonNull(metricsRecorder, "metricsRecorder");
+            return this;
+        }
+
+        public ZipOptions build() {
+            return new ZipOptions(this);
+        }
+    }
+}
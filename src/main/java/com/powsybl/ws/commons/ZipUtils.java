@@ -7,10 +7,16 @@
 
 package com.powsybl.ws.commons;
 
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -45,4 +51,106 @@ public final class ZipUtils {
             throw new UncheckedIOException("Error occurred while zipping the directory: " + sourceDirPath, e);
         }
     }
+
+    /**
+     * Zips the files of a directory with the given options.
+     * Entries are written in the lexicographic order of their relative paths, with the last modified time
+     * of their file, so zipping the same directory twice with the same options gives the same archive.
+     */
+    public static void zip(Path sourceDirPath, Path outputZipFilePath, ZipOptions options) {
+        if (!Files.isDirectory(sourceDirPath)) {
+            throw new IllegalArgumentException("Provided path is not a directory.");
+        }
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(outputZipFilePath)) {
+            new ZipArchiver(options).archive(sourceDirPath, zos);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error occurred while zipping the directory: " + sourceDirPath, e);
+        }
+    }
+
+    /**
+     * Zips the files of a directory like {@link #zip(Path, Path, ZipOptions)}, reusing the previous archive of the
+     * directory at the same path. A manifest of the archived files (size, last modified time and SHA-256) is written
+     * next to the archive, e.g. {@code data.zip.manifest}, and the entries of the files which did not change since are
+     * copied as raw compressed data from the previous archive, only the new or changed files being compressed.
+     * <p>
+     * The unchanged entries keep the compression level they were written with. The previous archive is replaced once
+     * the new one is complete, without a manifest if the archive is rewritten by other means.
+     */
+    public static void zipIncrementally(Path sourceDirPath, Path outputZipFilePath, ZipOptions options) {
+        if (!Files.isDirectory(sourceDirPath)) {
+            throw new IllegalArgumentException("Provided path is not a directory.");
+        }
+        Path manifestPath = IncrementalZipManifest.manifestPath(outputZipFilePath);
+        Path tmpZipFilePath = null;
+        try {
+            IncrementalZipManifest previousManifest = Files.isRegularFile(outputZipFilePath)
+                ? IncrementalZipManifest.read(manifestPath)
+                : IncrementalZipManifest.EMPTY;
+            Path absoluteOutputPath = outputZipFilePath.toAbsolutePath();
+            tmpZipFilePath = Files.createTempFile(absoluteOutputPath.getParent(), absoluteOutputPath.getFileName().toString(), ".tmp");
+            List<IncrementalZipManifest.Entry> manifestEntries;
+            try (ZipFile previousZip = previousManifest.isEmpty() ? null : ZipFile.builder().setPath(outputZipFilePath).get();
+                 ZipArchiveOutputStream zos = new ZipArchiveOutputStream(tmpZipFilePath)) {
+                manifestEntries = new ZipArchiver(options).archiveIncrementally(sourceDirPath, zos, previousZip, previousManifest);
+            }
+            // a manifest must never describe another archive, so it is removed while the archive is replaced
+            Files.deleteIfExists(manifestPath);
+            Files.move(tmpZipFilePath, outputZipFilePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            IncrementalZipManifest.write(manifestPath, manifestEntries);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error occurred while zipping the directory: " + sourceDirPath, e);
+        } finally {
+            deleteIfExists(tmpZipFilePath);
+        }
+    }
+
+    private static void deleteIfExists(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Streams the zip archive of a directory to an output stream without any temporary file, e.g. in a
+     * {@code StreamingResponseBody}. The directory is listed first, then its entries are written as they are
+     * compressed. The output stream is flushed but not closed.
+     */
+    public static void zip(Path sourceDirPath, OutputStream outputStream) {
+        zip(sourceDirPath, outputStream, ZipOptions.builder().build());
+    }
+
+    /**
+     * Streams the zip archive of a directory to an output stream with the given options.
+     * Use {@link ZipOptions.Builder#flushEachEntry(boolean)} to send each entry as soon as it is written.
+     * The output stream is flushed but not closed.
+     */
+    public static void zip(Path sourceDirPath, OutputStream outputStream, ZipOptions options) {
+        if (!Files.isDirectory(sourceDirPath)) {
+            throw new IllegalArgumentException("Provided path is not a directory.");
+        }
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(
+                new ZipArchiver.NonClosingOutputStream(outputStream, options.getOutputBufferSize()))) {
+            new ZipArchiver(options).archive(sourceDirPath, zos);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error occurred while zipping the directory: " + sourceDirPath, e);
+        }
+    }
+
+    /**
+     * Extracts a zip file into a directory, reading its entries in parallel on all the available processors.
+     * The archive is rejected if it has more than {@code maxZipEntries} entries, if the total of its uncompressed
+     * entries exceeds {@code maxUncompressedSize}, or if an entry would be extracted outside the target directory.
+     */
+    public static void unzip(Path zipFilePath, Path targetDirPath, int maxZipEntries, long maxUncompressedSize) {
+        try (SecuredZipFile securedZipFile = new SecuredZipFile(zipFilePath, maxZipEntries, maxUncompressedSize)) {
+            securedZipFile.extractTo(targetDirPath, Runtime.getRuntime().availableProcessors());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error occurred while unzipping the file: " + zipFilePath, e);
+        }
+    }
 }
@@ -14,6 +14,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 
+import java.util.Objects;
+
 /**
  * @param <E> domain exception type (must extend AbstractPowsyblWsException)
  * @param <C> business error code type (must implement BusinessErrorCode)
@@ -25,9 +27,15 @@ public abstract class AbstractBusinessExceptionHandler<E extends AbstractBusines
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractBusinessExceptionHandler.class);
 
     private final ServerNameProvider serverNameProvider;
+    private final ProblemDetailBudget budget;
 
     protected AbstractBusinessExceptionHandler(ServerNameProvider serverNameProvider) {
+        this(serverNameProvider, ProblemDetailBudget.UNLIMITED);
+    }
+
+    protected AbstractBusinessExceptionHandler(ServerNameProvider serverNameProvider, ProblemDetailBudget budget) {
         this.serverNameProvider = serverNameProvider;
+        this.budget = Objects.requireNonNull(budget);
     }
 
     protected abstract @NonNull C getBusinessCode(E ex);
@@ -42,6 +50,7 @@ public abstract class AbstractBusinessExceptionHandler<E extends AbstractBusines
             .businessErrorValues(exception.getBusinessErrorValues())
             .detail(exception.getMessage())
             .build();
+        problemDetail.limit(budget);
         return ResponseEntity.status(status).body(problemDetail);
     }
 }
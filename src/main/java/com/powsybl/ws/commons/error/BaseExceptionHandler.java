@@ -17,6 +17,8 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.client.HttpStatusCodeException;
 
+import java.util.Objects;
+
 /**
  * @author Joris Mancini <joris.mancini_externe at rte-france.com>
  */
@@ -25,16 +27,27 @@ public class BaseExceptionHandler {
     private static final Logger LOGGER = LoggerFactory.getLogger(BaseExceptionHandler.class);
 
     private final ServerNameProvider serverNameProvider;
+    private final ProblemDetailBudget budget;
 
     public BaseExceptionHandler(ServerNameProvider serverNameProvider) {
+        this(serverNameProvider, ProblemDetailBudget.UNLIMITED);
+    }
+
+    /**
+     * @param budget the payload budget of the problem details returned, see {@link PowsyblWsProblemDetail#limit(ProblemDetailBudget)}
+     */
+    public BaseExceptionHandler(ServerNameProvider serverNameProvider, ProblemDetailBudget budget) {
         this.serverNameProvider = serverNameProvider;
+        this.budget = Objects.requireNonNull(budget);
     }
 
     @ExceptionHandler(HttpStatusCodeException.class)
     public ResponseEntity<PowsyblWsProblemDetail> handleRemoteException(
         HttpStatusCodeException exception, HttpServletRequest request) {
 
-        PowsyblWsProblemDetail problemDetail = ErrorUtils.extractProblemDetail(serverNameProvider.serverName(), exception, request);
+        // the upstream chain and business error values are forwarded as they were received
+        PowsyblWsProblemDetail problemDetail = ErrorUtils.extractForwardedProblemDetail(serverNameProvider.serverName(), exception, request);
+        problemDetail.limit(budget);
         problemDetail.wrap(serverNameProvider.serverName(), request.getMethod(), request.getRequestURI());
         return ResponseEntity.status(exception.getStatusCode()).body(problemDetail);
     }
@@ -48,6 +61,7 @@ public class BaseExceptionHandler {
                 .server(serverNameProvider.serverName())
                 .path(request.getRequestURI())
                 .build();
+            problemDetail.limit(budget);
             problemDetail.wrap(serverNameProvider.serverName(), request.getMethod(), request.getRequestURI());
             return ResponseEntity.status(errorResponse.getStatusCode()).body(problemDetail);
         }
@@ -55,6 +69,7 @@ public class BaseExceptionHandler {
         HttpStatusCode status = HttpStatus.INTERNAL_SERVER_ERROR;
         PowsyblWsProblemDetail problemDetail = ErrorUtils.baseBuilder(serverNameProvider.serverName(), status, request)
             .detail(exception.getMessage()).build();
+        problemDetail.limit(budget);
         return ResponseEntity.status(status).body(problemDetail);
     }
 }
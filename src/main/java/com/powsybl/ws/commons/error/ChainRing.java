@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons.error;
+
+import com.powsybl.ws.commons.error.PowsyblWsProblemDetail.ChainEntry;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Chain of a {@link PowsyblWsProblemDetail}, from the most recent entry to the oldest one, in a ring buffer so that an
+ * entry is added first in constant time. Its length is bounded: when it is full, adding an entry first drops the
+ * oldest one, and adding an entry last, i.e. an entry older than all the other ones, drops it. The dropped entries are
+ * counted.
+ *
+ * @author Mohamed Ben-rejeb {@literal <mohamed.ben-rejeb at rte-france.com>}
+ */
+final class ChainRing extends AbstractList<ChainEntry> implements RandomAccess {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    // the capacity is a power of two, to wrap indexes with a mask
+    private ChainEntry[] entries = new ChainEntry[INITIAL_CAPACITY];
+    private int head;
+    private int size;
+    private int maxLength = Integer.MAX_VALUE;
+    private int droppedEntries;
+
+    int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Sets the maximum length, dropping the oldest entries if there are more.
+     */
+    void setMaxLength(int maxLength) {
+        if (maxLength < 1) {
+            throw new IllegalArgumentException("Max chain length must be strictly positive.");
+        }
+        this.maxLength = maxLength;
+        while (size > maxLength) {
+            removeLast();
+            droppedEntries++;
+        }
+    }
+
+    int getDroppedEntries() {
+        return droppedEntries;
+    }
+
+    void setDroppedEntries(int droppedEntries) {
+        this.droppedEntries = droppedEntries;
+    }
+
+    @Override
+    public ChainEntry get(int index) {
+        Objects.checkIndex(index, size);
+        return entries[slot(index)];
+    }
+
+    @Override
+    public ChainEntry set(int index, ChainEntry entry) {
+        Objects.checkIndex(index, size);
+        int slot = slot(index);
+        ChainEntry previous = entries[slot];
+        entries[slot] = Objects.requireNonNull(entry);
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void addFirst(ChainEntry entry) {
+        Objects.requireNonNull(entry);
+        if (size == maxLength) {
+            removeLast();
+            droppedEntries++;
+        }
+        ensureCapacity();
+        head = (head - 1) & (entries.length - 1);
+        entries[head] = entry;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public void add(int index, ChainEntry entry) {
+        Objects.checkIndex(index, size + 1);
+        Objects.requireNonNull(entry);
+        if (index == 0) {
+            addFirst(entry);
+            return;
+        }
+        if (size == maxLength) {
+            droppedEntries++;
+            if (index == size) {
+                return;
+            }
+            removeLast();
+        }
+        ensureCapacity();
+        for (int i = size; i > index; i--) {
+            entries[slot(i)] = entries[slot(i - 1)];
+        }
+        entries[slot(index)] = entry;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public ChainEntry remove(int index) {
+        Objects.checkIndex(index, size);
+        ChainEntry removed = entries[slot(index)];
+        for (int i = index; i < size - 1; i++) {
+            entries[slot(i)] = entries[slot(i + 1)];
+        }
+        entries[slot(size - 1)] = null;
+        size--;
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(entries, null);
+        head = 0;
+        size = 0;
+        modCount++;
+    }
+
+    private int slot(int index) {
+        return (head + index) & (entries.length - 1);
+    }
+
+    private void ensureCapacity() {
+        if (size < entries.length) {
+            return;
+        }
+        ChainEntry[] newEntries = new ChainEntry[entries.length * 2];
+        for (int i = 0; i < size; i++) {
+            newEntries[i] = entries[slot(i)];
+        }
+        entries = newEntries;
+        head = 0;
+    }
+}
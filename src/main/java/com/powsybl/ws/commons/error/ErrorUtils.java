@@ -7,6 +7,7 @@
 package com.powsybl.ws.commons.error;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.web.client.HttpStatusCodeException;
 
@@ -27,11 +28,44 @@ public final class ErrorUtils {
     public static PowsyblWsProblemDetail extractProblemDetail(
         String serverName, HttpStatusCodeException exception, HttpServletRequest request) {
 
+        PowsyblWsProblemDetail problemDetail = readProblemDetail(exception, false);
+        return problemDetail != null ? problemDetail
+            : baseBuilder(serverName, exception.getStatusCode(), request).detail(exception.getMessage()).build();
+    }
+
+    /**
+     * Same as {@link #extractProblemDetail(String, HttpStatusCodeException, HttpServletRequest)} for a problem detail
+     * which is forwarded after being wrapped, see {@link PowsyblWsProblemDetail#fromForwardedBytes(byte[])}.
+     */
+    public static PowsyblWsProblemDetail extractForwardedProblemDetail(
+        String serverName, HttpStatusCodeException exception, HttpServletRequest request) {
+
+        PowsyblWsProblemDetail problemDetail = readProblemDetail(exception, true);
+        return problemDetail != null ? problemDetail
+            : baseBuilder(serverName, exception.getStatusCode(), request).detail(exception.getMessage()).build();
+    }
+
+    /**
+     * Reads the response body of the exception as a problem detail, if it is one. The body is only parsed if its
+     * content type, size and first byte allow it, see {@link ProblemDetailCodec#isReadable(String, byte[])}, so that the
+     * bodies which are obviously not problem details cost neither a parse attempt nor an exception.
+     *
+     * @param forwarded whether the problem detail is read to be forwarded, see
+     *                  {@link PowsyblWsProblemDetail#fromForwardedBytes(byte[])}
+     * @return the problem detail, null if the body is not one
+     */
+    static PowsyblWsProblemDetail readProblemDetail(HttpStatusCodeException exception, boolean forwarded) {
+        HttpHeaders headers = exception.getResponseHeaders();
+        String contentType = headers != null ? headers.getFirst(HttpHeaders.CONTENT_TYPE) : null;
+        byte[] body = exception.getResponseBodyAsByteArray();
+        if (!ProblemDetailCodec.isReadable(contentType, body)) {
+            return null;
+        }
         try {
-            byte[] body = exception.getResponseBodyAsByteArray();
-            return PowsyblWsProblemDetail.fromBytes(body);
+            return forwarded ? PowsyblWsProblemDetail.fromForwardedBytes(body) : PowsyblWsProblemDetail.fromBytes(body);
         } catch (Exception ignored) {
-            return baseBuilder(serverName, exception.getStatusCode(), request).detail(exception.getMessage()).build();
+            // a JSON object which is not a problem detail, or which breaks the read constraints
+            return null;
         }
     }
 }
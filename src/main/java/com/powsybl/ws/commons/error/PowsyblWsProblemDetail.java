@@ -6,10 +6,9 @@
  */
 package com.powsybl.ws.commons.error;
 
-import com.fasterxml.jackson.annotation.*;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
@@ -21,6 +20,8 @@ import org.springframework.web.ErrorResponse;
 import org.springframework.web.client.HttpStatusCodeException;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.util.*;
@@ -28,20 +29,22 @@ import java.util.*;
 /**
  * @author Mohamed Ben-rejeb {@literal <mohamed.ben-rejeb at rte-france.com>}
  * Shared {@link ProblemDetail} subclass that carries typed metadata used across Powsybl services.
+ * Its JSON is read and written by a streaming codec, see {@link ProblemDetailCodec}, whichever the object mapper.
  */
 @Getter
-@JsonIgnoreProperties({"instance", "type"})
 @EqualsAndHashCode(callSuper = true)
+@JsonSerialize(using = ProblemDetailCodec.Serializer.class)
+@JsonDeserialize(using = ProblemDetailCodec.Deserializer.class)
 public final class PowsyblWsProblemDetail extends ProblemDetail {
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private static final int REPEATED_HOP_WINDOW = 4;
 
     private String server;
     private String businessErrorCode;
-    @JsonFormat(shape = JsonFormat.Shape.STRING)
     private Instant timestamp;
     private String path;
     private String traceId;
-    private final List<ChainEntry> chain;
+    private final ChainRing chain;
 
     /**
      * Custom map that must be rendered as a nested JSON object: "businessErrorValues": { ... }
@@ -51,18 +54,37 @@ public final class PowsyblWsProblemDetail extends ProblemDetail {
      */
     private final Map<String, Object> businessErrorValues = new LinkedHashMap<>();
 
-    @JsonCreator
+    /**
+     * Raw JSON of the business error values and of the chain entries after the first one of a problem detail read by
+     * {@link #fromForwardedBytes(byte[])}, written as is until they are accessed.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    @EqualsAndHashCode.Exclude
+    private RawJson rawBusinessErrorValues;
+    @Getter(AccessLevel.PACKAGE)
+    @EqualsAndHashCode.Exclude
+    private RawJson rawChain;
+
+    /**
+     * What was truncated to fit a {@link ProblemDetailBudget}, here or upstream, see {@link #getTruncation()}, the
+     * number of dropped chain entries being counted by the chain.
+     */
+    @Getter(AccessLevel.NONE)
+    private int truncatedDetailLength;
+    @Getter(AccessLevel.NONE)
+    private final List<String> droppedBusinessErrorValues = new ArrayList<>();
+
     public PowsyblWsProblemDetail(
-        @JsonProperty("title") String title,
-        @JsonProperty("status") Integer status,
-        @JsonProperty("detail") String detail,
-        @JsonProperty("server") String server,
-        @JsonProperty("businessErrorCode") String businessErrorCode,
-        @JsonProperty("businessErrorValues") Map<String, Object> businessErrorValues,
-        @JsonProperty("timestamp") Instant timestamp,
-        @JsonProperty("path") String path,
-        @JsonProperty("traceId") String traceId,
-        @JsonProperty("chain") List<ChainEntry> chain
+        String title,
+        Integer status,
+        String detail,
+        String server,
+        String businessErrorCode,
+        Map<String, Object> businessErrorValues,
+        Instant timestamp,
+        String path,
+        String traceId,
+        List<ChainEntry> chain
     ) {
         super(status != null ? status : HttpStatus.INTERNAL_SERVER_ERROR.value());
         setTitle(title);
@@ -75,23 +97,26 @@ public final class PowsyblWsProblemDetail extends ProblemDetail {
         this.timestamp = timestamp;
         this.path = path;
         this.traceId = traceId;
-        this.chain = chain != null ? new ArrayList<>(chain) : new ArrayList<>();
+        this.chain = new ChainRing();
+        if (chain != null) {
+            this.chain.addAll(chain);
+        }
     }
 
     public PowsyblWsProblemDetail(ProblemDetail problemDetail) {
         super(problemDetail);
         this.timestamp = Instant.now();
-        this.chain = new ArrayList<>();
+        this.chain = new ChainRing();
     }
 
     private PowsyblWsProblemDetail(@NonNull HttpStatusCode status) {
         super(status.value());
-        this.chain = new ArrayList<>();
+        this.chain = new ChainRing();
     }
 
     private PowsyblWsProblemDetail() {
         super();
-        this.chain = new ArrayList<>();
+        this.chain = new ChainRing();
     }
 
     public static Builder builder() {
@@ -107,7 +132,24 @@ public final class PowsyblWsProblemDetail extends ProblemDetail {
     }
 
     public static PowsyblWsProblemDetail fromBytes(byte[] bytes) throws IOException {
-        return OBJECT_MAPPER.readValue(bytes, PowsyblWsProblemDetail.class);
+        return ProblemDetailCodec.read(bytes);
+    }
+
+    /**
+     * Same as {@link #fromBytes(byte[])} for a problem detail forwarded after being wrapped, e.g. an upstream error
+     * body: its business error values and its chain entries, except the first one, are only checked and kept as raw
+     * JSON, so they are written back as is, and only read if they are accessed. The chain entries are still checked
+     * here, a malformed one being rejected like by {@link #fromBytes(byte[])}.
+     */
+    public static PowsyblWsProblemDetail fromForwardedBytes(byte[] bytes) throws IOException {
+        return ProblemDetailCodec.readForwarded(bytes);
+    }
+
+    /**
+     * Reads a problem detail from a stream, e.g. the body of a response, without closing it.
+     */
+    public static PowsyblWsProblemDetail fromInputStream(InputStream in) throws IOException {
+        return ProblemDetailCodec.read(in);
     }
 
     public static PowsyblWsProblemDetail fromException(Exception exception, String serverName) {
@@ -120,11 +162,8 @@ public final class PowsyblWsProblemDetail extends ProblemDetail {
                 .build();
         }
         if (exception instanceof HttpStatusCodeException httpStatusCodeException) {
-            PowsyblWsProblemDetail problemDetail;
-            try {
-                byte[] body = httpStatusCodeException.getResponseBodyAsByteArray();
-                problemDetail = fromBytes(body);
-            } catch (Exception ignored) {
+            PowsyblWsProblemDetail problemDetail = ErrorUtils.readProblemDetail(httpStatusCodeException, false);
+            if (problemDetail == null) {
                 problemDetail = PowsyblWsProblemDetail.builder(httpStatusCodeException.getStatusCode())
                     .server(serverName)
                     .detail(exception.getMessage())
@@ -150,22 +189,158 @@ public final class PowsyblWsProblemDetail extends ProblemDetail {
     @Override
     public String toString() {
         try {
-            return OBJECT_MAPPER.writeValueAsString(this);
-        } catch (JsonProcessingException e) {
+            return ProblemDetailCodec.toString(this);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public byte[] toBytes() {
+        try {
+            return ProblemDetailCodec.toBytes(this);
+        } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
+    /**
+     * Writes this problem detail as JSON to a stream, e.g. the body of a response, without closing it.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        ProblemDetailCodec.write(this, out);
+    }
+
+    public Map<String, Object> getBusinessErrorValues() {
+        if (rawBusinessErrorValues != null) {
+            try {
+                businessErrorValues.putAll(ProblemDetailCodec.readBusinessErrorValues(rawBusinessErrorValues));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rawBusinessErrorValues = null;
+        }
+        return businessErrorValues;
+    }
+
+    public List<ChainEntry> getChain() {
+        if (rawChain != null) {
+            try {
+                chain.addAll(ProblemDetailCodec.readChainEntries(rawChain));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rawChain = null;
+        }
+        return chain;
+    }
+
+    /**
+     * @return the chain entries which are not raw, the first ones.
+     */
+    List<ChainEntry> getChainHead() {
+        return chain;
+    }
+
+    void setRawJson(RawJson rawBusinessErrorValues, RawJson rawChain) {
+        this.rawBusinessErrorValues = rawBusinessErrorValues;
+        this.rawChain = rawChain;
+    }
+
+    /**
+     * @return what was truncated to fit a {@link ProblemDetailBudget}, here or upstream, null if nothing was.
+     */
+    public Truncation getTruncation() {
+        if (chain.getDroppedEntries() == 0 && truncatedDetailLength == 0 && droppedBusinessErrorValues.isEmpty()) {
+            return null;
+        }
+        return new Truncation(chain.getDroppedEntries(), truncatedDetailLength, droppedBusinessErrorValues);
+    }
+
+    void setTruncation(Truncation truncation) {
+        chain.setDroppedEntries(truncation.chainEntries());
+        truncatedDetailLength = truncation.detailLength();
+        droppedBusinessErrorValues.clear();
+        droppedBusinessErrorValues.addAll(truncation.businessErrorValues());
+    }
+
+    /**
+     * Fits this problem detail to a payload budget, the next entries added to the chain being bounded too. What is
+     * truncated is counted in {@link #getTruncation()}.
+     */
+    public void limit(ProblemDetailBudget budget) {
+        if (rawChain != null && chain.size() + rawChain.getLength() > budget.getMaxChainLength()) {
+            getChain();
+        }
+        chain.setMaxLength(budget.getMaxChainLength());
+
+        String detail = getDetail();
+        if (detail != null && detail.length() > budget.getMaxDetailLength()) {
+            int length = budget.getMaxDetailLength();
+            if (length > 0 && Character.isHighSurrogate(detail.charAt(length - 1))) {
+                length--;
+            }
+            truncatedDetailLength += detail.length() - length;
+            setDetail(detail.substring(0, length));
+        }
+
+        if (rawBusinessErrorValues != null && rawBusinessErrorValues.getBytes().length <= budget.getMaxBusinessErrorValuesSize()) {
+            return;
+        }
+        // the values are kept in order while they fit, with the braces and the separators
+        long size = 2;
+        Iterator<Map.Entry<String, Object>> iterator = getBusinessErrorValues().entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Object> entry = iterator.next();
+            long entrySize;
+            try {
+                entrySize = ProblemDetailCodec.sizeOf(entry.getKey(), entry.getValue()) + (size > 2 ? 1 : 0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (size + entrySize > budget.getMaxBusinessErrorValuesSize()) {
+                iterator.remove();
+                droppedBusinessErrorValues.add(entry.getKey());
+            } else {
+                size += entrySize;
+            }
+        }
+    }
+
     public void wrap(String fromServer, String method, String path) {
         String toServer = chain.isEmpty() ? server : chain.getFirst().fromServer();
-        var newChainEntry = new ChainEntry(fromServer, toServer, method, path, Instant.now());
-        chain.addFirst(newChainEntry);
+        addChainEntry(new ChainEntry(fromServer, toServer, method, path, Instant.now()));
     }
 
     public void wrap(String fromServer) {
         String toServer = chain.isEmpty() ? server : chain.getFirst().fromServer();
-        var newChainEntry = new ChainEntry(fromServer, toServer, Instant.now());
-        chain.addFirst(newChainEntry);
+        addChainEntry(new ChainEntry(fromServer, toServer, Instant.now()));
+    }
+
+    /**
+     * Adds an entry first, or, if a chain budget is set and the same hop is one of the {@value #REPEATED_HOP_WINDOW}
+     * latest ones, moves that entry first, counting the hop in it: a server wrapping its own error again, or servers
+     * calling each other back in a loop, e.g. A to B to A to B, then keep one entry per hop of the loop. Without a
+     * budget, the chain is kept as it was before budgets existed, without counted entries which older readers would
+     * reject.
+     */
+    private void addChainEntry(ChainEntry chainEntry) {
+        if (chain.getMaxLength() < Integer.MAX_VALUE) {
+            if (rawChain != null && chain.size() < REPEATED_HOP_WINDOW) {
+                // the latest hops may be raw
+                getChain();
+            }
+            for (int i = 0; i < Math.min(REPEATED_HOP_WINDOW, chain.size()); i++) {
+                if (chain.get(i).isSameHop(chainEntry)) {
+                    chain.addFirst(chain.remove(i).repeated(chainEntry.timestamp()));
+                    return;
+                }
+            }
+        }
+        if (rawChain != null && chain.size() + rawChain.getLength() >= chain.getMaxLength()) {
+            // the oldest entry to drop is raw
+            getChain();
+        }
+        chain.addFirst(chainEntry);
     }
 
     @Getter
@@ -221,27 +396,63 @@ public final class PowsyblWsProblemDetail extends ProblemDetail {
         }
     }
 
-    public record ChainEntry(String fromServer, String toServer, String method, String path, Instant timestamp) {
-        @JsonCreator
+    @JsonSerialize(using = ProblemDetailCodec.ChainEntrySerializer.class)
+    @JsonDeserialize(using = ProblemDetailCodec.ChainEntryDeserializer.class)
+    public record ChainEntry(String fromServer, String toServer, String method, String path, Instant timestamp, int count) {
+        /**
+         * @param timestamp the time of the last hop
+         * @param count     the number of times the hop was made, the entry being moved first at each one
+         */
         public ChainEntry(
-            @JsonProperty("from-server") String fromServer,
-            @JsonProperty("to-server") String toServer,
-            @JsonProperty("method") String method,
-            @JsonProperty("path") String path,
-            @JsonProperty("timestamp") @JsonFormat(shape = JsonFormat.Shape.STRING) Instant timestamp
+            String fromServer,
+            String toServer,
+            String method,
+            String path,
+            Instant timestamp,
+            int count
         ) {
             Objects.requireNonNull(fromServer, "from-server");
             Objects.requireNonNull(toServer, "to-server");
             Objects.requireNonNull(timestamp, "timestamp");
+            if (count < 1) {
+                throw new IllegalArgumentException("Chain entry count must be strictly positive.");
+            }
             this.fromServer = fromServer;
             this.toServer = toServer;
             this.method = method;
             this.path = path;
             this.timestamp = timestamp;
+            this.count = count;
+        }
+
+        public ChainEntry(String fromServer, String toServer, String method, String path, Instant timestamp) {
+            this(fromServer, toServer, method, path, timestamp, 1);
         }
 
         public ChainEntry(String fromServer, String toServer, Instant timestamp) {
             this(fromServer, toServer, null, null, timestamp);
         }
+
+        boolean isSameHop(ChainEntry other) {
+            return fromServer.equals(other.fromServer) && toServer.equals(other.toServer)
+                && Objects.equals(method, other.method) && Objects.equals(path, other.path);
+        }
+
+        ChainEntry repeated(Instant lastTimestamp) {
+            return new ChainEntry(fromServer, toServer, method, path, lastTimestamp, count + 1);
+        }
+    }
+
+    /**
+     * What was truncated to fit a {@link ProblemDetailBudget}.
+     *
+     * @param chainEntries        the number of dropped chain entries, the oldest ones
+     * @param detailLength        the number of characters cut from the end of the detail
+     * @param businessErrorValues the names of the dropped business error values
+     */
+    public record Truncation(int chainEntries, int detailLength, List<String> businessErrorValues) {
+        public Truncation {
+            businessErrorValues = List.copyOf(businessErrorValues);
+        }
     }
 }
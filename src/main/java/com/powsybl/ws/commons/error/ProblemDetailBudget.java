@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons.error;
+
+/**
+ * Payload budget of a {@link PowsyblWsProblemDetail}, so that an error forwarded through a deep or retrying call graph
+ * does not grow at each hop, see {@link PowsyblWsProblemDetail#limit(ProblemDetailBudget)}:
+ * <ul>
+ *     <li>the chain keeps its most recent entries, the older ones being dropped, and the repeated hops added next are
+ *     collapsed into a counted entry if its length is bounded,</li>
+ *     <li>the detail is cut,</li>
+ *     <li>the business error values are kept in order while their JSON fits, the other ones being dropped.</li>
+ * </ul>
+ * What is dropped is counted in {@link PowsyblWsProblemDetail#getTruncation()}.
+ *
+ * @author Mohamed Ben-rejeb {@literal <mohamed.ben-rejeb at rte-france.com>}
+ */
+public final class ProblemDetailBudget {
+
+    public static final ProblemDetailBudget UNLIMITED = builder().build();
+
+    private final int maxChainLength;
+    private final int maxDetailLength;
+    private final long maxBusinessErrorValuesSize;
+
+    private ProblemDetailBudget(Builder builder) {
+        this.maxChainLength = builder.maxChainLength;
+        this.maxDetailLength = builder.maxDetailLength;
+        this.maxBusinessErrorValuesSize = builder.maxBusinessErrorValuesSize;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the maximum number of chain entries, a collapsed entry counting once.
+     */
+    public int getMaxChainLength() {
+        return maxChainLength;
+    }
+
+    /**
+     * @return the maximum number of characters of the detail.
+     */
+    public int getMaxDetailLength() {
+        return maxDetailLength;
+    }
+
+    /**
+     * @return the maximum number of bytes of the JSON of the business error values.
+     */
+    public long getMaxBusinessErrorValuesSize() {
+        return maxBusinessErrorValuesSize;
+    }
+
+    public static final class Builder {
+
+        private int maxChainLength = Integer.MAX_VALUE;
+        private int maxDetailLength = Integer.MAX_VALUE;
+        private long maxBusinessErrorValuesSize = Long.MAX_VALUE;
+
+        private Builder() {
+        }
+
+        public Builder maxChainLength(int maxChainLength) {
+            if (maxChainLength < 1) {
+                throw new IllegalArgumentException("Max chain length must be strictly positive.");
+            }
+            this.maxChainLength = maxChainLength;
+            return this;
+        }
+
+        public Builder maxDetailLength(int maxDetailLength) {
+            if (maxDetailLength < 0) {
+                throw new IllegalArgumentException("Max detail length must be positive.");
+            }
+            this.maxDetailLength = maxDetailLength;
+            return this;
+        }
+
+        public Builder maxBusinessErrorValuesSize(long maxBusinessErrorValuesSize) {
+            if (maxBusinessErrorValuesSize < 2) {
+                throw new IllegalArgumentException("Max business error values size must be at least 2, for an empty object.");
+            }
+            this.maxBusinessErrorValuesSize = maxBusinessErrorValuesSize;
+            return this;
+        }
+
+        public ProblemDetailBudget build() {
+            return new ProblemDetailBudget(this);
+        }
+    }
+}
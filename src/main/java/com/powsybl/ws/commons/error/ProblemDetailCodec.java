@@ -0,0 +1,819 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons.error;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.powsybl.ws.commons.error.PowsyblWsProblemDetail.ChainEntry;
+import com.powsybl.ws.commons.error.PowsyblWsProblemDetail.Truncation;
+import org.springframework.http.ProblemDetail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hand-written Jackson streaming codec of {@link PowsyblWsProblemDetail} and {@link ChainEntry}, producing and
+ * accepting the same JSON as the bean introspection of these classes did, for the error bodies read and written at
+ * each hop of a chain of services. It is registered on both classes, so that any object mapper uses it too.
+ * <p>
+ * By default, unknown properties are rejected, so that a body which is not a problem detail, e.g. the default error
+ * body of Spring Boot, is not taken for one. The properties of the {@link ProblemDetail} are written as a nested
+ * {@code properties} object, null fields included, like a plain object mapper did. An object mapper configured by
+ * Spring, e.g. the one of the HTTP responses, has a mixin for the problem details, so the codec keeps the shape it
+ * gave them: the null and empty fields are omitted and the properties are flattened into the top-level object, from
+ * which they are read back. The business error values are read as untyped JSON values
+ * (maps, lists, strings, numbers, booleans), the values of other types being written through an {@link ObjectMapper}.
+ * The size, the strings and the nesting depth of what is read are bounded, so that a hostile or broken upstream body
+ * cannot make a service spend much time or memory on it.
+ *
+ * @author Mohamed Ben-rejeb {@literal <mohamed.ben-rejeb at rte-france.com>}
+ */
+final class ProblemDetailCodec {
+
+    static final String TITLE = "title";
+    static final String STATUS = "status";
+    static final String DETAIL = "detail";
+    static final String SERVER = "server";
+    static final String BUSINESS_ERROR_CODE = "businessErrorCode";
+    static final String BUSINESS_ERROR_VALUES = "businessErrorValues";
+    static final String TIMESTAMP = "timestamp";
+    static final String PATH = "path";
+    static final String TRACE_ID = "traceId";
+    static final String CHAIN = "chain";
+    static final String PROPERTIES = "properties";
+    static final String FROM_SERVER = "from-server";
+    static final String TO_SERVER = "to-server";
+    static final String METHOD = "method";
+    static final String COUNT = "count";
+    static final String TRUNCATED = "truncated";
+    static final String CHAIN_ENTRIES = "chainEntries";
+    static final String DETAIL_LENGTH = "detailLength";
+
+    private static final SerializedString TITLE_NAME = new SerializedString(TITLE);
+    private static final SerializedString STATUS_NAME = new SerializedString(STATUS);
+    private static final SerializedString DETAIL_NAME = new SerializedString(DETAIL);
+    private static final SerializedString SERVER_NAME = new SerializedString(SERVER);
+    private static final SerializedString BUSINESS_ERROR_CODE_NAME = new SerializedString(BUSINESS_ERROR_CODE);
+    private static final SerializedString BUSINESS_ERROR_VALUES_NAME = new SerializedString(BUSINESS_ERROR_VALUES);
+    private static final SerializedString TIMESTAMP_NAME = new SerializedString(TIMESTAMP);
+    private static final SerializedString PATH_NAME = new SerializedString(PATH);
+    private static final SerializedString TRACE_ID_NAME = new SerializedString(TRACE_ID);
+    private static final SerializedString CHAIN_NAME = new SerializedString(CHAIN);
+    private static final SerializedString PROPERTIES_NAME = new SerializedString(PROPERTIES);
+    private static final SerializedString FROM_SERVER_NAME = new SerializedString(FROM_SERVER);
+    private static final SerializedString TO_SERVER_NAME = new SerializedString(TO_SERVER);
+    private static final SerializedString METHOD_NAME = new SerializedString(METHOD);
+    private static final SerializedString COUNT_NAME = new SerializedString(COUNT);
+    private static final SerializedString TRUNCATED_NAME = new SerializedString(TRUNCATED);
+    private static final SerializedString CHAIN_ENTRIES_NAME = new SerializedString(CHAIN_ENTRIES);
+    private static final SerializedString DETAIL_LENGTH_NAME = new SerializedString(DETAIL_LENGTH);
+
+    // only for the business error values which are not plain JSON values
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    /**
+     * Maximum size in bytes of a problem detail read, which also bounds the length of its strings.
+     */
+    static final int MAX_DOCUMENT_LENGTH = 1024 * 1024;
+
+    /**
+     * Maximum nesting depth of a problem detail read, its business error values being arbitrary JSON values.
+     */
+    static final int MAX_NESTING_DEPTH = 64;
+
+    // the streams are owned by the callers
+    static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+        .disable(StreamReadFeature.AUTO_CLOSE_SOURCE)
+        .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+        .streamReadConstraints(StreamReadConstraints.builder()
+            .maxDocumentLength(MAX_DOCUMENT_LENGTH)
+            .maxStringLength(MAX_DOCUMENT_LENGTH)
+            .maxNestingDepth(MAX_NESTING_DEPTH)
+            .build())
+        .build();
+
+    private static final String JSON_MEDIA_TYPE = "application/json";
+    private static final String APPLICATION_TYPE = "application/";
+    private static final String JSON_SUFFIX = "+json";
+    private static final int UTF8_BOM_LENGTH = 3;
+
+    private ProblemDetailCodec() {
+    }
+
+    /**
+     * Tells, without parsing it, whether a response body may be a problem detail: its content type, if any, is
+     * {@code application/json} or {@code application/*+json}, it is not bigger than {@link #MAX_DOCUMENT_LENGTH} and
+     * its first significant byte opens an object. The bodies which are obviously not problem details, e.g. the HTML
+     * page of a proxy, are thus rejected before a parser is even created.
+     *
+     * @param contentType the raw {@code Content-Type} header, null if there is none
+     */
+    static boolean isReadable(String contentType, byte[] body) {
+        if (body == null || body.length == 0 || body.length > MAX_DOCUMENT_LENGTH || !isJson(contentType)) {
+            return false;
+        }
+        int i = hasUtf8Bom(body) ? UTF8_BOM_LENGTH : 0;
+        while (i < body.length && isWhitespace(body[i])) {
+            i++;
+        }
+        return i < body.length && body[i] == '{';
+    }
+
+    private static boolean isJson(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            return true;
+        }
+        // the parameters, e.g. the charset, do not matter
+        int end = contentType.indexOf(';');
+        String mediaType = (end < 0 ? contentType : contentType.substring(0, end)).trim();
+        return mediaType.equalsIgnoreCase(JSON_MEDIA_TYPE)
+            || mediaType.regionMatches(true, 0, APPLICATION_TYPE, 0, APPLICATION_TYPE.length())
+            && mediaType.regionMatches(true, mediaType.length() - JSON_SUFFIX.length(), JSON_SUFFIX, 0, JSON_SUFFIX.length());
+    }
+
+    private static boolean hasUtf8Bom(byte[] body) {
+        return body.length >= UTF8_BOM_LENGTH && body[0] == (byte) 0xEF && body[1] == (byte) 0xBB && body[2] == (byte) 0xBF;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    static PowsyblWsProblemDetail read(byte[] bytes) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(bytes)) {
+            return read(parser, true);
+        }
+    }
+
+    static PowsyblWsProblemDetail read(InputStream in) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            return read(parser, true);
+        }
+    }
+
+    /**
+     * Reads a problem detail which is going to be forwarded, keeping its business error values and the entries of its
+     * chain after the first one as raw JSON, see {@link RawJson}. The chain entries are checked as they are scanned,
+     * so that a malformed one is rejected here rather than when the chain is accessed.
+     */
+    static PowsyblWsProblemDetail readForwarded(byte[] bytes) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(bytes)) {
+            return read(parser, true, bytes);
+        }
+    }
+
+    /**
+     * Reads a problem detail from the current token of the parser, or from the next one if there is none, which must
+     * start an object.
+     *
+     * @param failOnUnknownProperties whether an unknown property is rejected or skipped
+     */
+    static PowsyblWsProblemDetail read(JsonParser parser, boolean failOnUnknownProperties) throws IOException {
+        return read(parser, failOnUnknownProperties, null, false);
+    }
+
+    private static PowsyblWsProblemDetail read(JsonParser parser, boolean failOnUnknownProperties, byte[] source) throws IOException {
+        return read(parser, failOnUnknownProperties, source, false);
+    }
+
+    /**
+     * @param source       the UTF-8 bytes parsed, to slice the raw values from, null to read them all
+     * @param springShape  whether the unknown fields are read as flattened properties, see {@link #hasSpringShape(MapperConfig)}
+     */
+    private static PowsyblWsProblemDetail read(JsonParser parser, boolean failOnUnknownProperties, byte[] source,
+                                               boolean springShape) throws IOException {
+        JsonToken token = parser.currentToken() != null ? parser.currentToken() : parser.nextToken();
+        if (token == null) {
+            throw MismatchedInputException.from(parser, PowsyblWsProblemDetail.class, "No content to map due to end-of-input");
+        }
+        expect(parser, JsonToken.START_OBJECT);
+        // the byte offsets are unknown if the content is not encoded in UTF-8
+        byte[] rawSource = source != null && parser.currentTokenLocation().getByteOffset() >= 0 ? source : null;
+        String title = null;
+        Integer status = null;
+        String detail = null;
+        String server = null;
+        String businessErrorCode = null;
+        Map<String, Object> businessErrorValues = null;
+        Instant timestamp = null;
+        String path = null;
+        String traceId = null;
+        RawJson rawBusinessErrorValues = null;
+        List<ChainEntry> chain = null;
+        RawJson rawChain = null;
+        Truncation truncation = null;
+        Map<String, Object> properties = null;
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            JsonToken valueToken = parser.nextToken();
+            switch (name) {
+                case TITLE -> title = readString(parser);
+                case STATUS -> status = readStatus(parser);
+                case DETAIL -> detail = readString(parser);
+                case SERVER -> server = readString(parser);
+                case BUSINESS_ERROR_CODE -> businessErrorCode = readString(parser);
+                case BUSINESS_ERROR_VALUES -> {
+                    if (rawSource != null && valueToken == JsonToken.START_OBJECT) {
+                        long start = parser.currentTokenLocation().getByteOffset();
+                        parser.skipChildren();
+                        rawBusinessErrorValues = slice(rawSource, start, parser.currentTokenLocation().getByteOffset() + 1, 1);
+                    } else {
+                        businessErrorValues = readObject(parser);
+                    }
+                }
+                case TIMESTAMP -> timestamp = readInstant(parser);
+                case PATH -> path = readString(parser);
+                case TRACE_ID -> traceId = readString(parser);
+                case CHAIN -> {
+                    if (rawSource != null && valueToken == JsonToken.START_ARRAY) {
+                        chain = new ArrayList<>(1);
+                        rawChain = readChainHead(parser, failOnUnknownProperties, rawSource, chain);
+                    } else {
+                        chain = readChain(parser, failOnUnknownProperties);
+                    }
+                }
+                case TRUNCATED -> truncation = readTruncation(parser);
+                case PROPERTIES -> properties = readObject(parser);
+                case "type", "instance" -> parser.skipChildren();
+                default -> {
+                    if (springShape) {
+                        if (properties == null) {
+                            properties = new LinkedHashMap<>();
+                        }
+                        properties.put(name, readValue(parser));
+                    } else {
+                        skipUnknown(parser, PowsyblWsProblemDetail.class, name, valueToken, failOnUnknownProperties);
+                    }
+                }
+            }
+        }
+        expect(parser, JsonToken.END_OBJECT);
+        PowsyblWsProblemDetail problemDetail = new PowsyblWsProblemDetail(title, status, detail, server, businessErrorCode, businessErrorValues,
+            timestamp, path, traceId, chain);
+        if (properties != null) {
+            problemDetail.setProperties(properties);
+        }
+        if (rawBusinessErrorValues != null || rawChain != null) {
+            problemDetail.setRawJson(rawBusinessErrorValues, rawChain);
+        }
+        if (truncation != null) {
+            problemDetail.setTruncation(truncation);
+        }
+        return problemDetail;
+    }
+
+    /**
+     * Reads the first entry of a chain into the given list, and scans the other ones.
+     *
+     * @return the raw JSON of the entries after the first one, without the brackets of the array, null if there is none
+     */
+    private static RawJson readChainHead(JsonParser parser, boolean failOnUnknownProperties, byte[] source,
+                                         List<ChainEntry> chain) throws IOException {
+        if (parser.nextToken() == JsonToken.END_ARRAY) {
+            return null;
+        }
+        chain.add(readChainEntry(parser, failOnUnknownProperties));
+        if (parser.nextToken() == JsonToken.END_ARRAY) {
+            return null;
+        }
+        long start = parser.currentTokenLocation().getByteOffset();
+        int length = 0;
+        do {
+            scanChainEntry(parser, failOnUnknownProperties);
+            length++;
+        } while (parser.nextToken() != JsonToken.END_ARRAY);
+        return slice(source, start, parser.currentTokenLocation().getByteOffset(), length);
+    }
+
+    /**
+     * Checks a chain entry like {@link #readChainEntry(JsonParser, boolean)} without creating it, so that the raw chain
+     * is read without failure once it is accessed.
+     */
+    private static void scanChainEntry(JsonParser parser, boolean failOnUnknownProperties) throws IOException {
+        expect(parser, JsonToken.START_OBJECT);
+        boolean hasFromServer = false;
+        boolean hasToServer = false;
+        boolean hasTimestamp = false;
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            JsonToken valueToken = parser.nextToken();
+            switch (name) {
+                case FROM_SERVER, "fromServer" -> hasFromServer = readString(parser) != null;
+                case TO_SERVER, "toServer" -> hasToServer = readString(parser) != null;
+                case METHOD, PATH -> readString(parser);
+                case TIMESTAMP -> hasTimestamp = readInstant(parser) != null;
+                case COUNT -> readCount(parser, 1);
+                default -> skipUnknown(parser, ChainEntry.class, name, valueToken, failOnUnknownProperties);
+            }
+        }
+        expect(parser, JsonToken.END_OBJECT);
+        if (!hasFromServer || !hasToServer || !hasTimestamp) {
+            throw MismatchedInputException.from(parser, ChainEntry.class, "Missing from-server, to-server or timestamp");
+        }
+    }
+
+    private static RawJson slice(byte[] source, long start, long end, int length) {
+        return new RawJson(Arrays.copyOfRange(source, (int) start, (int) end), length);
+    }
+
+    /**
+     * Reads raw business error values, see {@link #readForwarded(byte[])}.
+     */
+    static Map<String, Object> readBusinessErrorValues(RawJson rawJson) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(rawJson.getBytes())) {
+            parser.nextToken();
+            return readObject(parser);
+        }
+    }
+
+    /**
+     * Reads raw chain entries, see {@link #readForwarded(byte[])}.
+     */
+    static List<ChainEntry> readChainEntries(RawJson rawJson) throws IOException {
+        byte[] bytes = rawJson.getBytes();
+        byte[] array = new byte[bytes.length + 2];
+        array[0] = '[';
+        System.arraycopy(bytes, 0, array, 1, bytes.length);
+        array[array.length - 1] = ']';
+        try (JsonParser parser = JSON_FACTORY.createParser(array)) {
+            parser.nextToken();
+            return readChain(parser, false);
+        }
+    }
+
+    static ChainEntry readChainEntry(JsonParser parser, boolean failOnUnknownProperties) throws IOException {
+        expect(parser, JsonToken.START_OBJECT);
+        String fromServer = null;
+        String toServer = null;
+        String method = null;
+        String path = null;
+        Instant timestamp = null;
+        int count = 1;
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            JsonToken valueToken = parser.nextToken();
+            switch (name) {
+                // the component names are written by the bean introspection of some Jackson versions
+                case FROM_SERVER, "fromServer" -> fromServer = readString(parser);
+                case TO_SERVER, "toServer" -> toServer = readString(parser);
+                case METHOD -> method = readString(parser);
+                case PATH -> path = readString(parser);
+                case TIMESTAMP -> timestamp = readInstant(parser);
+                case COUNT -> count = readCount(parser, 1);
+                default -> skipUnknown(parser, ChainEntry.class, name, valueToken, failOnUnknownProperties);
+            }
+        }
+        expect(parser, JsonToken.END_OBJECT);
+        if (fromServer == null || toServer == null || timestamp == null) {
+            throw MismatchedInputException.from(parser, ChainEntry.class, "Missing from-server, to-server or timestamp");
+        }
+        return new ChainEntry(fromServer, toServer, method, path, timestamp, count);
+    }
+
+    private static List<ChainEntry> readChain(JsonParser parser, boolean failOnUnknownProperties) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, JsonToken.START_ARRAY);
+        List<ChainEntry> chain = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            chain.add(readChainEntry(parser, failOnUnknownProperties));
+        }
+        return chain;
+    }
+
+    private static void skipUnknown(JsonParser parser, Class<?> type, String name, JsonToken valueToken, boolean failOnUnknownProperties) throws IOException {
+        if (failOnUnknownProperties) {
+            throw MismatchedInputException.from(parser, type, "Unrecognized field \"" + name + "\" (" + valueToken + ")");
+        }
+        parser.skipChildren();
+    }
+
+    private static Truncation readTruncation(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, JsonToken.START_OBJECT);
+        int chainEntries = 0;
+        int detailLength = 0;
+        List<String> businessErrorValues = new ArrayList<>();
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            switch (name) {
+                case CHAIN_ENTRIES -> chainEntries = readCount(parser, 0);
+                case DETAIL_LENGTH -> detailLength = readCount(parser, 0);
+                case BUSINESS_ERROR_VALUES -> {
+                    expect(parser, JsonToken.START_ARRAY);
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        businessErrorValues.add(readString(parser));
+                    }
+                }
+                // written by a later version
+                default -> parser.skipChildren();
+            }
+        }
+        return new Truncation(chainEntries, detailLength, businessErrorValues);
+    }
+
+    private static int readCount(JsonParser parser, int min) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_NUMBER_INT) {
+            throw MismatchedInputException.from(parser, Integer.class, "Expected a count but got " + parser.currentToken());
+        }
+        if (parser.getIntValue() < min) {
+            throw MismatchedInputException.from(parser, Integer.class, "Invalid count: " + parser.getText());
+        }
+        return parser.getIntValue();
+    }
+
+    private static String readString(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!token.isScalarValue()) {
+            throw MismatchedInputException.from(parser, String.class, "Expected a string but got " + token);
+        }
+        return parser.getValueAsString();
+    }
+
+    private static Integer readStatus(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            try {
+                return Integer.valueOf(parser.getText().trim());
+            } catch (NumberFormatException e) {
+                throw MismatchedInputException.from(parser, Integer.class, "Invalid status: " + parser.getText());
+            }
+        }
+        throw MismatchedInputException.from(parser, Integer.class, "Expected a status but got " + token);
+    }
+
+    /**
+     * Reads an ISO-8601 instant, or a number of seconds since the epoch like the Jackson Java time module.
+     */
+    private static Instant readInstant(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        try {
+            return switch (token) {
+                case VALUE_NULL -> null;
+                case VALUE_STRING -> Instant.parse(parser.getText().trim());
+                case VALUE_NUMBER_INT -> Instant.ofEpochSecond(parser.getLongValue());
+                case VALUE_NUMBER_FLOAT -> {
+                    BigDecimal seconds = parser.getDecimalValue();
+                    yield Instant.ofEpochSecond(seconds.longValue(), seconds.remainder(BigDecimal.ONE).movePointRight(9).intValue());
+                }
+                default -> throw MismatchedInputException.from(parser, Instant.class, "Expected an instant but got " + token);
+            };
+        } catch (DateTimeException | ArithmeticException e) {
+            throw MismatchedInputException.from(parser, Instant.class, "Invalid instant: " + e.getMessage());
+        }
+    }
+
+    private static Map<String, Object> readObject(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, JsonToken.START_OBJECT);
+        Map<String, Object> map = new LinkedHashMap<>();
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            map.put(name, readValue(parser));
+        }
+        return map;
+    }
+
+    /**
+     * Reads the value of the current token like an untyped value of an {@link ObjectMapper}.
+     */
+    static Object readValue(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        return switch (token) {
+            case START_OBJECT -> readObject(parser);
+            case START_ARRAY -> {
+                List<Object> list = new ArrayList<>();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    list.add(readValue(parser));
+                }
+                yield list;
+            }
+            case VALUE_STRING -> parser.getText();
+            case VALUE_NUMBER_INT -> parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case VALUE_NULL -> null;
+            case VALUE_EMBEDDED_OBJECT -> parser.getEmbeddedObject();
+            default -> throw MismatchedInputException.from(parser, Object.class, "Unexpected token " + token);
+        };
+    }
+
+    private static void expect(JsonParser parser, JsonToken expectedToken) throws IOException {
+        if (parser.currentToken() != expectedToken) {
+            throw MismatchedInputException.from(parser, PowsyblWsProblemDetail.class,
+                "Expected " + expectedToken + " but got " + parser.currentToken());
+        }
+    }
+
+    static byte[] toBytes(PowsyblWsProblemDetail problemDetail) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        write(problemDetail, bytes);
+        return bytes.toByteArray();
+    }
+
+    static String toString(PowsyblWsProblemDetail problemDetail) throws IOException {
+        StringWriter writer = new StringWriter(512);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            write(problemDetail, generator);
+        }
+        return writer.toString();
+    }
+
+    static void write(PowsyblWsProblemDetail problemDetail, OutputStream out) throws IOException {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            write(problemDetail, generator);
+        }
+    }
+
+    /**
+     * Writes the fields in the order of the annotated creator of the problem detail, null ones included.
+     */
+    static void write(PowsyblWsProblemDetail problemDetail, JsonGenerator generator) throws IOException {
+        write(problemDetail, generator, false);
+    }
+
+    /**
+     * Whether an object mapper has a mixin for the problem details, like the ones configured by Spring, which omits
+     * their null and empty fields and flattens their properties.
+     */
+    static boolean hasSpringShape(MapperConfig<?> config) {
+        return config.findMixInClassFor(ProblemDetail.class) != null;
+    }
+
+    /**
+     * @param springShape whether the null and empty fields are omitted and the properties flattened, see
+     *                    {@link #hasSpringShape(MapperConfig)}
+     */
+    static void write(PowsyblWsProblemDetail problemDetail, JsonGenerator generator, boolean springShape) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, TITLE_NAME, problemDetail.getTitle(), springShape);
+        generator.writeFieldName(STATUS_NAME);
+        generator.writeNumber(problemDetail.getStatus());
+        writeString(generator, DETAIL_NAME, problemDetail.getDetail(), springShape);
+        writeString(generator, SERVER_NAME, problemDetail.getServer(), springShape);
+        writeString(generator, BUSINESS_ERROR_CODE_NAME, problemDetail.getBusinessErrorCode(), springShape);
+        RawJson rawBusinessErrorValues = problemDetail.getRawBusinessErrorValues();
+        if (rawBusinessErrorValues != null) {
+            if (!springShape || !isEmptyObject(rawBusinessErrorValues)) {
+                generator.writeFieldName(BUSINESS_ERROR_VALUES_NAME);
+                generator.writeRawValue(rawBusinessErrorValues);
+            }
+        } else if (!springShape || !problemDetail.getBusinessErrorValues().isEmpty()) {
+            generator.writeFieldName(BUSINESS_ERROR_VALUES_NAME);
+            writeValue(generator, problemDetail.getBusinessErrorValues());
+        }
+        if (!springShape || problemDetail.getTimestamp() != null) {
+            writeInstant(generator, TIMESTAMP_NAME, problemDetail.getTimestamp());
+        }
+        writeString(generator, PATH_NAME, problemDetail.getPath(), springShape);
+        writeString(generator, TRACE_ID_NAME, problemDetail.getTraceId(), springShape);
+        // the entries added since the problem detail was read, followed by the ones it was read with
+        RawJson rawChain = problemDetail.getRawChain();
+        List<ChainEntry> chain = rawChain != null ? problemDetail.getChainHead() : problemDetail.getChain();
+        if (!springShape || rawChain != null || !chain.isEmpty()) {
+            generator.writeFieldName(CHAIN_NAME);
+            generator.writeStartArray();
+            for (ChainEntry chainEntry : chain) {
+                writeChainEntry(chainEntry, generator);
+            }
+            if (rawChain != null) {
+                generator.writeRawValue(rawChain);
+            }
+            generator.writeEndArray();
+        }
+        Truncation truncation = problemDetail.getTruncation();
+        if (truncation != null) {
+            generator.writeFieldName(TRUNCATED_NAME);
+            generator.writeStartObject();
+            generator.writeFieldName(CHAIN_ENTRIES_NAME);
+            generator.writeNumber(truncation.chainEntries());
+            generator.writeFieldName(DETAIL_LENGTH_NAME);
+            generator.writeNumber(truncation.detailLength());
+            generator.writeFieldName(BUSINESS_ERROR_VALUES_NAME);
+            generator.writeStartArray();
+            for (String businessErrorValue : truncation.businessErrorValues()) {
+                generator.writeString(businessErrorValue);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        Map<String, Object> properties = problemDetail.getProperties();
+        if (springShape && properties != null) {
+            for (Map.Entry<String, Object> property : properties.entrySet()) {
+                generator.writeFieldName(property.getKey());
+                writeValue(generator, property.getValue());
+            }
+        } else if (properties != null) {
+            generator.writeFieldName(PROPERTIES_NAME);
+            writeValue(generator, properties);
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * @param rawJson the raw JSON of an object
+     */
+    private static boolean isEmptyObject(RawJson rawJson) {
+        byte[] bytes = rawJson.getBytes();
+        for (int i = 1; i < bytes.length - 1; i++) {
+            if (!isWhitespace(bytes[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static void writeChainEntry(ChainEntry chainEntry, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, FROM_SERVER_NAME, chainEntry.fromServer());
+        writeString(generator, TO_SERVER_NAME, chainEntry.toServer());
+        writeString(generator, METHOD_NAME, chainEntry.method());
+        writeString(generator, PATH_NAME, chainEntry.path());
+        writeInstant(generator, TIMESTAMP_NAME, chainEntry.timestamp());
+        if (chainEntry.count() > 1) {
+            generator.writeFieldName(COUNT_NAME);
+            generator.writeNumber(chainEntry.count());
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * @return the number of bytes of a field and its value in JSON.
+     */
+    static long sizeOf(String name, Object value) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            generator.writeString(name);
+            writeValue(generator, value);
+        }
+        // the separator of the root values, instead of the colon
+        return out.count;
+    }
+
+    private static void writeString(JsonGenerator generator, SerializedString name, String value) throws IOException {
+        generator.writeFieldName(name);
+        generator.writeString(value);
+    }
+
+    /**
+     * @param nonEmpty whether a null or empty value is omitted
+     */
+    private static void writeString(JsonGenerator generator, SerializedString name, String value, boolean nonEmpty) throws IOException {
+        if (!nonEmpty || value != null && !value.isEmpty()) {
+            writeString(generator, name, value);
+        }
+    }
+
+    private static void writeInstant(JsonGenerator generator, SerializedString name, Instant value) throws IOException {
+        generator.writeFieldName(name);
+        generator.writeString(value != null ? value.toString() : null);
+    }
+
+    /**
+     * Writes the plain JSON values without introspection, and the other ones with the object mapper.
+     */
+    static void writeValue(JsonGenerator generator, Object value) throws IOException {
+        switch (value) {
+            case null -> generator.writeNull();
+            case String string -> generator.writeString(string);
+            case Boolean bool -> generator.writeBoolean(bool);
+            case Integer number -> generator.writeNumber(number);
+            case Long number -> generator.writeNumber(number);
+            case Double number -> generator.writeNumber(number);
+            case BigDecimal number -> generator.writeNumber(number);
+            case BigInteger number -> generator.writeNumber(number);
+            case Map<?, ?> map -> {
+                generator.writeStartObject();
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    generator.writeFieldName(String.valueOf(entry.getKey()));
+                    writeValue(generator, entry.getValue());
+                }
+                generator.writeEndObject();
+            }
+            case Collection<?> collection -> {
+                generator.writeStartArray();
+                for (Object element : collection) {
+                    writeValue(generator, element);
+                }
+                generator.writeEndArray();
+            }
+            default -> OBJECT_MAPPER.writeValue(generator, value);
+        }
+    }
+
+    /**
+     * Serializer of the problem details registered by annotation, so that any object mapper uses this codec.
+     */
+    static final class Serializer extends StdSerializer<PowsyblWsProblemDetail> {
+
+        Serializer() {
+            super(PowsyblWsProblemDetail.class);
+        }
+
+        @Override
+        public void serialize(PowsyblWsProblemDetail problemDetail, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            write(problemDetail, generator, hasSpringShape(provider.getConfig()));
+        }
+    }
+
+    static final class Deserializer extends StdDeserializer<PowsyblWsProblemDetail> {
+
+        Deserializer() {
+            super(PowsyblWsProblemDetail.class);
+        }
+
+        @Override
+        public PowsyblWsProblemDetail deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return read(parser, context.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES), null,
+                hasSpringShape(context.getConfig()));
+        }
+    }
+
+    static final class ChainEntrySerializer extends StdSerializer<ChainEntry> {
+
+        ChainEntrySerializer() {
+            super(ChainEntry.class);
+        }
+
+        @Override
+        public void serialize(ChainEntry chainEntry, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            writeChainEntry(chainEntry, generator);
+        }
+    }
+
+    static final class ChainEntryDeserializer extends StdDeserializer<ChainEntry> {
+
+        ChainEntryDeserializer() {
+            super(ChainEntry.class);
+        }
+
+        @Override
+        public ChainEntry deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return readChainEntry(parser, context.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
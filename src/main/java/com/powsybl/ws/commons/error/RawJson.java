@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons.error;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * UTF-8 bytes of a JSON value copied from an upstream body, written as is with
+ * {@link com.fasterxml.jackson.core.JsonGenerator#writeRawValue(SerializableString)}: a generator writing bytes copies
+ * them without decoding them, while a generator writing characters decodes them once. The quoted forms are only
+ * there to fulfill the interface, a raw value never being quoted.
+ *
+ * @author Mohamed Ben-rejeb {@literal <mohamed.ben-rejeb at rte-france.com>}
+ */
+final class RawJson implements SerializableString {
+
+    private final byte[] utf8;
+    private final int length;
+    private String value;
+    private SerializedString quoted;
+
+    /**
+     * @param length the number of values, more than one for the elements of an array without its brackets
+     */
+    RawJson(byte[] utf8, int length) {
+        this.utf8 = utf8;
+        this.length = length;
+    }
+
+    byte[] getBytes() {
+        return utf8;
+    }
+
+    int getLength() {
+        return length;
+    }
+
+    @Override
+    public String getValue() {
+        if (value == null) {
+            value = new String(utf8, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    @Override
+    public int charLength() {
+        return getValue().length();
+    }
+
+    @Override
+    public byte[] asUnquotedUTF8() {
+        return utf8;
+    }
+
+    @Override
+    public int appendUnquotedUTF8(byte[] buffer, int offset) {
+        if (offset + utf8.length > buffer.length) {
+            return -1;
+        }
+        System.arraycopy(utf8, 0, buffer, offset, utf8.length);
+        return utf8.length;
+    }
+
+    @Override
+    public int appendUnquoted(char[] buffer, int offset) {
+        String string = getValue();
+        if (offset + string.length() > buffer.length) {
+            return -1;
+        }
+        string.getChars(0, string.length(), buffer, offset);
+        return string.length();
+    }
+
+    @Override
+    public int writeUnquotedUTF8(OutputStream out) throws IOException {
+        out.write(utf8);
+        return utf8.length;
+    }
+
+    @Override
+    public int putUnquotedUTF8(ByteBuffer buffer) {
+        if (utf8.length > buffer.remaining()) {
+            return -1;
+        }
+        buffer.put(utf8);
+        return utf8.length;
+    }
+
+    @Override
+    public char[] asQuotedChars() {
+        return quoted().asQuotedChars();
+    }
+
+    @Override
+    public byte[] asQuotedUTF8() {
+        return quoted().asQuotedUTF8();
+    }
+
+    @Override
+    public int appendQuotedUTF8(byte[] buffer, int offset) {
+        return quoted().appendQuotedUTF8(buffer, offset);
+    }
+
+    @Override
+    public int appendQuoted(char[] buffer, int offset) {
+        return quoted().appendQuoted(buffer, offset);
+    }
+
+    @Override
+    public int writeQuotedUTF8(OutputStream out) throws IOException {
+        return quoted().writeQuotedUTF8(out);
+    }
+
+    @Override
+    public int putQuotedUTF8(ByteBuffer buffer) throws IOException {
+        return quoted().putQuotedUTF8(buffer);
+    }
+
+    private SerializedString quoted() {
+        if (quoted == null) {
+            quoted = new SerializedString(getValue());
+        }
+        return quoted;
+    }
+
+    @Override
+    public String toString() {
+        return getValue();
+    }
+}
@@ -6,7 +6,10 @@
  */
 package com.powsybl.ws.commons.springboot;
 
+import com.powsybl.ws.commons.MicrometerArchiveMetrics;
 import com.powsybl.ws.commons.error.BaseExceptionHandler;
+import com.powsybl.ws.commons.error.ProblemDetailBudget;
+import com.powsybl.ws.commons.springboot.PowsyblWsCommonProperties.BaseExceptionHandlerProperties;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.catalina.startup.Tomcat;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
@@ -16,6 +19,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplicat
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 
 @Slf4j
@@ -43,6 +47,25 @@ public class PowsyblWsCommonAutoConfiguration {
     @ConditionalOnProperty(prefix = "powsybl-ws.autoconfigure", name = "base-exception-handler.enable", matchIfMissing = true)
     @Bean(name = "powsyblBaseExceptionHandler")
     public BaseExceptionHandler powsyblBaseExceptionHandler() {
-        return new BaseExceptionHandler(() -> appName);
+        BaseExceptionHandlerProperties handlerProperties = properties.getBaseExceptionHandler();
+        if (!handlerProperties.isEnableBudget()) {
+            return new BaseExceptionHandler(() -> appName);
+        }
+        return new BaseExceptionHandler(() -> appName, ProblemDetailBudget.builder()
+            .maxChainLength(handlerProperties.getMaxChainLength())
+            .maxDetailLength(handlerProperties.getMaxDetailLength())
+            .maxBusinessErrorValuesSize(handlerProperties.getMaxBusinessErrorValuesSize())
+            .build());
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    @ConditionalOnProperty(prefix = "powsybl-ws.autoconfigure", name = "archive-metrics.enable", matchIfMissing = true)
+    static class ArchiveMetricsConfiguration {
+
+        @Bean(name = "powsyblArchiveMetrics")
+        public MicrometerArchiveMetrics powsyblArchiveMetrics() {
+            return new MicrometerArchiveMetrics();
+        }
     }
 }
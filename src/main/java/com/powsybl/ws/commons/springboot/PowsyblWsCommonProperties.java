@@ -22,6 +22,11 @@ public class PowsyblWsCommonProperties {
      */
     private BaseExceptionHandlerProperties baseExceptionHandler = new BaseExceptionHandlerProperties();
 
+    /**
+     * Configuration specific of archive metrics (if Micrometer is present).
+     */
+    private ArchiveMetricsProperties archiveMetrics = new ArchiveMetricsProperties();
+
     @Data
     public static class TomcatPowsyblProperties {
         /**
@@ -41,5 +46,34 @@ public class PowsyblWsCommonProperties {
          * Enable PowSyBl autoconfiguration of base exception handler
          */
         private boolean enable = true;
+
+        /**
+         * Fit the errors returned to the maximum sizes below. Off by default, because it writes fields that services
+         * reading these errors with an older version reject.
+         */
+        private boolean enableBudget = false;
+
+        /**
+         * Maximum number of entries of the chain of the errors returned, the oldest ones being dropped.
+         */
+        private int maxChainLength = 32;
+
+        /**
+         * Maximum number of characters of the detail of the errors returned.
+         */
+        private int maxDetailLength = 8192;
+
+        /**
+         * Maximum size in bytes of the JSON of the business error values of the errors returned.
+         */
+        private long maxBusinessErrorValuesSize = 16384;
+    }
+
+    @Data
+    public static class ArchiveMetricsProperties {
+        /**
+         * Enable PowSyBl metrics of the archives read and written
+         */
+        private boolean enable = true;
     }
 }
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+class ArchiveMetricsTest {
+
+    private static final String ZIP = "/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.zip";
+    private static final long ZIP_SIZE = 478169;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MicrometerArchiveMetrics metrics = new MicrometerArchiveMetrics();
+
+    @BeforeEach
+    void setUp() {
+        metrics.bindTo(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        metrics.close();
+    }
+
+    @Test
+    void testReadIsRecorded() throws IOException {
+        // perform test
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream(ZIP), limits(1000, metrics))) {
+            while (zis.getNextEntry() != null) {
+                zis.transferTo(OutputStream.nullOutputStream());
+            }
+        }
+
+        // check
+        assertThat(registry.get("powsybl.ws.archive.bytes.out").tag("format", "zip").tag("operation", "read").counter().count())
+            .isEqualTo(ZIP_SIZE);
+        assertThat(registry.get("powsybl.ws.archive.bytes.in").tag("format", "zip").counter().count()).isPositive();
+        assertThat(registry.get("powsybl.ws.archive.entries").tag("format", "zip").summary().totalAmount()).isEqualTo(10);
+        assertThat(registry.get("powsybl.ws.archive.compression.ratio").tag("scope", "entry").summary().count()).isEqualTo(10);
+        assertThat(registry.get("powsybl.ws.archive.compression.ratio").tag("scope", "archive").summary().max()).isGreaterThan(1);
+        assertThat(registry.get("powsybl.ws.archive.duration").tag("format", "zip").timer().count()).isOne();
+        // the inflater of the stream is back in the pool
+        assertThat(registry.get("powsybl.ws.archive.pool.borrowed").tag("pool", "inflater").functionCounter().count()).isPositive();
+        assertThat(registry.get("powsybl.ws.archive.pool.idle").tag("pool", "inflater").gauge().value()).isPositive();
+    }
+
+    @Test
+    void testRejectionIsRecorded() throws IOException {
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream(ZIP), limits(3, metrics))) {
+            assertThatThrownBy(() -> {
+                while (zis.getNextEntry() != null) {
+                    zis.transferTo(OutputStream.nullOutputStream());
+                }
+            }).isInstanceOf(ArchiveLimitException.class)
+                .hasMessage("Archive has too many entries.")
+                .extracting(e -> ((ArchiveLimitException) e).getReason())
+                .isEqualTo(ArchiveLimitException.Reason.TOO_MANY_ENTRIES);
+        }
+        assertThat(registry.get("powsybl.ws.archive.rejections").tag("reason", "TOO_MANY_ENTRIES").counter().count()).isOne();
+    }
+
+    @Test
+    void testNothingIsRecordedOnceClosed() throws IOException {
+        metrics.close();
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream(ZIP), limits(1000, metrics))) {
+            zis.getNextEntry();
+        }
+        assertThat(registry.getMeters()).isEmpty();
+    }
+
+    @Test
+    void testRecordersAreIndependent() throws IOException {
+        // setup: a second recorder bound to another registry, then closed
+        SimpleMeterRegistry otherRegistry = new SimpleMeterRegistry();
+        MicrometerArchiveMetrics otherMetrics = new MicrometerArchiveMetrics();
+        otherMetrics.bindTo(otherRegistry);
+        otherMetrics.close();
+
+        // perform test
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream(ZIP), limits(3, metrics))) {
+            assertThatThrownBy(() -> {
+                while (zis.getNextEntry() != null) {
+                    zis.transferTo(OutputStream.nullOutputStream());
+                }
+            }).isInstanceOf(ArchiveLimitException.class);
+        }
+        // without a recorder, nothing is recorded once the last bound one, the default one, is closed
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream(ZIP), 3, 1000000000)) {
+            assertThatThrownBy(() -> {
+                while (zis.getNextEntry() != null) {
+                    zis.transferTo(OutputStream.nullOutputStream());
+                }
+            }).isInstanceOf(ArchiveLimitException.class);
+        }
+
+        // check: closing the second recorder did not stop the first one
+        assertThat(registry.get("powsybl.ws.archive.rejections").tag("reason", "TOO_MANY_ENTRIES").counter().count()).isOne();
+        assertThat(otherRegistry.find("powsybl.ws.archive.rejections").counter()).isNull();
+    }
+
+    @Test
+    void testBoundRecorderIsTheDefault() throws IOException {
+        // perform test: without a recorder, then with another one
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream(ZIP), 3, 1000000000)) {
+            assertThatThrownBy(() -> {
+                while (zis.getNextEntry() != null) {
+                    zis.transferTo(OutputStream.nullOutputStream());
+                }
+            }).isInstanceOf(ArchiveLimitException.class);
+        }
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream(ZIP), limits(3, ArchiveMetricsRecorder.NOOP))) {
+            assertThatThrownBy(() -> {
+                while (zis.getNextEntry() != null) {
+                    zis.transferTo(OutputStream.nullOutputStream());
+                }
+            }).isInstanceOf(ArchiveLimitException.class);
+        }
+
+        // check: only the archive without a recorder is recorded by the bound one
+        assertThat(registry.get("powsybl.ws.archive.rejections").tag("reason", "TOO_MANY_ENTRIES").counter().count()).isOne();
+    }
+
+    private static ArchiveLimits limits(int maxEntries, ArchiveMetricsRecorder metricsRecorder) {
+        return ArchiveLimits.builder().maxEntries(maxEntries).maxUncompressedSize(1000000000).metricsRecorder(metricsRecorder).build();
+    }
+}
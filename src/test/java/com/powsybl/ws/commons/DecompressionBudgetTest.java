@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+class DecompressionBudgetTest {
+
+    private static final String ZIP = "/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.zip";
+    private static final String TAR = "/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.tar";
+    private static final long ZIP_SIZE = 478169;
+
+    @Test
+    void testAcquireAndRelease() throws IOException {
+        DecompressionBudget budget = DecompressionBudget.builder().capacity(100).build();
+        assertThat(budget.tryAcquireUpTo(60)).isEqualTo(60);
+        assertThat(budget.tryAcquireUpTo(60)).isEqualTo(40);
+        assertThat(budget.tryAcquireUpTo(60)).isZero();
+        assertThatThrownBy(() -> budget.acquire(1))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Decompression budget is exhausted.");
+        budget.release(100);
+        budget.acquire(100);
+        assertThat(budget.getAvailableBytes()).isZero();
+    }
+
+    @Test
+    void testInvalidCapacity() {
+        DecompressionBudget.Builder builder = DecompressionBudget.builder();
+        assertThatIllegalArgumentException().isThrownBy(() -> builder.capacity(0));
+        assertThatIllegalArgumentException().isThrownBy(builder::build);
+    }
+
+    @Test
+    void testFailFastBudgetSharedByStreams() throws IOException {
+        // setup
+        DecompressionBudget budget = DecompressionBudget.builder().capacity(ZIP_SIZE + 100000).build();
+
+        // perform test
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream(ZIP), 1000, 1000000000, budget)) {
+            assertThat(readZip(zis)).isEqualTo(ZIP_SIZE);
+            assertThat(budget.getAvailableBytes()).isEqualTo(100000);
+            try (SecuredTarInputStream tis = new SecuredTarInputStream(getClass().getResourceAsStream(TAR), 1000, 1000000000, budget)) {
+                assertThatThrownBy(() -> readTar(tis))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Decompression budget is exhausted.");
+            }
+        }
+
+        // check
+        assertThat(budget.getAvailableBytes()).isEqualTo(budget.getCapacity());
+    }
+
+    @Test
+    void testBudgetOfTheExactSize() throws IOException {
+        DecompressionBudget budget = DecompressionBudget.builder().capacity(ZIP_SIZE).build();
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream(ZIP), 1000, 1000000000, budget)) {
+            assertThat(readZip(zis)).isEqualTo(ZIP_SIZE);
+            assertThat(budget.getAvailableBytes()).isZero();
+        }
+        assertThat(budget.getAvailableBytes()).isEqualTo(ZIP_SIZE);
+    }
+
+    @Test
+    void testTimeoutBudgetWaitsForOtherStreams() throws Exception {
+        // setup
+        DecompressionBudget budget = DecompressionBudget.builder().capacity(ZIP_SIZE).timeout(Duration.ofSeconds(10)).build();
+        SecuredZipInputStream first = new SecuredZipInputStream(getClass().getResourceAsStream(ZIP), 1000, 1000000000, budget);
+        readZip(first);
+
+        // perform test
+        CompletableFuture<Long> second = CompletableFuture.supplyAsync(() -> {
+            try (SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream(ZIP), 1000, 1000000000, budget)) {
+                return readZip(zis);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertThat(second).isNotDone();
+        first.close();
+
+        // check
+        assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo(ZIP_SIZE);
+        assertThat(budget.getAvailableBytes()).isEqualTo(ZIP_SIZE);
+    }
+
+    @Test
+    void testTimeout() throws IOException {
+        DecompressionBudget budget = DecompressionBudget.builder().capacity(ZIP_SIZE).timeout(Duration.ofMillis(50)).build();
+        try (SecuredZipInputStream first = new SecuredZipInputStream(getClass().getResourceAsStream(ZIP), 1000, 1000000000, budget);
+             SecuredZipInputStream second = new SecuredZipInputStream(getClass().getResourceAsStream(ZIP), 1000, 1000000000, budget)) {
+            readZip(first);
+            assertThatThrownBy(() -> readZip(second))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Decompression budget is exhausted.");
+        }
+        assertThat(budget.getAvailableBytes()).isEqualTo(ZIP_SIZE);
+    }
+
+    private static long readZip(SecuredZipInputStream zis) throws IOException {
+        long readBytes = 0;
+        while (zis.getNextEntry() != null) {
+            readBytes += zis.transferTo(OutputStream.nullOutputStream());
+        }
+        return readBytes;
+    }
+
+    private static long readTar(SecuredTarInputStream tis) throws IOException {
+        long readBytes = 0;
+        while (tis.getNextEntry() != null) {
+            readBytes += tis.transferTo(OutputStream.nullOutputStream());
+        }
+        return readBytes;
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+class ExtractionCacheTest {
+
+    @Test
+    void testArchiveIsExtractedOnce(@TempDir Path tempDir) throws IOException {
+        // setup
+        Path archive = tempDir.resolve("archive.zip");
+        try (InputStream in = getClass().getResourceAsStream("/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.zip")) {
+            Files.copy(in, archive);
+        }
+        ExtractionCache cache = new ExtractionCache(tempDir.resolve("cache"), 1000);
+        AtomicInteger extractions = new AtomicInteger();
+        ExtractionCache.Extractor extractor = target -> {
+            extractions.incrementAndGet();
+            Files.writeString(target.resolve("file.txt"), "content");
+        };
+
+        // perform test
+        Path directory;
+        try (ExtractionCache.Lease lease = cache.getOrExtract(archive, extractor)) {
+            directory = lease.getDirectory();
+        }
+        try (ExtractionCache.Lease lease = cache.getOrExtract(archive, extractor)) {
+            // check
+            assertThat(lease.getDirectory()).isEqualTo(directory);
+            assertThat(lease.getDirectory().resolve("file.txt")).hasContent("content");
+        }
+        assertThat(extractions).hasValue(1);
+        assertThat(cache.getSize()).isEqualTo(7);
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntriesAreEvicted(@TempDir Path tempDir) throws IOException {
+        // setup
+        ExtractionCache cache = new ExtractionCache(tempDir, 15);
+        ExtractionCache.Extractor extractor = target -> Files.write(target.resolve("file"), new byte[10]);
+
+        // perform test
+        ExtractionCache.Lease leaseA = cache.getOrExtract("a", extractor);
+        ExtractionCache.Lease leaseB = cache.getOrExtract("b", extractor);
+
+        // check
+        // leased entries are kept over the maximum size
+        assertThat(cache.getSize()).isEqualTo(20);
+        leaseA.close();
+        assertThat(cache.contains("a")).isFalse();
+        assertThat(cache.contains("b")).isTrue();
+        assertThat(cache.getSize()).isEqualTo(10);
+        leaseB.close();
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files).containsExactly(tempDir.resolve("b"));
+        }
+
+        // the extracted archives are kept by a new cache
+        assertThat(new ExtractionCache(tempDir, 15).contains("b")).isTrue();
+    }
+
+    @Test
+    void testFailedExtraction(@TempDir Path tempDir) throws IOException {
+        // setup
+        ExtractionCache cache = new ExtractionCache(tempDir, 15);
+
+        // perform test and check
+        assertThatIllegalArgumentException().isThrownBy(() -> cache.getOrExtract("../a", target -> { }));
+        assertThatIOException().isThrownBy(() -> cache.getOrExtract("a", target -> {
+            throw new IOException("Corrupted archive");
+        })).withMessage("Corrupted archive");
+        assertThat(cache.contains("a")).isFalse();
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+}
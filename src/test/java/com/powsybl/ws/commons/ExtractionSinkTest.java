@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+class ExtractionSinkTest {
+
+    @Test
+    void testSmallEntriesAreKeptInMemory(@TempDir Path tempDir) throws IOException {
+        // setup
+        Map<String, byte[]> expectedContents = new HashMap<>();
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream("/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.zip"), 1000, 500000)) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                expectedContents.put(entry.getName(), zis.readAllBytes());
+            }
+        }
+
+        // perform test: entries of more than 64 KiB are spilled, like the ones going over 100 KiB in memory
+        try (ExtractionSink sink = new ExtractionSink(tempDir, 64 * 1024, 100 * 1024);
+             SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream("/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.zip"), 1000, 500000)) {
+            List<ExtractionSink.Entry> entries = new ArrayList<>();
+            ZipEntry zipEntry;
+            while ((zipEntry = zis.getNextEntry()) != null) {
+                entries.add(sink.add(zipEntry.getName(), zis));
+            }
+
+            // check
+            assertThat(entries).hasSize(10);
+            assertThat(entries).filteredOn(ExtractionSink.Entry::isInMemory).hasSize(7);
+            assertThat(sink.getMemorySize()).isLessThanOrEqualTo(100 * 1024);
+            for (ExtractionSink.Entry entry : entries) {
+                try (InputStream is = entry.getInputStream()) {
+                    assertThat(is.readAllBytes()).isEqualTo(expectedContents.get(entry.getName()));
+                }
+            }
+        }
+        try (var files = Files.list(tempDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void testPositionalReads(@TempDir Path tempDir) throws IOException {
+        // setup
+        byte[] content = new byte[300000];
+        new Random(0).nextBytes(content);
+
+        try (ExtractionSink sink = new ExtractionSink(tempDir, 100000, 1000000)) {
+            // perform test: the same content in memory, spilled while read, and spilled from its expected size
+            List<ExtractionSink.Entry> entries = List.of(
+                sink.add("memory", new ByteArrayInputStream(content, 0, 100000)),
+                sink.add("spilled", new ByteArrayInputStream(content)),
+                sink.add("expected", new ByteArrayInputStream(content), content.length));
+
+            // check
+            assertThat(entries).extracting(ExtractionSink.Entry::isInMemory).containsExactly(true, false, false);
+            for (ExtractionSink.Entry entry : entries) {
+                ByteBuffer buffer = ByteBuffer.allocate(100);
+                assertThat(entry.read(buffer, 1000)).isEqualTo(100);
+                assertThat(buffer.array()).isEqualTo(Arrays.copyOfRange(content, 1000, 1100));
+                assertThat(entry.read(ByteBuffer.allocate(100), entry.getSize())).isEqualTo(-1);
+            }
+            assertThat(entries.get(0).getSize()).isEqualTo(100000);
+            assertThat(entries.get(2).getSize()).isEqualTo(content.length);
+
+            entries.get(0).close();
+            assertThat(sink.getMemorySize()).isZero();
+        }
+    }
+
+    @Test
+    void testClosedSink(@TempDir Path tempDir) throws IOException {
+        ExtractionSink sink = new ExtractionSink(tempDir, 100, 1000);
+        ExtractionSink.Entry entry = sink.add("entry", new ByteArrayInputStream(new byte[10]));
+        sink.close();
+        assertThatThrownBy(() -> entry.read(ByteBuffer.allocate(10), 0)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> sink.add("other", InputStream.nullInputStream())).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new ExtractionSink(tempDir, -1, 1000)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
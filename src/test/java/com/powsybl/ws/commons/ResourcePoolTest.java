@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Inflater;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+class ResourcePoolTest {
+
+    @Test
+    void testResourcesAreReused() {
+        // setup
+        List<Inflater> discardedInflaters = new ArrayList<>();
+        ResourcePool<Inflater> pool = new ResourcePool<>("test", 1, () -> new Inflater(true), Inflater::reset, inflater -> {
+            discardedInflaters.add(inflater);
+            inflater.end();
+        });
+
+        // perform test
+        Inflater first = pool.borrow();
+        Inflater second = pool.borrow();
+        pool.release(first);
+        pool.release(second);
+        Inflater reused = pool.borrow();
+
+        // check
+        assertThat(reused).isSameAs(first);
+        assertThat(discardedInflaters).containsExactly(second);
+        assertThat(pool.getBorrowedCount()).isEqualTo(3);
+        assertThat(pool.getCreatedCount()).isEqualTo(2);
+        assertThat(pool.getIdleCount()).isZero();
+        pool.release(reused);
+        assertThat(pool.getIdleCount()).isOne();
+    }
+
+    @Test
+    void testZipStreamsReuseTheInflaters() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            try (SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream("/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.zip"), 1000, 500000)) {
+                while (zis.getNextEntry() != null) {
+                    zis.transferTo(OutputStream.nullOutputStream());
+                }
+            }
+        }
+        long createdCount = ResourcePool.INFLATERS.getCreatedCount();
+
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream("/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.zip"), 1000, 500000)) {
+            while (zis.getNextEntry() != null) {
+                zis.transferTo(OutputStream.nullOutputStream());
+            }
+            // closing twice does not release the inflater twice
+            zis.close();
+        }
+
+        assertThat(ResourcePool.INFLATERS.getCreatedCount()).isEqualTo(createdCount);
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipParameters;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+class SecuredArchiveReaderTest {
+
+    private static final String GRID_ZIP = "/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.zip";
+
+    @Test
+    void testNestedArchives() throws IOException {
+        // setup
+        byte[] archive = createNestedArchive();
+
+        // perform test
+        Map<String, Long> entries;
+        try (SecuredArchiveReader reader = new SecuredArchiveReader(new ByteArrayInputStream(archive), ArchiveFormat.ZIP, 1000, 10000000)) {
+            entries = readEntries(reader);
+        }
+
+        // check
+        assertThat(entries).containsEntry("readme.txt", 6L)
+            .containsEntry("inner.tar.gz/a.txt", 1L)
+            .doesNotContainKey("inner.tar.gz")
+            .doesNotContainKey("inner.tar.gz/grid.zip");
+        assertThat(entries).hasSize(11)
+            .containsEntry("inner.tar.gz/grid.zip/MicroGridTestConfiguration_T4_BE_BB_Complete_v2/20171002T0930Z_BE_EQ_6.xml", 237272L);
+        assertThat(entries.entrySet()).filteredOn(e -> e.getKey().startsWith("inner.tar.gz/grid.zip/"))
+            .extracting(Map.Entry::getValue).doesNotContain(0L).hasSize(9);
+    }
+
+    @Test
+    void testCumulativeLimits() throws IOException {
+        byte[] archive = createNestedArchive();
+
+        // each layer decompresses less than 550000 bytes, but not all of them
+        try (SecuredArchiveReader reader = new SecuredArchiveReader(new ByteArrayInputStream(archive), ArchiveFormat.ZIP, 1000, 550000)) {
+            assertThatThrownBy(() -> readEntries(reader))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Archive size is too big.");
+        }
+
+        try (SecuredArchiveReader reader = new SecuredArchiveReader(new ByteArrayInputStream(archive), ArchiveFormat.ZIP, 12, 10000000)) {
+            assertThatThrownBy(() -> readEntries(reader))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Archive has too many entries.");
+        }
+    }
+
+    @Test
+    void testNestingDepth() throws IOException {
+        byte[] archive = createNestedArchive();
+
+        try (SecuredArchiveReader reader = new SecuredArchiveReader(new ByteArrayInputStream(archive), ArchiveFormat.ZIP, 1000, 10000000, 1, null)) {
+            assertThatThrownBy(() -> readEntries(reader))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Archive nesting is too deep.");
+        }
+
+        try (SecuredArchiveReader reader = new SecuredArchiveReader(new ByteArrayInputStream(archive), ArchiveFormat.ZIP, 1000, 10000000, 0, null)) {
+            assertThat(readEntries(reader)).containsOnlyKeys("readme.txt", "inner.tar.gz");
+        }
+    }
+
+    @Test
+    void testSharedBudgetIsReleasedOnClose() throws IOException {
+        DecompressionBudget budget = DecompressionBudget.builder().capacity(10000000).build();
+        try (SecuredArchiveReader reader = new SecuredArchiveReader(new ByteArrayInputStream(createNestedArchive()), ArchiveFormat.ZIP, 1000, 10000000,
+            SecuredArchiveReader.DEFAULT_MAX_NESTING_DEPTH, budget)) {
+            readEntries(reader);
+            assertThat(budget.getAvailableBytes()).isLessThan(budget.getCapacity());
+        }
+        assertThat(budget.getAvailableBytes()).isEqualTo(budget.getCapacity());
+    }
+
+    @Test
+    void testOpenDetectsTheFormat() throws IOException {
+        // setup
+        byte[] zip = createNestedArchive();
+        ByteArrayOutputStream tarBz2 = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tos = new TarArchiveOutputStream(new BZip2CompressorOutputStream(tarBz2))) {
+            TarArchiveEntry entry = new TarArchiveEntry("nested.zip");
+            entry.setSize(zip.length);
+            tos.putArchiveEntry(entry);
+            tos.write(zip);
+            tos.closeArchiveEntry();
+        }
+        ArchiveLimits limits = ArchiveLimits.builder().maxEntries(1000).maxUncompressedSize(10000000).build();
+
+        // perform test
+        Map<String, Long> zipEntries;
+        Map<String, Long> tarBz2Entries;
+        try (SecuredArchiveReader reader = SecuredArchiveReader.open(new ByteArrayInputStream(zip), limits)) {
+            assertThat(reader.getFormat()).isEqualTo(ArchiveFormat.ZIP);
+            zipEntries = readEntries(reader);
+        }
+        try (SecuredArchiveReader reader = SecuredArchiveReader.open(new ByteArrayInputStream(tarBz2.toByteArray()), limits)) {
+            assertThat(reader.getFormat()).isEqualTo(ArchiveFormat.TAR_BZIP2);
+            tarBz2Entries = readEntries(reader);
+        }
+
+        // check
+        assertThat(zipEntries).hasSize(11).containsEntry("inner.tar.gz/a.txt", 1L);
+        assertThat(tarBz2Entries).hasSize(11).containsEntry("nested.zip/inner.tar.gz/a.txt", 1L);
+    }
+
+    @Test
+    void testOpenSingleCompressedFile() throws IOException {
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        GzipParameters parameters = new GzipParameters();
+        parameters.setFileName("data.xml");
+        try (GzipCompressorOutputStream gos = new GzipCompressorOutputStream(gzip, parameters)) {
+            gos.write(new byte[5000]);
+        }
+
+        try (SecuredArchiveReader reader = SecuredArchiveReader.open(new ByteArrayInputStream(gzip.toByteArray()),
+            ArchiveLimits.builder().maxEntries(1).maxUncompressedSize(5000).build())) {
+            assertThat(reader.getFormat()).isEqualTo(ArchiveFormat.GZIP);
+            assertThat(readEntries(reader)).containsExactly(Map.entry("data.xml", 5000L));
+        }
+
+        try (SecuredArchiveReader reader = SecuredArchiveReader.open(new ByteArrayInputStream(gzip.toByteArray()),
+            ArchiveLimits.builder().maxEntries(1).maxUncompressedSize(4999).build())) {
+            assertThatThrownBy(() -> readEntries(reader))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Archive size is too big.");
+        }
+    }
+
+    @Test
+    void testOpenUnknownFormat() {
+        ArchiveLimits limits = ArchiveLimits.builder().maxEntries(1000).maxUncompressedSize(10000000).build();
+        assertThatIOException()
+            .isThrownBy(() -> SecuredArchiveReader.open(new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8)), limits))
+            .withMessage("Unknown archive format.");
+    }
+
+    /**
+     * @return the size of the content of each entry which is not a directory, by name
+     */
+    private static Map<String, Long> readEntries(SecuredArchiveReader reader) throws IOException {
+        Map<String, Long> entries = new LinkedHashMap<>();
+        SecuredArchiveReader.Entry entry;
+        while ((entry = reader.getNextEntry()) != null) {
+            if (!entry.directory()) {
+                entries.put(entry.getName(), reader.transferTo(OutputStream.nullOutputStream()));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * @return a zip containing readme.txt and inner.tar.gz, the latter containing a.txt and the grid zip as grid.zip
+     */
+    private byte[] createNestedArchive() throws IOException {
+        byte[] gridZip;
+        try (InputStream is = getClass().getResourceAsStream(GRID_ZIP)) {
+            gridZip = is.readAllBytes();
+        }
+        ByteArrayOutputStream tarGz = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tos = new TarArchiveOutputStream(new GzipCompressorOutputStream(tarGz))) {
+            for (Map.Entry<String, byte[]> file : List.of(Map.entry("a.txt", "a".getBytes(StandardCharsets.UTF_8)), Map.entry("grid.zip", gridZip))) {
+                TarArchiveEntry entry = new TarArchiveEntry(file.getKey());
+                entry.setSize(file.getValue().length);
+                tos.putArchiveEntry(entry);
+                tos.write(file.getValue());
+                tos.closeArchiveEntry();
+            }
+        }
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(zip)) {
+            for (Map.Entry<String, byte[]> file : List.of(Map.entry("readme.txt", "readme".getBytes(StandardCharsets.UTF_8)),
+                Map.entry("inner.tar.gz", tarGz.toByteArray()))) {
+                zos.putNextEntry(new ZipEntry(file.getKey()));
+                zos.write(file.getValue());
+                zos.closeEntry();
+            }
+        }
+        return zip.toByteArray();
+    }
+}
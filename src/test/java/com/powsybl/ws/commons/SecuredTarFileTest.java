@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.tar.TarConstants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Etienne Lesot <etienne.lesot at rte-france.com>
+ */
+class SecuredTarFileTest {
+
+    private static final String EQ_ENTRY = "./20171002T0930Z_BE_EQ_6.xml";
+
+    @Test
+    void testLimits() throws Exception {
+        Path tarFile = getTarFile();
+        assertThatThrownBy(() -> new SecuredTarFile(tarFile, 5, 1000000000))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Archive has too many entries.");
+
+        // declared sizes are checked before reading anything
+        assertThatThrownBy(() -> new SecuredTarFile(tarFile, 1000, 900000))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Archive size is too big.");
+
+        try (SecuredTarFile securedTarFile = new SecuredTarFile(tarFile, 1000, 1000000)) {
+            long readBytes = 0;
+            for (SecuredTarFile.Entry entry : securedTarFile.getEntries()) {
+                try (InputStream is = securedTarFile.getInputStream(entry)) {
+                    readBytes += is.readAllBytes().length;
+                }
+            }
+            assertThat(readBytes).isEqualTo(969689);
+        }
+    }
+
+    @Test
+    void testEntryLookup() throws Exception {
+        // setup
+        byte[] expectedContent;
+        try (SecuredTarInputStream tis = new SecuredTarInputStream(Files.newInputStream(getTarFile()), 1000, 1000000)) {
+            TarArchiveEntry entry;
+            do {
+                entry = tis.getNextEntry();
+            } while (!EQ_ENTRY.equals(entry.getName()));
+            expectedContent = tis.readAllBytes();
+        }
+
+        // perform test
+        try (SecuredTarFile securedTarFile = new SecuredTarFile(getTarFile(), 1000, 1000000);
+             InputStream is = securedTarFile.getInputStream(EQ_ENTRY)) {
+
+            // check
+            assertThat(is.readAllBytes()).isEqualTo(expectedContent);
+            assertThat(securedTarFile.getEntry("./")).hasValueSatisfying(entry -> assertThat(entry.directory()).isTrue());
+            assertThat(securedTarFile.getEntry("missing.xml")).isEmpty();
+            assertThatThrownBy(() -> securedTarFile.getInputStream("missing.xml")).isInstanceOf(FileNotFoundException.class);
+        }
+    }
+
+    @Test
+    void testReadEntry() throws Exception {
+        // setup
+        byte[] expectedContent;
+        try (SecuredTarInputStream tis = new SecuredTarInputStream(Files.newInputStream(getTarFile()), 1000, 1000000)) {
+            TarArchiveEntry entry;
+            do {
+                entry = tis.getNextEntry();
+            } while (!EQ_ENTRY.equals(entry.getName()));
+            expectedContent = tis.readAllBytes();
+        }
+
+        // perform test
+        try (SecuredTarFile securedTarFile = new SecuredTarFile(getTarFile(), 1000, 1000000);
+             EntryBuffer entryBuffer = securedTarFile.readEntry(securedTarFile.getEntry(EQ_ENTRY).orElseThrow())) {
+
+            // check
+            ByteBuffer buffer = entryBuffer.getBuffer();
+            assertThat(buffer.isDirect()).isTrue();
+            assertThat(buffer.isReadOnly()).isTrue();
+            byte[] content = new byte[buffer.remaining()];
+            buffer.get(content);
+            assertThat(content).isEqualTo(expectedContent);
+        }
+    }
+
+    @Test
+    void testIndexFile(@TempDir Path tempDir) throws Exception {
+        // setup
+        Path tarFile = tempDir.resolve("archive.tar");
+        Files.copy(getTarFile(), tarFile);
+        Path indexFile = tempDir.resolve("archive.tar.index");
+
+        // perform test
+        try (SecuredTarFile securedTarFile = new SecuredTarFile(tarFile, 1000, 1000000, indexFile)) {
+            assertThat(securedTarFile.getEntries()).hasSize(11);
+        }
+        assertThat(indexFile).exists();
+        // the index is loaded, the limits being checked against it
+        assertThatThrownBy(() -> new SecuredTarFile(tarFile, 5, 1000000, indexFile))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Archive has too many entries.");
+        Files.write(indexFile, new byte[] {1, 2, 3});
+
+        // check that an invalid index is built again
+        try (SecuredTarFile securedTarFile = new SecuredTarFile(tarFile, 1000, 1000000, indexFile);
+             InputStream is = securedTarFile.getInputStream(EQ_ENTRY)) {
+            assertThat(is.readAllBytes()).hasSize(237272);
+        }
+        assertThat(Files.size(indexFile)).isGreaterThan(3);
+    }
+
+    @Test
+    void testLinksCountAsEntries(@TempDir Path tempDir) throws Exception {
+        // setup: a tar of a file and of 5 links to it
+        Path tarFile = tempDir.resolve("links.tar");
+        try (OutputStream os = Files.newOutputStream(tarFile);
+             TarArchiveOutputStream tos = new TarArchiveOutputStream(os)) {
+            TarArchiveEntry file = new TarArchiveEntry("file.txt");
+            file.setSize(1);
+            tos.putArchiveEntry(file);
+            tos.write('a');
+            tos.closeArchiveEntry();
+            for (int i = 0; i < 5; i++) {
+                TarArchiveEntry link = new TarArchiveEntry("link" + i, TarConstants.LF_SYMLINK);
+                link.setLinkName("file.txt");
+                tos.putArchiveEntry(link);
+                tos.closeArchiveEntry();
+            }
+        }
+
+        // perform test and check: the links are not indexed, but they count in the limit
+        assertThatThrownBy(() -> new SecuredTarFile(tarFile, 5, 1000000))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Archive has too many entries.");
+        try (SecuredTarFile securedTarFile = new SecuredTarFile(tarFile, 6, 1000000)) {
+            assertThat(securedTarFile.getEntries()).extracting(SecuredTarFile.Entry::name).containsExactly("file.txt");
+        }
+    }
+
+    @Test
+    void testLongNames(@TempDir Path tempDir) throws Exception {
+        String longName = "dir/" + "x".repeat(150) + "/file.txt";
+        for (int longFileMode : new int[] {TarArchiveOutputStream.LONGFILE_GNU, TarArchiveOutputStream.LONGFILE_POSIX}) {
+            // setup: a long name, given by a header before the one of the entry, between two short ones
+            Path tarFile = tempDir.resolve("long" + longFileMode + ".tar");
+            try (OutputStream os = Files.newOutputStream(tarFile);
+                 TarArchiveOutputStream tos = new TarArchiveOutputStream(os)) {
+                tos.setLongFileMode(longFileMode);
+                for (String name : new String[] {"first.txt", longName, "last.txt"}) {
+                    byte[] content = name.getBytes(StandardCharsets.UTF_8);
+                    TarArchiveEntry entry = new TarArchiveEntry(name);
+                    entry.setSize(content.length);
+                    tos.putArchiveEntry(entry);
+                    tos.write(content);
+                    tos.closeArchiveEntry();
+                }
+            }
+
+            // perform test and check: the extra headers do not count as entries
+            try (SecuredTarFile securedTarFile = new SecuredTarFile(tarFile, 3, 1000000)) {
+                assertThat(securedTarFile.getEntries()).extracting(SecuredTarFile.Entry::name)
+                        .containsExactly("first.txt", longName, "last.txt");
+                for (SecuredTarFile.Entry entry : securedTarFile.getEntries()) {
+                    try (InputStream is = securedTarFile.getInputStream(entry)) {
+                        assertThat(new String(is.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(entry.name());
+                    }
+                }
+            }
+        }
+    }
+
+    private Path getTarFile() throws URISyntaxException {
+        return Path.of(Objects.requireNonNull(getClass().getResource("/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.tar")).toURI());
+    }
+}
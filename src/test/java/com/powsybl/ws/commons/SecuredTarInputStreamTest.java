@@ -8,10 +8,17 @@ package com.powsybl.ws.commons;
 
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -43,6 +50,131 @@ class SecuredTarInputStreamTest {
         }
     }
 
+    @Test
+    void testBulkReadsUpToTheExactLimit() throws IOException {
+        // the limit is the exact size of the entries of the archive
+        try (SecuredTarInputStream tis = new SecuredTarInputStream(getClass().getResourceAsStream("/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.tar"), 1000, 969689)) {
+            assertEquals(969689, readTar(tis));
+        }
+
+        try (SecuredTarInputStream tis = new SecuredTarInputStream(getClass().getResourceAsStream("/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.tar"), 1000, 969689)) {
+            long transferredBytes = 0;
+            while (tis.getNextEntry() != null) {
+                transferredBytes += tis.transferTo(OutputStream.nullOutputStream());
+            }
+            assertEquals(969689, transferredBytes);
+        }
+
+        try (SecuredTarInputStream tooBigSecuredTis = new SecuredTarInputStream(getClass().getResourceAsStream("/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.tar"), 1000, 969688)) {
+            assertTrue(assertThrows(IllegalStateException.class, () -> readTar(tooBigSecuredTis))
+                .getMessage().contains("Archive size is too big."));
+        }
+    }
+
+    @Test
+    void testEntryFilter() throws IOException {
+        // the other entries, among which a nested tar, are counted as entries, but their skipped bytes are not charged
+        try (SecuredTarInputStream tis = new SecuredTarInputStream(getClass().getResourceAsStream("/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.tar"), 12, 247522)) {
+            tis.setEntryFilter(ArchiveEntryFilters.glob("**_EQ_*.xml", "**/*TPBD*"));
+            assertEquals(247522, readTar(tis));
+        }
+
+        try (SecuredTarInputStream tis = new SecuredTarInputStream(getClass().getResourceAsStream("/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.tar"), 12, 247521)) {
+            tis.setEntryFilter(ArchiveEntryFilters.glob("**_EQ_*.xml", "**/*TPBD*"));
+            assertTrue(assertThrows(IllegalStateException.class, () -> readTar(tis))
+                .getMessage().contains("Archive size is too big."));
+        }
+
+        try (SecuredTarInputStream tis = new SecuredTarInputStream(getClass().getResourceAsStream("/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.tar"), 11, 247522)) {
+            tis.setEntryFilter(ArchiveEntryFilters.glob("**_EQ_*.xml", "**/*TPBD*"));
+            assertTrue(assertThrows(IllegalStateException.class, () -> readTar(tis))
+                .getMessage().contains("Archive has too many entries."));
+        }
+    }
+
+    @Test
+    void testFilteredEntryBiggerThanLimit() throws IOException {
+        // setup: a small entry behind an entry bigger than the maximum uncompressed size
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tos = new TarArchiveOutputStream(bos)) {
+            TarArchiveEntry bigEntry = new TarArchiveEntry("big.bin");
+            bigEntry.setSize(1024 * 1024);
+            tos.putArchiveEntry(bigEntry);
+            tos.write(new byte[1024 * 1024]);
+            tos.closeArchiveEntry();
+            TarArchiveEntry smallEntry = new TarArchiveEntry("small.txt");
+            smallEntry.setSize(5);
+            tos.putArchiveEntry(smallEntry);
+            tos.write("small".getBytes(StandardCharsets.UTF_8));
+            tos.closeArchiveEntry();
+        }
+
+        // perform test and check
+        try (SecuredTarInputStream tis = new SecuredTarInputStream(new ByteArrayInputStream(bos.toByteArray()), 10, 1000)) {
+            tis.setEntryFilter("small.txt"::equals);
+            assertEquals("small.txt", tis.getNextEntry().getName());
+            assertEquals("small", new String(tis.readAllBytes(), StandardCharsets.UTF_8));
+            assertNull(tis.getNextEntry());
+        }
+    }
+
+    @Test
+    void testCompressionRatioOfGzipTar() throws IOException {
+        // setup: a tar.gz of an entry of 16 MiB of zeros
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tos = new TarArchiveOutputStream(new GzipCompressorOutputStream(bos))) {
+            TarArchiveEntry entry = new TarArchiveEntry("zeros.bin");
+            entry.setSize(16 * 1024 * 1024);
+            tos.putArchiveEntry(entry);
+            tos.write(new byte[16 * 1024 * 1024]);
+            tos.closeArchiveEntry();
+        }
+        byte[] bomb = bos.toByteArray();
+        ArchiveLimits limits = ArchiveLimits.builder().maxEntries(10).maxUncompressedSize(1000000000).maxEntryCompressionRatio(100).build();
+
+        // perform test and check
+        try (SecuredTarInputStream tis = new SecuredTarInputStream(new GzipCompressorInputStream(new ByteArrayInputStream(bomb)), limits)) {
+            assertTrue(assertThrows(IllegalStateException.class, () -> readTar(tis))
+                .getMessage().contains("Archive entry compression ratio is too high."));
+        }
+
+        // without the compressed count, the ratio is not checked
+        try (SecuredTarInputStream tis = new SecuredTarInputStream(new ByteArrayInputStream(new GzipCompressorInputStream(new ByteArrayInputStream(bomb)).readAllBytes()), limits)) {
+            assertEquals(16 * 1024 * 1024, readTar(tis));
+        }
+    }
+
+    @Test
+    void testSkippedBytesOfGzipTarAreCharged() throws IOException {
+        // setup: a tar.gz of an entry of 16 MiB of zeros followed by an empty entry
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tos = new TarArchiveOutputStream(bos)) {
+            TarArchiveEntry entry = new TarArchiveEntry("zeros.bin");
+            entry.setSize(16 * 1024 * 1024);
+            tos.putArchiveEntry(entry);
+            tos.write(new byte[16 * 1024 * 1024]);
+            tos.closeArchiveEntry();
+            tos.putArchiveEntry(new TarArchiveEntry("empty.txt"));
+            tos.closeArchiveEntry();
+        }
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        try (GzipCompressorOutputStream gos = new GzipCompressorOutputStream(gzip)) {
+            gos.write(bos.toByteArray());
+        }
+
+        // perform test and check: the skipped bytes are decompressed, so they are charged
+        try (SecuredTarInputStream tis = new SecuredTarInputStream(new GzipCompressorInputStream(new ByteArrayInputStream(gzip.toByteArray())), 10, 1000000)) {
+            assertNotNull(tis.getNextEntry());
+            assertTrue(assertThrows(IllegalStateException.class, () -> tis.skip(16 * 1024 * 1024))
+                .getMessage().contains("Archive size is too big."));
+        }
+        try (SecuredTarInputStream tis = new SecuredTarInputStream(new GzipCompressorInputStream(new ByteArrayInputStream(gzip.toByteArray())), 10, 1000000)) {
+            assertNotNull(tis.getNextEntry());
+            assertTrue(assertThrows(IllegalStateException.class, tis::getNextEntry)
+                .getMessage().contains("Archive size is too big."));
+        }
+    }
+
     private static int readTar(TarArchiveInputStream tarArchiveInputStream) throws IOException {
         TarArchiveEntry entry = tarArchiveInputStream.getNextEntry();
         int readBytes = 0;
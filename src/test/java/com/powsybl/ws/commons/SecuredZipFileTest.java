@@ -0,0 +1,344 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+class SecuredZipFileTest {
+
+    private static final String ZIP_NAME = "MicroGridTestConfiguration_T4_BE_BB_Complete_v2";
+
+    @Test
+    void testLimits() throws Exception {
+        Path zipFile = getZipFile();
+        assertThatThrownBy(() -> new SecuredZipFile(zipFile, 3, 1000000000))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Archive has too many entries.");
+
+        // declared sizes are checked before reading anything
+        assertThatThrownBy(() -> new SecuredZipFile(zipFile, 1000, 40000))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Archive size is too big.");
+
+        try (SecuredZipFile okSecuredZipFile = new SecuredZipFile(zipFile, 1000, 500000)) {
+            assertThat(readAll(okSecuredZipFile)).isEqualTo(478169);
+        }
+    }
+
+    @Test
+    void testEntryFilter(@TempDir Path tempDir) throws Exception {
+        Path zipFile = getZipFile();
+        // the limits only apply to the selected entries
+        try (SecuredZipFile securedZipFile = new SecuredZipFile(zipFile, 1, 237272, Double.POSITIVE_INFINITY, ArchiveEntryFilters.glob("**_EQ_*.xml"))) {
+            assertThat(securedZipFile.getManifest().entries()).singleElement()
+                .extracting(ZipManifest.Entry::name).isEqualTo(ZIP_NAME + "/20171002T0930Z_BE_EQ_6.xml");
+            assertThat(securedZipFile.getEntries()).hasSize(1);
+            securedZipFile.extractTo(tempDir, 2);
+        }
+        try (var files = Files.list(tempDir.resolve(ZIP_NAME))) {
+            assertThat(files).singleElement().extracting(file -> file.getFileName().toString()).isEqualTo("20171002T0930Z_BE_EQ_6.xml");
+        }
+    }
+
+    @Test
+    void testParallelExtraction(@TempDir Path tempDir) throws Exception {
+        Path zipFile = getZipFile();
+        Path sequentialDir = tempDir.resolve("sequential");
+        Path parallelDir = tempDir.resolve("parallel");
+        try (SecuredZipFile securedZipFile = new SecuredZipFile(zipFile, 1000, 500000)) {
+            securedZipFile.extractTo(sequentialDir, 1);
+        }
+        try (SecuredZipFile securedZipFile = new SecuredZipFile(zipFile, 1000, 500000)) {
+            securedZipFile.extractTo(parallelDir, 4);
+        }
+
+        Path eqFile = Path.of(ZIP_NAME, "20171002T0930Z_BE_EQ_6.xml");
+        assertThat(parallelDir.resolve(eqFile)).hasSize(237272).hasSameBinaryContentAs(sequentialDir.resolve(eqFile));
+        try (var files = Files.list(parallelDir.resolve(ZIP_NAME))) {
+            assertThat(files).hasSize(9);
+        }
+    }
+
+    @Test
+    void testExtractionLimitWithLyingCentralDirectory(@TempDir Path tempDir) throws Exception {
+        Path zipFile = tempDir.resolve("lying.zip");
+        try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(zipFile))) {
+            for (int i = 0; i < 4; i++) {
+                zos.putNextEntry(new ZipEntry("file" + i));
+                zos.write(new byte[10000]);
+                zos.closeEntry();
+            }
+        }
+        // declare uncompressed sizes of 10 bytes in the central directory
+        byte[] bytes = Files.readAllBytes(zipFile);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < bytes.length - 4; i++) {
+            if (buffer.getInt(i) == 0x02014b50) {
+                buffer.putInt(i + 24, 10);
+            }
+        }
+        Files.write(zipFile, bytes);
+
+        assertThat(SecuredZipFile.scan(zipFile, 10, 1000, 100).getTotalSize()).isEqualTo(40);
+        try (SecuredZipFile securedZipFile = new SecuredZipFile(zipFile, 10, 1000)) {
+            assertThatThrownBy(() -> securedZipFile.extractTo(tempDir.resolve("target"), 4))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Archive size is too big.");
+        }
+    }
+
+    @Test
+    void testSkippedBytesAreCharged(@TempDir Path tempDir) throws Exception {
+        byte[] content = new byte[10000];
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        Path zipFile = tempDir.resolve("lying.zip");
+        try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(zipFile))) {
+            ZipEntry storedEntry = new ZipEntry("stored.bin");
+            storedEntry.setMethod(ZipEntry.STORED);
+            storedEntry.setSize(content.length);
+            storedEntry.setCrc(crc.getValue());
+            zos.putNextEntry(storedEntry);
+            zos.write(content);
+            zos.closeEntry();
+            zos.putNextEntry(new ZipEntry("deflated.bin"));
+            zos.write(content);
+            zos.closeEntry();
+        }
+        // declare uncompressed sizes of 10 bytes in the central directory
+        byte[] bytes = Files.readAllBytes(zipFile);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < bytes.length - 4; i++) {
+            if (buffer.getInt(i) == 0x02014b50) {
+                buffer.putInt(i + 24, 10);
+            }
+        }
+        Files.write(zipFile, bytes);
+
+        for (int i = 0; i < 2; i++) {
+            try (SecuredZipFile securedZipFile = new SecuredZipFile(zipFile, 10, 1000);
+                 InputStream is = securedZipFile.getInputStream(securedZipFile.getEntries().get(i))) {
+                assertThatThrownBy(() -> is.skip(Long.MAX_VALUE))
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessage("Archive size is too big.");
+            }
+        }
+    }
+
+    @Test
+    void testReadEntry(@TempDir Path tempDir) throws Exception {
+        // setup: the same random content stored and deflated
+        byte[] content = new byte[2 * EntryBuffer.MIN_MAPPED_SIZE];
+        new Random(0).nextBytes(content);
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        Path zipFile = tempDir.resolve("entries.zip");
+        try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(zipFile))) {
+            ZipEntry storedEntry = new ZipEntry("stored.bin");
+            storedEntry.setMethod(ZipEntry.STORED);
+            storedEntry.setSize(content.length);
+            storedEntry.setCrc(crc.getValue());
+            zos.putNextEntry(storedEntry);
+            zos.write(content);
+            zos.closeEntry();
+            zos.putNextEntry(new ZipEntry("deflated.bin"));
+            zos.write(content);
+            zos.closeEntry();
+        }
+
+        // perform test and check
+        try (SecuredZipFile securedZipFile = new SecuredZipFile(zipFile, 10, 2L * content.length)) {
+            try (EntryBuffer storedBuffer = securedZipFile.readEntry(securedZipFile.getEntries().get(0));
+                 EntryBuffer deflatedBuffer = securedZipFile.readEntry(securedZipFile.getEntries().get(1))) {
+                assertThat(storedBuffer.isMapped()).isTrue();
+                assertThat(deflatedBuffer.isMapped()).isFalse();
+                assertThat(deflatedBuffer.getBuffer().isDirect()).isTrue();
+                assertThat(toArray(storedBuffer)).isEqualTo(content);
+                assertThat(toArray(deflatedBuffer)).isEqualTo(content);
+            }
+            // the sizes are charged before anything is read
+            assertThatThrownBy(() -> securedZipFile.readEntry(securedZipFile.getEntries().get(0)))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Archive size is too big.");
+        }
+
+        try (SecuredZipFile securedZipFile = new SecuredZipFile(getZipFile(), 1000, 500000)) {
+            for (ZipArchiveEntry entry : securedZipFile.getEntries()) {
+                try (EntryBuffer entryBuffer = securedZipFile.readEntry(entry); InputStream is = securedZipFile.getInputStream(entry)) {
+                    assertThat(toArray(entryBuffer)).isEqualTo(is.readAllBytes());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testReadEntryWithLyingCentralDirectory(@TempDir Path tempDir) throws Exception {
+        Path zipFile = tempDir.resolve("lying.zip");
+        try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(zipFile))) {
+            zos.putNextEntry(new ZipEntry("file"));
+            zos.write(new byte[10000]);
+            zos.closeEntry();
+        }
+        // declare an uncompressed size of 10 bytes in the central directory
+        byte[] bytes = Files.readAllBytes(zipFile);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < bytes.length - 4; i++) {
+            if (buffer.getInt(i) == 0x02014b50) {
+                buffer.putInt(i + 24, 10);
+            }
+        }
+        Files.write(zipFile, bytes);
+
+        try (SecuredZipFile securedZipFile = new SecuredZipFile(zipFile, 10, 1000)) {
+            assertThatThrownBy(() -> securedZipFile.readEntry(securedZipFile.getEntries().getFirst()))
+                    .isInstanceOf(ZipException.class)
+                    .hasMessage("Entry size does not match its declared size: file");
+        }
+    }
+
+    @Test
+    void testReadStoredEntryWithLyingCentralDirectory(@TempDir Path tempDir) throws Exception {
+        byte[] content = new byte[1000];
+        new Random(0).nextBytes(content);
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        Path zipFile = tempDir.resolve("stored.zip");
+        try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(zipFile))) {
+            ZipEntry storedEntry = new ZipEntry("stored.bin");
+            storedEntry.setMethod(ZipEntry.STORED);
+            storedEntry.setSize(content.length);
+            storedEntry.setCrc(crc.getValue());
+            zos.putNextEntry(storedEntry);
+            zos.write(content);
+            zos.closeEntry();
+        }
+        byte[] bytes = Files.readAllBytes(zipFile);
+
+        // a corrupted byte of the stored data
+        byte[] corruptedBytes = bytes.clone();
+        corruptedBytes[100] ^= 1;
+        Files.write(zipFile, corruptedBytes);
+        try (SecuredZipFile securedZipFile = new SecuredZipFile(zipFile, 10, 10000)) {
+            assertThatThrownBy(() -> securedZipFile.readEntry(securedZipFile.getEntries().getFirst()))
+                    .isInstanceOf(ZipException.class)
+                    .hasMessage("Entry CRC does not match its declared CRC: stored.bin");
+        }
+
+        // an uncompressed size of 10 bytes declared in the central directory
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < bytes.length - 4; i++) {
+            if (buffer.getInt(i) == 0x02014b50) {
+                buffer.putInt(i + 24, 10);
+            }
+        }
+        Files.write(zipFile, bytes);
+        try (SecuredZipFile securedZipFile = new SecuredZipFile(zipFile, 10, 10000)) {
+            assertThatThrownBy(() -> securedZipFile.readEntry(securedZipFile.getEntries().getFirst()))
+                    .isInstanceOf(ZipException.class)
+                    .hasMessage("Stored entry size does not match its compressed size: stored.bin");
+            assertThatThrownBy(() -> securedZipFile.extractTo(tempDir.resolve("target"), 1))
+                    .isInstanceOf(ZipException.class)
+                    .hasMessage("Stored entry size does not match its compressed size: stored.bin");
+        }
+    }
+
+    @Test
+    void testScan() throws Exception {
+        Path zipFile = getZipFile();
+        ZipManifest manifest = SecuredZipFile.scan(zipFile, 1000, 500000, 100);
+        assertThat(manifest.entries()).hasSize(10);
+        assertThat(manifest.entries().getFirst().isDirectory()).isTrue();
+        assertThat(manifest.getTotalSize()).isEqualTo(478169);
+        assertThat(manifest.getTotalCompressedSize()).isEqualTo(56782);
+
+        assertThatThrownBy(() -> SecuredZipFile.scan(zipFile, 3, 500000, 100))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Archive has too many entries.");
+        assertThatThrownBy(() -> SecuredZipFile.scan(new SeekableInMemoryByteChannel(new byte[100]), 3, 500000, 100))
+                .isInstanceOf(ZipException.class)
+                .hasMessage("Archive is not a zip file.");
+    }
+
+    @Test
+    void testScanRejectsHighCompressionRatio() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(bos)) {
+            zos.putNextEntry(new ZipEntry("zeros"));
+            zos.write(new byte[10_000_000]);
+            zos.closeEntry();
+        }
+        SeekableInMemoryByteChannel channel = new SeekableInMemoryByteChannel(bos.toByteArray());
+        assertThatThrownBy(() -> SecuredZipFile.scan(channel, 10, 100_000_000, 100))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Archive compression ratio is too high.");
+        channel.position(0);
+        assertThat(SecuredZipFile.scan(channel, 10, 100_000_000, 10000).entries()).hasSize(1);
+    }
+
+    @Test
+    void testZipSlipIsRejected(@TempDir Path tempDir) throws IOException {
+        Path zipFile = tempDir.resolve("zip-slip.zip");
+        try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(zipFile))) {
+            zos.putNextEntry(new ZipEntry("../evil.txt"));
+            zos.write(1);
+            zos.closeEntry();
+        }
+
+        Path targetDir = tempDir.resolve("target");
+        try (SecuredZipFile securedZipFile = new SecuredZipFile(zipFile, 10, 1000)) {
+            assertThatThrownBy(() -> securedZipFile.extractTo(targetDir, 2))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Archive entry is outside of the target directory: ../evil.txt");
+        }
+        assertThat(tempDir.resolve("evil.txt")).doesNotExist();
+    }
+
+    private Path getZipFile() throws URISyntaxException {
+        return Path.of(Objects.requireNonNull(getClass().getResource("/" + ZIP_NAME + ".zip")).toURI());
+    }
+
+    private static byte[] toArray(EntryBuffer entryBuffer) {
+        ByteBuffer buffer = entryBuffer.getBuffer();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static long readAll(SecuredZipFile securedZipFile) throws IOException {
+        long readBytes = 0;
+        for (ZipArchiveEntry entry : securedZipFile.getEntries()) {
+            try (InputStream is = securedZipFile.getInputStream(entry)) {
+                readBytes += is.readAllBytes().length;
+            }
+        }
+        return readBytes;
+    }
+}
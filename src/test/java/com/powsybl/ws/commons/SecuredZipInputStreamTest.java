@@ -8,10 +8,19 @@ package com.powsybl.ws.commons;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -42,6 +51,200 @@ class SecuredZipInputStreamTest {
         }
     }
 
+    @Test
+    void testBigBuffersAreClampedToTheRemainingSize() throws IOException {
+        // the limit is the exact uncompressed size of the archive, so reads of 1 MiB buffers must be clamped instead of rejected
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream("/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.zip"), 1000, 478169)) {
+            byte[] buffer = new byte[1024 * 1024];
+            long readBytes = 0;
+            while (zis.getNextEntry() != null) {
+                int n;
+                while ((n = zis.read(buffer)) != -1) {
+                    readBytes += n;
+                }
+            }
+            assertEquals(478169, readBytes);
+        }
+
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream("/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.zip"), 1000, 478169)) {
+            long transferredBytes = 0;
+            while (zis.getNextEntry() != null) {
+                transferredBytes += zis.transferTo(OutputStream.nullOutputStream());
+            }
+            assertEquals(478169, transferredBytes);
+        }
+
+        try (SecuredZipInputStream tooBigSecuredZis = new SecuredZipInputStream(getClass().getResourceAsStream("/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.zip"), 1000, 478168)) {
+            assertTrue(assertThrows(IllegalStateException.class, () -> {
+                while (tooBigSecuredZis.getNextEntry() != null) {
+                    tooBigSecuredZis.transferTo(OutputStream.nullOutputStream());
+                }
+            }).getMessage().contains("Archive size is too big."));
+        }
+    }
+
+    @Test
+    void testSkippedBytesAreCounted() throws IOException {
+        try (SecuredZipInputStream tooBigSecuredZis = new SecuredZipInputStream(getClass().getResourceAsStream("/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.zip"), 1000, 40000)) {
+            assertTrue(assertThrows(IllegalStateException.class, () -> {
+                while (tooBigSecuredZis.getNextEntry() != null) {
+                    tooBigSecuredZis.skip(Long.MAX_VALUE);
+                }
+            }).getMessage().contains("Archive size is too big."));
+        }
+    }
+
+    @Test
+    void testCompressionRatioAbortsEarly() throws IOException {
+        // setup: an entry of 16 MiB of zeros, whose compression ratio is about 1000
+        byte[] bomb = zipOfZeros(16 * 1024 * 1024);
+        ArchiveLimits entryRatioLimits = ArchiveLimits.builder().maxEntries(10).maxUncompressedSize(1000000000).maxEntryCompressionRatio(100).build();
+        ArchiveLimits ratioLimits = ArchiveLimits.builder().maxEntries(10).maxUncompressedSize(1000000000).maxCompressionRatio(100).build();
+
+        // perform test and check
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(new ByteArrayInputStream(bomb), entryRatioLimits)) {
+            zis.getNextEntry();
+            byte[] buffer = new byte[8192];
+            long[] readBytes = {0};
+            assertTrue(assertThrows(IllegalStateException.class, () -> {
+                int n;
+                while ((n = zis.read(buffer)) != -1) {
+                    readBytes[0] += n;
+                }
+            }).getMessage().contains("Archive entry compression ratio is too high."));
+            // aborted as soon as the minimum size for the check is reached
+            assertTrue(readBytes[0] < ArchiveLimits.DEFAULT_MIN_SIZE_FOR_RATIO_CHECK);
+        }
+
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(new ByteArrayInputStream(bomb), ratioLimits)) {
+            assertTrue(assertThrows(IllegalStateException.class, () -> readZip(zis))
+                .getMessage().contains("Archive compression ratio is too high."));
+        }
+
+        // the test archive is far below these ratios
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream("/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.zip"),
+            ArchiveLimits.builder().maxEntries(1000).maxUncompressedSize(500000).maxCompressionRatio(100).maxEntryCompressionRatio(100).minSizeForRatioCheck(64 * 1024).build())) {
+            assertEquals(478169, readZip(zis));
+        }
+    }
+
+    @Test
+    void testInvalidCompressionRatio() {
+        ArchiveLimits.Builder builder = ArchiveLimits.builder();
+        assertThrows(IllegalArgumentException.class, () -> builder.maxCompressionRatio(0.5));
+        assertThrows(IllegalArgumentException.class, () -> builder.maxEntryCompressionRatio(Double.NaN));
+    }
+
+    @Test
+    void testTimeLimits() throws IOException {
+        // setup: an archive read slowly, 64 bytes per millisecond
+        String zip = "/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.zip";
+        ArchiveLimits durationLimits = ArchiveLimits.builder().maxEntries(100).maxUncompressedSize(1000000000).maxDuration(Duration.ofMillis(50)).build();
+        ArchiveLimits throughputLimits = ArchiveLimits.builder().maxEntries(100).maxUncompressedSize(1000000000).minThroughput(1000000000, Duration.ofMillis(20)).build();
+        ArchiveLimits cpuTimeLimits = ArchiveLimits.builder().maxEntries(100).maxUncompressedSize(1000000000).maxCpuTime(Duration.ofHours(1)).build();
+
+        // perform test and check
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(new SlowInputStream(getClass().getResourceAsStream(zip)), durationLimits)) {
+            assertTrue(assertThrows(IllegalStateException.class, () -> readZip(zis))
+                .getMessage().contains("Archive decompression takes too long."));
+        }
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(new SlowInputStream(getClass().getResourceAsStream(zip)), throughputLimits)) {
+            assertTrue(assertThrows(IllegalStateException.class, () -> readZip(zis))
+                .getMessage().contains("Archive decompression throughput is too low."));
+        }
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream(zip), cpuTimeLimits)) {
+            assertEquals(478169, readZip(zis));
+        }
+    }
+
+    @Test
+    void testInvalidTimeLimits() {
+        ArchiveLimits.Builder builder = ArchiveLimits.builder();
+        assertThrows(IllegalArgumentException.class, () -> builder.maxDuration(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> builder.maxCpuTime(Duration.ofSeconds(-1)));
+        assertThrows(IllegalArgumentException.class, () -> builder.minThroughput(-1, Duration.ZERO));
+    }
+
+    private static final class SlowInputStream extends FilterInputStream {
+
+        private SlowInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            return super.read(b, off, Math.min(len, 64));
+        }
+    }
+
+    static byte[] zipOfZeros(int size) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(bos)) {
+            zos.putNextEntry(new ZipEntry("zeros.bin"));
+            zos.write(new byte[size]);
+            zos.closeEntry();
+        }
+        return bos.toByteArray();
+    }
+
+    @Test
+    void testEntryFilter() throws IOException {
+        // only the EQ and TPBD files are returned, but the other ones are counted as entries and inflated to reach them
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream("/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.zip"), 11, 478169)) {
+            zis.setEntryFilter(ArchiveEntryFilters.glob("**_EQ_*.xml", "**/*TPBD*"));
+            assertTrue(zis.getNextEntry().getName().endsWith("_EQ_6.xml"));
+            assertEquals(237272, zis.transferTo(OutputStream.nullOutputStream()));
+            assertTrue(zis.getNextEntry().getName().endsWith("_TPBD_6.xml"));
+            assertEquals(10250, zis.transferTo(OutputStream.nullOutputStream()));
+            assertNull(zis.getNextEntry());
+        }
+
+        // so a bomb in a skipped entry is still caught by the uncompressed size
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream("/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.zip"), 11, 247522)) {
+            zis.setEntryFilter(ArchiveEntryFilters.glob("**_EQ_*.xml", "**/*TPBD*"));
+            assertTrue(assertThrows(IllegalStateException.class, () -> {
+                while (zis.getNextEntry() != null) {
+                    zis.transferTo(OutputStream.nullOutputStream());
+                }
+            }).getMessage().contains("Archive size is too big."));
+        }
+    }
+
+    @Test
+    void testDigest() throws IOException, NoSuchAlgorithmException {
+        byte[] archiveDigest;
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream("/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.zip"), 1000, 500000)) {
+            zis.setDigestAlgorithm("SHA-256");
+            assertNull(zis.getEntryDigest());
+            while (zis.getNextEntry() != null) {
+                byte[] content = zis.readAllBytes();
+                assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(content), zis.getEntryDigest());
+            }
+            assertNull(zis.getEntryDigest());
+            archiveDigest = zis.getArchiveDigest();
+        }
+
+        // the unread bytes of the entries are decompressed and digested when moving to the next entry
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream("/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.zip"), 1000, 500000)) {
+            zis.setDigestAlgorithm("SHA-256");
+            while (zis.getNextEntry() != null) {
+                zis.read();
+            }
+            assertArrayEquals(archiveDigest, zis.getArchiveDigest());
+        }
+
+        try (SecuredZipInputStream zis = new SecuredZipInputStream(getClass().getResourceAsStream("/MicroGridTestConfiguration_T4_BE_BB_Complete_v2.zip"), 1000, 500000)) {
+            assertThrows(IllegalArgumentException.class, () -> zis.setDigestAlgorithm("unknown"));
+            assertNull(zis.getArchiveDigest());
+        }
+    }
+
     private static int readZip(ZipInputStream zis) throws IOException {
         ZipEntry entry = zis.getNextEntry();
         int readBytes = 0;
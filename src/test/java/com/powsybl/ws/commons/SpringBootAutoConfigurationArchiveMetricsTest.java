@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.ws.commons;
+
+import com.powsybl.ws.commons.springboot.PowsyblWsCommonAutoConfiguration;
+import com.powsybl.wscommons.testspringbootapp.SpringBootApplicationForTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.FilteredClassLoader;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+/**
+ * We test the archive metrics configuration
+ *
+ * @author Etienne Homer <etienne.homer at rte-france.com>
+ */
+@DisplayNameGeneration(DisplayNameGenerator.Simple.class)
+class SpringBootAutoConfigurationArchiveMetricsTest implements WithAssertions {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(SpringBootApplicationForTest.class, PowsyblWsCommonAutoConfiguration.class));
+
+    @Test
+    void testNormally() {
+        this.contextRunner.run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context).hasSingleBean(MicrometerArchiveMetrics.class);
+        });
+    }
+
+    @Test
+    void testWhenPropertyEnableIsFalse() {
+        this.contextRunner
+            .withPropertyValues("powsybl-ws.autoconfigure.archive-metrics.enable=false")
+            .run(context -> {
+                assertThat(context).hasNotFailed();
+                assertThat(context).doesNotHaveBean("powsyblArchiveMetrics");
+            });
+    }
+
+    @Test
+    void testWhenMicrometerIsMissing() {
+        this.contextRunner
+            .withClassLoader(new FilteredClassLoader(MeterRegistry.class))
+            .run(context -> {
+                assertThat(context).hasNotFailed();
+                assertThat(context).doesNotHaveBean("powsyblArchiveMetrics");
+            });
+    }
+}
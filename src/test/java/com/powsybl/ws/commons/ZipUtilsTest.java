@@ -10,13 +10,21 @@ package com.powsybl.ws.commons;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -94,5 +102,269 @@ class ZipUtilsTest {
                 .hasCauseInstanceOf(IOException.class);
     }
 
-}
+    @Test
+    void testParallelZipIsDeterministic(@TempDir Path tempDir) throws IOException {
+        // setup
+        Path sourceDir = tempDir.resolve("sourceDir");
+        Files.createDirectories(sourceDir.resolve("subDir"));
+        for (int i = 0; i < 20; i++) {
+            Files.writeString(sourceDir.resolve(i % 2 == 0 ? "file" + i + ".txt" : "subDir/file" + i + ".txt"), ("content " + i).repeat(1000 * i));
+        }
+
+        Path sequentialZipFile = tempDir.resolve("sequential.zip");
+        Path parallelZipFile = tempDir.resolve("parallel.zip");
+        Path otherParallelZipFile = tempDir.resolve("otherParallel.zip");
+
+        // perform test, with a small in memory size to spill the biggest entries to disk
+        ZipUtils.zip(sourceDir, sequentialZipFile, ZipOptions.builder().build());
+        ZipUtils.zip(sourceDir, parallelZipFile, ZipOptions.builder().parallelism(4).maxInMemoryEntrySize(1024).build());
+        ZipUtils.zip(sourceDir, otherParallelZipFile, ZipOptions.builder().parallelism(3).build());
+
+        // check contents and determinism
+        assertThat(readEntries(parallelZipFile))
+                .hasSize(20)
+                .isEqualTo(readEntries(sequentialZipFile));
+        assertThat(parallelZipFile).hasSameBinaryContentAs(otherParallelZipFile);
+    }
+
+    @Test
+    void testParallelWalkIsDeterministic(@TempDir Path tempDir) throws IOException {
+        // setup
+        Path sourceDir = tempDir.resolve("sourceDir");
+        for (int i = 0; i < 100; i++) {
+            Path file = sourceDir.resolve("dir" + i % 7).resolve("subDir" + i % 3).resolve("file" + i + ".txt");
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, "content " + i);
+        }
+        Files.createDirectories(sourceDir.resolve("emptyDir"));
 
+        Path sequentialZipFile = tempDir.resolve("sequential.zip");
+        Path parallelWalkZipFile = tempDir.resolve("parallelWalk.zip");
+
+        // perform test
+        ZipUtils.zip(sourceDir, sequentialZipFile, ZipOptions.builder().build());
+        ZipUtils.zip(sourceDir, parallelWalkZipFile, ZipOptions.builder().walkParallelism(8).build());
+
+        // check
+        assertThat(readEntries(parallelWalkZipFile)).hasSize(100);
+        assertThat(parallelWalkZipFile).hasSameBinaryContentAs(sequentialZipFile);
+    }
+
+    @Test
+    void testZipOptionsRejectsInvalidParallelism() {
+        ZipOptions.Builder builder = ZipOptions.builder();
+        assertThatThrownBy(() -> builder.parallelism(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Parallelism must be strictly positive.");
+        assertThatThrownBy(() -> builder.walkParallelism(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Walk parallelism must be strictly positive.");
+    }
+
+    @Test
+    void testZipToOutputStream(@TempDir Path tempDir) throws IOException {
+        // setup
+        Path sourceDir = tempDir.resolve("sourceDir");
+        Files.createDirectories(sourceDir);
+        Files.writeString(sourceDir.resolve("file1.txt"), "content 1");
+        Files.writeString(sourceDir.resolve("file2.txt"), "content 2");
+
+        Path zipFile = tempDir.resolve("sourceDir.zip");
+        ZipUtils.zip(sourceDir, zipFile);
+
+        FlushCountingOutputStream outputStream = new FlushCountingOutputStream();
+
+        // perform test
+        ZipUtils.zip(sourceDir, outputStream, ZipOptions.builder().flushEachEntry(true).build());
+
+        // check the archive is streamed, entry by entry, and the output stream is left open
+        assertThat(outputStream.flushCount).isGreaterThanOrEqualTo(2);
+        assertThat(outputStream.closed).isFalse();
+        assertThat(readEntries(new ByteArrayInputStream(outputStream.toByteArray())))
+                .isEqualTo(readEntries(Files.newInputStream(zipFile)));
+    }
+
+    @Test
+    void testParallelZipToOutputStream(@TempDir Path tempDir) throws IOException {
+        // setup
+        Path sourceDir = tempDir.resolve("sourceDir");
+        Files.createDirectories(sourceDir);
+        for (int i = 0; i < 10; i++) {
+            Files.writeString(sourceDir.resolve("file" + i + ".txt"), ("content " + i).repeat(1000));
+        }
+
+        Path zipFile = tempDir.resolve("sourceDir.zip");
+        ZipUtils.zip(sourceDir, zipFile);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // perform test
+        ZipUtils.zip(sourceDir, outputStream, ZipOptions.builder().parallelism(2).build());
+
+        // check
+        assertThat(readEntries(new ByteArrayInputStream(outputStream.toByteArray())))
+                .hasSize(10)
+                .isEqualTo(readEntries(Files.newInputStream(zipFile)));
+    }
+
+    @Test
+    void testZipToOutputStreamThrowsExceptionWhenSourceIsNotDirectory(@TempDir Path tempDir) throws IOException {
+        // setup
+        Path aFile = tempDir.resolve("file.txt");
+        Files.writeString(aFile, "content");
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // perform test and check
+        assertThatThrownBy(() -> ZipUtils.zip(aFile, outputStream))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Provided path is not a directory.");
+        assertThat(outputStream.size()).isZero();
+    }
+
+    @Test
+    void testAdaptiveZipStoresIncompressibleEntries(@TempDir Path tempDir) throws IOException {
+        // setup
+        Path sourceDir = tempDir.resolve("sourceDir");
+        Files.createDirectories(sourceDir);
+        byte[] randomBytes = new byte[100_000];
+        new Random(0).nextBytes(randomBytes);
+        Files.write(sourceDir.resolve("random.bin"), randomBytes);
+        Files.writeString(sourceDir.resolve("already.gz"), "content".repeat(1000));
+        Files.writeString(sourceDir.resolve("text.txt"), "content".repeat(1000));
+        Files.writeString(sourceDir.resolve("network.XML"), "content".repeat(1000));
+
+        for (int parallelism : new int[] {1, 2}) {
+            Path zipFile = tempDir.resolve("adaptive" + parallelism + ".zip");
+
+            // perform test
+            ZipUtils.zip(sourceDir, zipFile, ZipOptions.builder()
+                    .parallelism(parallelism)
+                    .adaptive(true)
+                    .level("xml", ZipOptions.STORED_LEVEL)
+                    .levelFromSize(1000, 9)
+                    .build());
+
+            // check methods and contents
+            try (ZipFile zip = new ZipFile(zipFile.toFile())) {
+                assertThat(zip.getEntry("random.bin").getMethod()).isEqualTo(ZipEntry.STORED);
+                assertThat(zip.getEntry("already.gz").getMethod()).isEqualTo(ZipEntry.STORED);
+                assertThat(zip.getEntry("network.XML").getMethod()).isEqualTo(ZipEntry.STORED);
+                assertThat(zip.getEntry("text.txt").getMethod()).isEqualTo(ZipEntry.DEFLATED);
+                assertThat(zip.getInputStream(zip.getEntry("random.bin")).readAllBytes()).isEqualTo(randomBytes);
+            }
+            assertThat(readEntries(zipFile)).isEqualTo(readEntries(new ByteArrayInputStream(zipToBytes(sourceDir))));
+        }
+    }
+
+    @Test
+    void testIncrementalZipReusesUnchangedEntries(@TempDir Path tempDir) throws IOException {
+        // setup
+        Path sourceDir = tempDir.resolve("sourceDir");
+        Files.createDirectories(sourceDir);
+        Files.writeString(sourceDir.resolve("unchanged.txt"), "unchanged".repeat(1000));
+        Files.writeString(sourceDir.resolve("touched.txt"), "touched".repeat(1000));
+        Files.writeString(sourceDir.resolve("changed.txt"), "content".repeat(1000));
+        Files.writeString(sourceDir.resolve("deleted.txt"), "deleted");
+
+        for (int parallelism : new int[] {1, 2}) {
+            Path zipFile = tempDir.resolve("incremental" + parallelism + ".zip");
+            // the entries of the first archive are stored, so the reused ones can be told from the compressed ones
+            ZipUtils.zipIncrementally(sourceDir, zipFile, ZipOptions.builder().level(ZipOptions.STORED_LEVEL).build());
+            assertThat(tempDir.resolve("incremental" + parallelism + ".zip.manifest")).exists();
+            Files.writeString(sourceDir.resolve("changed.txt"), "changed".repeat(1000));
+            Files.setLastModifiedTime(sourceDir.resolve("touched.txt"), FileTime.fromMillis(1_600_000_000_000L));
+            Files.move(sourceDir.resolve("deleted.txt"), sourceDir.resolve("added.txt"));
+
+            // perform test
+            ZipUtils.zipIncrementally(sourceDir, zipFile, ZipOptions.builder().parallelism(parallelism).build());
+
+            // check
+            try (ZipFile zip = new ZipFile(zipFile.toFile())) {
+                assertThat(zip.getEntry("unchanged.txt").getMethod()).isEqualTo(ZipEntry.STORED);
+                assertThat(zip.getEntry("touched.txt").getMethod()).isEqualTo(ZipEntry.STORED);
+                assertThat(zip.getEntry("touched.txt").getTime()).isEqualTo(1_600_000_000_000L);
+                assertThat(zip.getEntry("changed.txt").getMethod()).isEqualTo(ZipEntry.DEFLATED);
+                assertThat(zip.getEntry("deleted.txt")).isNull();
+            }
+            assertThat(readEntries(zipFile)).isEqualTo(readEntries(new ByteArrayInputStream(zipToBytes(sourceDir))));
+
+            // restore the initial directory for the next parallelism
+            Files.writeString(sourceDir.resolve("changed.txt"), "content".repeat(1000));
+            Files.move(sourceDir.resolve("added.txt"), sourceDir.resolve("deleted.txt"));
+        }
+    }
+
+    @Test
+    void testZipOptionsRejectsInvalidLevel() {
+        ZipOptions.Builder builder = ZipOptions.builder();
+        assertThatThrownBy(() -> builder.level("txt", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid compression level: 10");
+    }
+
+    @Test
+    void testUnzipRoundTrip(@TempDir Path tempDir) throws IOException {
+        // setup
+        Path sourceDir = tempDir.resolve("sourceDir");
+        Files.createDirectories(sourceDir.resolve("subDir"));
+        Files.writeString(sourceDir.resolve("file1.txt"), "content 1");
+        Files.writeString(sourceDir.resolve("subDir/file2.txt"), "content 2");
+        Path zipFile = tempDir.resolve("sourceDir.zip");
+        ZipUtils.zip(sourceDir, zipFile);
+
+        Path targetDir = tempDir.resolve("targetDir");
+
+        // perform test
+        ZipUtils.unzip(zipFile, targetDir, 10, 1000);
+
+        // check
+        assertThat(targetDir.resolve("file1.txt")).hasContent("content 1");
+        assertThat(targetDir.resolve("subDir/file2.txt")).hasContent("content 2");
+    }
+
+    @Test
+    void testUnzipThrowsUncheckedIOExceptionWhenZipIsMissing(@TempDir Path tempDir) {
+        Path zipFile = tempDir.resolve("missing.zip");
+
+        assertThatThrownBy(() -> ZipUtils.unzip(zipFile, tempDir, 10, 1000))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasMessageContaining("Error occurred while unzipping the file: " + zipFile);
+    }
+
+    private static byte[] zipToBytes(Path sourceDir) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ZipUtils.zip(sourceDir, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static Map<String, String> readEntries(Path zipFile) throws IOException {
+        return readEntries(Files.newInputStream(zipFile));
+    }
+
+    private static Map<String, String> readEntries(InputStream inputStream) throws IOException {
+        Map<String, String> entries = new HashMap<>();
+        try (ZipInputStream zis = new ZipInputStream(inputStream)) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                entries.put(entry.getName(), new String(zis.readAllBytes()));
+            }
+        }
+        return entries;
+    }
+
+    private static final class FlushCountingOutputStream extends ByteArrayOutputStream {
+        private int flushCount;
+        private boolean closed;
+
+        @Override
+        public void flush() {
+            flushCount++;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -6,6 +6,7 @@
  */
 package com.powsybl.ws.commons.error;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,6 +19,7 @@ import org.springframework.web.ErrorResponseException;
 import org.springframework.web.client.HttpClientErrorException;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -65,6 +67,113 @@ class BaseExceptionHandlerTest {
         assertEquals("downstream", problem.getChain().getFirst().toServer());
     }
 
+    @Test
+    void handleRemoteExceptionForwardsUpstreamChain() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/remote/call");
+        String body = """
+            {
+              "status": 404,
+              "detail": "Element not found",
+              "server": "c-server",
+              "businessErrorCode": "element.NOT_FOUND",
+              "businessErrorValues": {"ids": ["A", "B"], "details": {"count": 2}},
+              "timestamp": "2025-02-10T12:35:00Z",
+              "chain": [
+                {"from-server": "b-server", "to-server": "c-server", "method": "GET", "path": "/c", "timestamp": "2025-02-10T12:35:01Z"},
+                {"from-server": "a-server", "to-server": "b-server", "method": "GET", "path": "/b", "timestamp": "2025-02-10T12:35:02Z"}
+              ]
+            }
+            """;
+        HttpClientErrorException exception = HttpClientErrorException.create(
+            HttpStatus.NOT_FOUND,
+            "Not found",
+            null,
+            body.getBytes(StandardCharsets.UTF_8),
+            StandardCharsets.UTF_8
+        );
+
+        ResponseEntity<PowsyblWsProblemDetail> response = handler.handleRemoteException(exception, request);
+
+        PowsyblWsProblemDetail problem = response.getBody();
+        assertThat(problem).isNotNull();
+        JsonNode written = OBJECT_MAPPER.readTree(OBJECT_MAPPER.writeValueAsBytes(problem));
+        JsonNode upstream = OBJECT_MAPPER.readTree(body);
+        assertEquals(upstream.get("businessErrorValues"), written.get("businessErrorValues"));
+        assertThat(written.get("chain")).hasSize(3);
+        assertEquals("test-server", written.get("chain").get(0).get("from-server").asText());
+        assertEquals("b-server", written.get("chain").get(0).get("to-server").asText());
+        assertEquals("/remote/call", written.get("chain").get(0).get("path").asText());
+        assertEquals(upstream.get("chain").get(0), written.get("chain").get(1));
+        assertEquals(upstream.get("chain").get(1), written.get("chain").get(2));
+
+        // the raw values are read when accessed
+        assertThat(problem.getChain()).extracting(PowsyblWsProblemDetail.ChainEntry::fromServer)
+            .containsExactly("test-server", "b-server", "a-server");
+        assertThat(problem.getBusinessErrorValues()).containsEntry("ids", List.of("A", "B"));
+        assertEquals(written, OBJECT_MAPPER.readTree(problem.toString()));
+    }
+
+    @Test
+    void handleRemoteExceptionWithMalformedUpstreamChain() {
+        BaseExceptionHandler limitedHandler = new BaseExceptionHandler(() -> "test-server",
+            ProblemDetailBudget.builder().maxChainLength(2).build());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/remote/call");
+        String body = """
+            {
+              "status": 404,
+              "detail": "Element not found",
+              "server": "c-server",
+              "chain": [
+                {"from-server": "b-server", "to-server": "c-server", "timestamp": "2025-02-10T12:35:01Z", "count": 0},
+                {"from-server": "a-server", "to-server": "b-server", "timestamp": "yesterday"}
+              ]
+            }
+            """;
+        HttpClientErrorException exception = HttpClientErrorException.create(
+            HttpStatus.NOT_FOUND,
+            "Not found",
+            null,
+            body.getBytes(StandardCharsets.UTF_8),
+            StandardCharsets.UTF_8
+        );
+
+        PowsyblWsProblemDetail problem = limitedHandler.handleRemoteException(exception, request).getBody();
+
+        // the body is not taken for a problem detail, instead of failing once its chain is read
+        assertThat(problem).isNotNull();
+        assertEquals("test-server", problem.getServer());
+        assertThat(problem.getChain()).extracting(PowsyblWsProblemDetail.ChainEntry::fromServer)
+            .containsExactly("test-server");
+    }
+
+    @Test
+    void handleRemoteExceptionFitsBudget() {
+        BaseExceptionHandler limitedHandler = new BaseExceptionHandler(() -> "test-server",
+            ProblemDetailBudget.builder().maxChainLength(2).maxDetailLength(5).build());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/remote/call");
+        PowsyblWsProblemDetail remote = PowsyblWsProblemDetail.builder(HttpStatus.NOT_FOUND)
+            .server("c-server")
+            .detail("Element not found")
+            .build();
+        remote.wrap("b-server", "GET", "/c");
+        remote.wrap("a-server", "GET", "/b");
+        HttpClientErrorException exception = HttpClientErrorException.create(
+            HttpStatus.NOT_FOUND,
+            "Not found",
+            null,
+            remote.toBytes(),
+            StandardCharsets.UTF_8
+        );
+
+        PowsyblWsProblemDetail problem = limitedHandler.handleRemoteException(exception, request).getBody();
+
+        assertThat(problem).isNotNull();
+        assertThat(problem.getDetail()).isEqualTo("Eleme");
+        assertThat(problem.getChain()).extracting(PowsyblWsProblemDetail.ChainEntry::fromServer)
+            .containsExactly("test-server", "a-server");
+        assertThat(problem.getTruncation()).isEqualTo(new PowsyblWsProblemDetail.Truncation(1, 12, List.of()));
+    }
+
     @Test
     void handleAllExceptionsUsesReasonPhraseWhenMessageMissing() {
         MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/generic/error");
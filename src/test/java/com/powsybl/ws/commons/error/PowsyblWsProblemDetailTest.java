@@ -6,8 +6,10 @@
  */
 package com.powsybl.ws.commons.error;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.powsybl.ws.commons.error.PowsyblWsProblemDetail.ChainEntry;
 import org.junit.jupiter.api.AfterAll;
@@ -19,14 +21,22 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.MDC;
 import org.slf4j.helpers.NOPMDCAdapter;
 import org.slf4j.spi.MDCAdapter;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.ErrorResponseException;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpStatusCodeException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.when;
@@ -196,6 +206,163 @@ class PowsyblWsProblemDetailTest {
         assertEquals(Instant.parse("2025-02-10T12:35:00Z"), second.timestamp());
     }
 
+    @Test
+    void streamsRoundTrip() throws Exception {
+        PowsyblWsProblemDetail problem = PowsyblWsProblemDetail.builder(HttpStatus.BAD_REQUEST)
+            .server("c-server")
+            .businessErrorCode("directory.ERROR")
+            .detail("invalid \"payload\"")
+            .path("/c/resources")
+            .businessErrorValues(Map.of("fields", List.of("A", "B"), "count", 2, "nested", Map.of("valid", false)))
+            .build();
+        problem.wrap("b-server", "GET", "/c/resources");
+        problem.wrap("a-server");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        problem.writeTo(out);
+        PowsyblWsProblemDetail read = PowsyblWsProblemDetail.fromInputStream(new ByteArrayInputStream(out.toByteArray()));
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(problem.toString());
+        assertThat(problem.toBytes()).isEqualTo(out.toByteArray());
+        assertThat(OBJECT_MAPPER.writeValueAsString(problem)).isEqualTo(problem.toString());
+        assertThat(read.getStatus()).isEqualTo(400);
+        assertThat(read.getDetail()).isEqualTo("invalid \"payload\"");
+        assertThat(read.getTimestamp()).isEqualTo(problem.getTimestamp());
+        assertThat(read.getBusinessErrorValues()).isEqualTo(problem.getBusinessErrorValues());
+        assertThat(read.getChain()).isEqualTo(problem.getChain());
+        assertThat(read.getChain().get(1).toServer()).isEqualTo("c-server");
+    }
+
+    @Test
+    void springObjectMapperOmitsEmptyFieldsAndFlattensProperties() throws Exception {
+        ObjectMapper springObjectMapper = Jackson2ObjectMapperBuilder.json().build();
+        PowsyblWsProblemDetail problem = PowsyblWsProblemDetail.builder(HttpStatus.NOT_FOUND)
+            .server("c-server")
+            .detail("Element not found")
+            .build();
+        problem.setProperty("extra", 1);
+
+        JsonNode node = springObjectMapper.readTree(springObjectMapper.writeValueAsString(problem));
+        assertThat(node.has("title")).isFalse();
+        assertThat(node.has("businessErrorValues")).isFalse();
+        assertThat(node.has("chain")).isFalse();
+        assertThat(node.has("properties")).isFalse();
+        assertThat(node.get("extra").asInt()).isEqualTo(1);
+        assertThat(node.get("detail").asText()).isEqualTo("Element not found");
+
+        PowsyblWsProblemDetail read = springObjectMapper.readValue(springObjectMapper.writeValueAsString(problem), PowsyblWsProblemDetail.class);
+        assertThat(read.getProperties()).isEqualTo(Map.of("extra", 1));
+        assertThat(read.getServer()).isEqualTo("c-server");
+        assertThat(read.getChain()).isEmpty();
+    }
+
+    @Test
+    void rejectsUnknownProperties() throws Exception {
+        String json = """
+            {
+              "timestamp": "2025-02-10T12:35:00Z",
+              "status": 500,
+              "error": "Internal Server Error",
+              "path": "/c/resources"
+            }
+            """;
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> PowsyblWsProblemDetail.fromBytes(body))
+            .isInstanceOf(MismatchedInputException.class)
+            .hasMessageContaining("error");
+
+        // an object mapper ignoring them skips them
+        PowsyblWsProblemDetail problem = OBJECT_MAPPER.copy()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .readValue(json, PowsyblWsProblemDetail.class);
+        assertEquals(500, problem.getStatus());
+        assertEquals("/c/resources", problem.getPath());
+    }
+
+    @Test
+    void wrapCollapsesRepeatedHops() {
+        PowsyblWsProblemDetail problem = PowsyblWsProblemDetail.builder(HttpStatus.NOT_FOUND)
+            .server("b-server")
+            .detail("not found")
+            .build();
+        problem.limit(ProblemDetailBudget.builder().maxChainLength(10).build());
+
+        problem.wrap("b-server", "GET", "/b/resources");
+        problem.wrap("b-server", "GET", "/b/resources");
+        problem.wrap("a-server", "GET", "/b/resources");
+
+        assertThat(problem.getChain()).extracting(ChainEntry::fromServer, ChainEntry::count)
+            .containsExactly(tuple("a-server", 1), tuple("b-server", 2));
+        assertThat(problem.toString()).contains("\"count\":2");
+    }
+
+    @Test
+    void wrapCollapsesHopsRepeatedInALoop() {
+        PowsyblWsProblemDetail problem = PowsyblWsProblemDetail.builder(HttpStatus.NOT_FOUND)
+            .server("b-server")
+            .detail("not found")
+            .build();
+        problem.limit(ProblemDetailBudget.builder().maxChainLength(10).build());
+
+        // a-server and b-server calling each other back
+        for (int i = 0; i < 3; i++) {
+            problem.wrap("a-server", "GET", "/b/resources");
+            problem.wrap("b-server", "GET", "/a/resources");
+        }
+
+        assertThat(problem.getChain()).extracting(ChainEntry::fromServer, ChainEntry::toServer, ChainEntry::count)
+            .containsExactly(tuple("b-server", "a-server", 3), tuple("a-server", "b-server", 3));
+    }
+
+    @Test
+    void wrapKeepsRepeatedHopsWithoutBudget() {
+        PowsyblWsProblemDetail problem = PowsyblWsProblemDetail.builder(HttpStatus.NOT_FOUND)
+            .server("b-server")
+            .detail("not found")
+            .build();
+        problem.limit(ProblemDetailBudget.UNLIMITED);
+
+        problem.wrap("b-server", "GET", "/b/resources");
+        problem.wrap("b-server", "GET", "/b/resources");
+
+        assertThat(problem.getChain()).extracting(ChainEntry::fromServer, ChainEntry::count)
+            .containsExactly(tuple("b-server", 1), tuple("b-server", 1));
+        assertThat(problem.toString()).doesNotContain("\"count\"", "\"truncated\"");
+    }
+
+    @Test
+    void limitTruncatesAndMarksPayload() throws Exception {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("id", "A");
+        values.put("ids", Collections.nCopies(100, "B"));
+        values.put("count", 100);
+        PowsyblWsProblemDetail problem = PowsyblWsProblemDetail.builder(HttpStatus.NOT_FOUND)
+            .server("server-0")
+            .detail("x".repeat(100))
+            .businessErrorValues(values)
+            .build();
+
+        problem.limit(ProblemDetailBudget.builder().maxChainLength(3).maxDetailLength(10).maxBusinessErrorValuesSize(30).build());
+        for (int i = 1; i <= 5; i++) {
+            problem.wrap("server-" + i, "GET", "/resources");
+        }
+
+        assertThat(problem.getChain()).extracting(ChainEntry::fromServer).containsExactly("server-5", "server-4", "server-3");
+        assertThat(problem.getDetail()).isEqualTo("x".repeat(10));
+        assertThat(problem.getBusinessErrorValues()).containsOnlyKeys("id", "count");
+        assertEquals(new PowsyblWsProblemDetail.Truncation(2, 90, List.of("ids")), problem.getTruncation());
+
+        // the truncation is forwarded, and added to
+        PowsyblWsProblemDetail forwarded = PowsyblWsProblemDetail.fromBytes(problem.toBytes());
+        assertEquals(problem.getTruncation(), forwarded.getTruncation());
+        forwarded.wrap("server-6", "GET", "/resources");
+        assertThat(forwarded.getTruncation()).isEqualTo(problem.getTruncation());
+        forwarded.limit(ProblemDetailBudget.builder().maxChainLength(3).build());
+        assertThat(forwarded.getTruncation().chainEntries()).isEqualTo(3);
+        assertThat(OBJECT_MAPPER.readTree(forwarded.toString()).get("truncated").get("chainEntries").asInt()).isEqualTo(3);
+    }
+
     @Test
     void fromExceptionWithBusinessException(@Mock AbstractBusinessException businessException) {
         when(businessException.getBusinessErrorCode()).thenReturn(() -> "ERR123");
@@ -254,6 +421,40 @@ class PowsyblWsProblemDetailTest {
         assertThat(result.getChain().getFirst().toServer()).isEqualTo(SERVER_NAME);
     }
 
+    @Test
+    void fromExceptionReadsOnlyProblemDetailBodies() {
+        byte[] body = PowsyblWsProblemDetail.builder(HttpStatus.NOT_FOUND).server("upstream").detail("not found").build().toBytes();
+        HttpHeaders problemHeaders = new HttpHeaders();
+        problemHeaders.setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+        HttpHeaders htmlHeaders = new HttpHeaders();
+        htmlHeaders.setContentType(MediaType.TEXT_HTML);
+
+        // a problem detail body, with or without a JSON content type
+        assertThat(PowsyblWsProblemDetail.fromException(
+            HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", problemHeaders, body, StandardCharsets.UTF_8), SERVER_NAME).getDetail())
+            .isEqualTo("not found");
+        assertThat(PowsyblWsProblemDetail.fromException(
+            HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, body, StandardCharsets.UTF_8), SERVER_NAME).getDetail())
+            .isEqualTo("not found");
+
+        // the same body with another content type, a body which is not an object, a too deep or too big body
+        byte[] deep = ("{\"businessErrorValues\":{\"value\":" + "[".repeat(100) + "]".repeat(100) + "}}").getBytes(StandardCharsets.UTF_8);
+        byte[] big = new byte[ProblemDetailCodec.MAX_DOCUMENT_LENGTH + 1];
+        System.arraycopy(body, 0, big, 0, body.length);
+        Arrays.fill(big, body.length, big.length, (byte) ' ');
+        List<HttpStatusCodeException> exceptions = List.of(
+            HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", htmlHeaders, body, StandardCharsets.UTF_8),
+            HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, "<html>Not Found</html>".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8),
+            HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, deep, StandardCharsets.UTF_8),
+            HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, big, StandardCharsets.UTF_8));
+        for (HttpStatusCodeException exception : exceptions) {
+            PowsyblWsProblemDetail result = PowsyblWsProblemDetail.fromException(exception, SERVER_NAME);
+            assertThat(result.getDetail()).isEqualTo("404 Not Found");
+            assertThat(result.getServer()).isEqualTo(SERVER_NAME);
+            assertThat(result.getBusinessErrorValues()).isEmpty();
+        }
+    }
+
     @Test
     void fromExceptionWithErrorResponse() {
         PowsyblWsProblemDetail problemDetail = PowsyblWsProblemDetail.builder()